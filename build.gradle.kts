@@ -65,6 +65,22 @@ tasks.withType<Test> {
 }
 tasks.test {
 	outputs.dir(snippetsDir)
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+val benchmark by tasks.registering(Test::class) {
+	description = "Runs the benchmarks, which are excluded from the regular test run."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
 }
 
 tasks.asciidoctor {
@@ -26,7 +26,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -47,10 +47,10 @@ public class Preloader {
     @Bean
     CommandLineRunner initDatabase(ProjectService projectService) {
         AllergenPerson bob =
-                new AllergenPerson("Bob", new Date(2024, 07, 22), new Date(2024, 07, 25), "Mittagessen", "Abendessen",
-                        List.of("Ei"), List.of("Laktose"));
-        Project project = new Project("Testprojekt", List.of("Mittagessen", "Abendessen"), new Date(2024, 07, 22),
-                new Date(2024, 07, 28), List.of(bob), List.of(), List.of(), List.of());
+                new AllergenPerson("Bob", LocalDate.of(2024, 7, 22), LocalDate.of(2024, 7, 25), "Mittagessen",
+                        "Abendessen", List.of("Ei"), List.of("Laktose"));
+        Project project = new Project("Testprojekt", List.of("Mittagessen", "Abendessen"), LocalDate.of(2024, 7, 22),
+                LocalDate.of(2024, 7, 28), List.of(bob), List.of(), List.of(), List.of());
         return args -> {
             logger.info("Insert new Project with Id: " + projectService.saveNewProject(project));
         };
@@ -0,0 +1,90 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportProgress;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportRejection;
+import com.scouts.kitchenplanerbackend.recipeimport.NdjsonImportListener;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportFormat;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportListener;
+import com.scouts.kitchenplanerbackend.services.RecipeImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command line mode for seeding the database with recipes. Every file given with
+ * {@code --import-recipes=<file>} is imported on startup. The import runs once the application has started, so the
+ * web server already accepts requests and clients may see a partially seeded database until it has finished. Files
+ * ending in .csv are read as CSV, all others as newline delimited JSON. Rejected records are written to
+ * {@code <file>.rejected.ndjson}.
+ */
+@Configuration
+public class RecipeImportCommand {
+    private final Logger logger = LoggerFactory.getLogger(RecipeImportCommand.class);
+
+    /**
+     * Imports the recipe files given on the command line
+     *
+     * @param recipeImporter The importer to be used for storing the recipes
+     * @param objectMapper   The mapper used to parse and write JSON
+     * @return The application runner which imports the files
+     */
+    @Bean
+    ApplicationRunner importRecipes(RecipeImporter recipeImporter, ObjectMapper objectMapper) {
+        return args -> {
+            if (!args.containsOption("import-recipes")) {
+                return;
+            }
+            for (String file : args.getOptionValues("import-recipes")) {
+                Path path = Path.of(file);
+                Path rejectedPath = Path.of(file + ".rejected.ndjson");
+                logger.info("Importing recipes from {}", path);
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                     OutputStream rejected = Files.newOutputStream(rejectedPath)) {
+                    RecipeImportListener rejectedFile = new NdjsonImportListener(rejected, objectMapper);
+                    RecipeImportProgress result = recipeImporter.importRecipes(reader,
+                            RecipeImportFormat.ofFileName(file), new RecipeImportListener() {
+                                @Override
+                                public void progress(RecipeImportProgress progress) {
+                                    logger.info("{} recipes imported, {} rejected, {} recipes per second",
+                                            progress.imported(), progress.rejected(),
+                                            Math.round(progress.recipesPerSecond()));
+                                }
+
+                                @Override
+                                public void rejected(RecipeImportRejection rejection) throws IOException {
+                                    rejectedFile.rejected(rejection);
+                                }
+                            });
+                    logger.info("Imported {} of {} recipes from {} in {} ms, rejected records are listed in {}",
+                            result.imported(), result.records(), path, result.elapsedMillis(), rejectedPath);
+                }
+            }
+        };
+    }
+}
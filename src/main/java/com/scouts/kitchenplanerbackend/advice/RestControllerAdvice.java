@@ -17,6 +17,8 @@
 
 package com.scouts.kitchenplanerbackend.advice;
 
+import com.scouts.kitchenplanerbackend.exceptions.ProjectVersionConflictException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -51,6 +53,17 @@ public class RestControllerAdvice {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
 
+    /**
+     * Handles ProjectVersionConflictExceptions
+     *
+     * @param ex The exception that should be handled
+     * @return A response entity with HTTP status code 409 and a body containing the current version of the project
+     */
+    @ExceptionHandler({ProjectVersionConflictException.class})
+    public ResponseEntity<Long> handleProjectVersionConflict(ProjectVersionConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getCurrentVersion());
+    }
+
     /**
      * Handles FileNotFoundExceptions
      *
@@ -0,0 +1,61 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.projectdtos.MealSlotConflicts;
+import com.scouts.kitchenplanerbackend.services.AllergenConflictService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller which provides the allergen conflicts of projects
+ */
+@RestController
+@RequestMapping("/projects/{projectID}/allergenConflicts")
+public class AllergenConflictController {
+    private final AllergenConflictService allergenConflictService;
+
+    /**
+     * Creates a new AllergenConflictController
+     *
+     * @param allergenConflictService The service to be used for determining allergen conflicts
+     */
+    @Autowired
+    public AllergenConflictController(AllergenConflictService allergenConflictService) {
+        this.allergenConflictService = allergenConflictService;
+    }
+
+    /**
+     * Get the allergen conflicts of the project with the given ID. For every meal slot with recipes, the allergen
+     * persons present at the slot who can not eat its main recipe are listed together with an alternative recipe of
+     * the slot they can eat.
+     *
+     * @param projectID The ID of the project
+     * @return 200: The conflicts of every meal slot, ordered by meal slot.
+     * 404: If there is no project with the given ID.
+     */
+    @GetMapping
+    public ResponseEntity<List<MealSlotConflicts>> getAllergenConflicts(@PathVariable("projectID") Long projectID) {
+        return ResponseEntity.ok(allergenConflictService.getConflicts(projectID));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.projectdtos.HeadcountGrid;
+import com.scouts.kitchenplanerbackend.services.HeadcountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Controller which provides how many people eat at the meal slots of a project
+ */
+@RestController
+@RequestMapping("/projects/{projectID}/headcount")
+public class HeadcountController {
+    private final HeadcountService headcountService;
+
+    /**
+     * Creates a new HeadcountController
+     *
+     * @param headcountService The service to be used for computing the headcounts
+     */
+    @Autowired
+    public HeadcountController(HeadcountService headcountService) {
+        this.headcountService = headcountService;
+    }
+
+    /**
+     * Get the headcount and the number of allergen persons of every meal slot of the project with the given ID.
+     *
+     * @param projectID The ID of the project
+     * @return 200: The numbers of all meal slots.
+     * 404: If there is no project with the given ID.
+     */
+    @GetMapping
+    public ResponseEntity<HeadcountGrid> getHeadcountGrid(@PathVariable("projectID") Long projectID) {
+        return ResponseEntity.ok(headcountService.getHeadcountGrid(projectID));
+    }
+
+    /**
+     * Get the number of people eating at a meal slot of the project with the given ID.
+     *
+     * @param projectID The ID of the project
+     * @param date      The day of the meal slot (ISO format)
+     * @param meal      The meal of the meal slot
+     * @return 200: The headcount.
+     * 400: If the meal slot is not part of the project.
+     * 404: If there is no project with the given ID.
+     */
+    @GetMapping("/slot")
+    public ResponseEntity<Integer> getHeadcount(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam("meal") String meal
+    ) {
+        return ResponseEntity.ok(headcountService.getHeadcount(projectID, date, meal));
+    }
+
+    /**
+     * Get the number of portions needed for all meal slots of the project with the given ID between two meal slots,
+     * both included.
+     *
+     * @param projectID The ID of the project
+     * @param fromDate  The day of the first meal slot (ISO format)
+     * @param fromMeal  The meal of the first meal slot
+     * @param toDate    The day of the last meal slot (ISO format)
+     * @param toMeal    The meal of the last meal slot
+     * @return 200: The sum of the headcounts of the meal slots.
+     * 400: If one of the meal slots is not part of the project.
+     * 404: If there is no project with the given ID.
+     */
+    @GetMapping("/portions")
+    public ResponseEntity<Long> getPortions(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("fromDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam("fromMeal") String fromMeal,
+            @RequestParam("toDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam("toMeal") String toMeal
+    ) {
+        return ResponseEntity.ok(headcountService.getPortions(projectID, fromDate, fromMeal, toDate, toMeal));
+    }
+}
@@ -17,16 +17,23 @@
 package com.scouts.kitchenplanerbackend.controller;
 
 import com.scouts.kitchenplanerbackend.exceptions.ImageFileNotFoundException;
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
+import com.scouts.kitchenplanerbackend.services.ImageCache;
 import com.scouts.kitchenplanerbackend.services.ImageIOService;
+import com.scouts.kitchenplanerbackend.services.ImageIOService.VersionedImage;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
 
 
 /**
@@ -35,6 +42,8 @@ import java.io.IOException;
 @RestController
 @RequestMapping("/media")
 public class ImageController {
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
     private final ImageIOService imageIOService;
 
     /**
@@ -82,40 +91,134 @@ public class ImageController {
     }
 
     /**
-     * Get the current image of the project with the given ID.
+     * Get the current image of the project with the given ID. The response carries the image version as ETag and
+     * has to be revalidated before every use, which is answered with 304 Not Modified while the image is unchanged.
+     * Range requests are supported, so interrupted downloads can be resumed.
      *
      * @param projectID The ID of the project
-     * @return The project's image
+     * @param size      The requested size, the original is served while the downscaled variant is generated
+     * @return The project's image, streamed from the image file
      * @throws IOException                When reading the image fails for some reason
      * @throws ImageFileNotFoundException When no image exists matching the file name stored in the project
      */
     @GetMapping("/projects/{projectID}")
-    public ResponseEntity<Resource> getProjectPicture(@PathVariable("projectID") Long projectID)
-            throws IOException, ImageFileNotFoundException {
-        byte[] image = imageIOService.getProjectImage(projectID);
-        ByteArrayResource resource = new ByteArrayResource(image);
-        return ResponseEntity
-                .status(HttpStatus.OK)
-                .contentLength(resource.contentLength())
-                .body(resource);
+    public ResponseEntity<Resource> getProjectPicture(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageSize size
+    ) throws IOException, ImageFileNotFoundException {
+        VersionedImage image = imageIOService.getProjectImage(projectID, size);
+        return imageResponse(image, "project-" + projectID, CacheControl.noCache());
+    }
+
+    /**
+     * Get a specific version of the image of the project with the given ID. As the content of an image version
+     * never changes, the response may be cached forever. Requests for an outdated version are redirected to the
+     * current one.
+     *
+     * @param projectID    The ID of the project
+     * @param imageVersion The requested image version
+     * @param size         The requested size, the original is served while the downscaled variant is generated
+     * @return The project's image, streamed from the image file, or a redirect to the current image version
+     * @throws IOException                When reading the image fails for some reason
+     * @throws ImageFileNotFoundException When no image exists matching the file name stored in the project
+     */
+    @GetMapping("/projects/{projectID}/versions/{imageVersion}")
+    public ResponseEntity<Resource> getProjectPictureVersion(
+            @PathVariable("projectID") Long projectID,
+            @PathVariable("imageVersion") long imageVersion,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageSize size
+    ) throws IOException, ImageFileNotFoundException {
+        VersionedImage image = imageIOService.getProjectImage(projectID, size);
+        return versionedImageResponse(image, imageVersion, size, "project-" + projectID,
+                "/media/projects/" + projectID);
     }
 
     /**
-     * Get the current image of the recipe with the given ID.
+     * Get the current image of the recipe with the given ID. The response carries the image version as ETag and
+     * has to be revalidated before every use, which is answered with 304 Not Modified while the image is unchanged.
+     * Range requests are supported, so interrupted downloads can be resumed.
      *
      * @param recipeID The ID of the recipe
-     * @return The recipe's image
+     * @param size     The requested size, the original is served while the downscaled variant is generated
+     * @return The recipe's image, streamed from the image file
      * @throws IOException                When reading the image fails for some reason
      * @throws ImageFileNotFoundException When no image exists matching the file name stored for the recipe
      */
     @GetMapping("/recipes/{recipeID}")
-    public ResponseEntity<Resource> getRecipePicture(@PathVariable("recipeID") Long recipeID)
-            throws IOException, ImageFileNotFoundException {
-        byte[] image = imageIOService.getProjectImage(recipeID);
-        ByteArrayResource resource = new ByteArrayResource(image);
+    public ResponseEntity<Resource> getRecipePicture(
+            @PathVariable("recipeID") Long recipeID,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageSize size
+    ) throws IOException, ImageFileNotFoundException {
+        VersionedImage image = imageIOService.getRecipeImage(recipeID, size);
+        return imageResponse(image, "recipe-" + recipeID, CacheControl.noCache());
+    }
+
+    /**
+     * Get a specific version of the image of the recipe with the given ID. As the content of an image version
+     * never changes, the response may be cached forever. Requests for an outdated version are redirected to the
+     * current one.
+     *
+     * @param recipeID     The ID of the recipe
+     * @param imageVersion The requested image version
+     * @param size         The requested size, the original is served while the downscaled variant is generated
+     * @return The recipe's image, streamed from the image file, or a redirect to the current image version
+     * @throws IOException                When reading the image fails for some reason
+     * @throws ImageFileNotFoundException When no image exists matching the file name stored for the recipe
+     */
+    @GetMapping("/recipes/{recipeID}/versions/{imageVersion}")
+    public ResponseEntity<Resource> getRecipePictureVersion(
+            @PathVariable("recipeID") Long recipeID,
+            @PathVariable("imageVersion") long imageVersion,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageSize size
+    ) throws IOException, ImageFileNotFoundException {
+        VersionedImage image = imageIOService.getRecipeImage(recipeID, size);
+        return versionedImageResponse(image, imageVersion, size, "recipe-" + recipeID,
+                "/media/recipes/" + recipeID);
+    }
+
+    /**
+     * Get the hit ratio and the occupied memory of the image cache
+     *
+     * @return 200: The statistics of the image cache.
+     */
+    @GetMapping("/cacheStatistics")
+    public ResponseEntity<ImageCache.Statistics> getCacheStatistics() {
+        return ResponseEntity.ok(imageIOService.getCacheStatistics());
+    }
+
+    private ResponseEntity<Resource> versionedImageResponse(VersionedImage image, long requestedVersion,
+                                                            ImageSize requestedSize, String tag, String path)
+            throws IOException {
+        if (image.version() != requestedVersion) {
+            // only the current version is stored, so older versions can not be served anymore
+            String sizeParameter = requestedSize == ImageSize.ORIGINAL ? "" : "?size=" + requestedSize;
+            return ResponseEntity
+                    .status(HttpStatus.FOUND)
+                    .location(URI.create(path + "/versions/" + image.version() + sizeParameter))
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        if (image.size() != requestedSize) {
+            // the original stands in for a derivative that is not generated yet and must not be cached for good
+            return imageResponse(image, tag, CacheControl.noCache());
+        }
+        return imageResponse(image, tag, CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePublic().immutable());
+    }
+
+    /**
+     * Builds the response for an image file. Spring answers conditional requests matching the ETag or the last
+     * modification date with 304 Not Modified and serves range requests from the file with 206 Partial Content, so
+     * the content length is determined by the framework as well. The ETag names the size that is actually served.
+     */
+    private ResponseEntity<Resource> imageResponse(VersionedImage image, String tag, CacheControl cacheControl)
+            throws IOException {
+        String sizeTag = image.size() == ImageSize.ORIGINAL ? "" : "-" + image.size().name().toLowerCase(Locale.ROOT);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .contentLength(resource.contentLength())
-                .body(resource);
+                .eTag(tag + "-v" + image.version() + sizeTag)
+                .lastModified(image.file().lastModified())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(image.file());
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectDelta;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.SerializedProject;
+import com.scouts.kitchenplanerbackend.services.ProjectCache;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Controller which provides access to complete projects
+ */
+@RestController
+@RequestMapping("/projects")
+public class ProjectController {
+    private final ProjectService projectService;
+
+    /**
+     * Creates a new ProjectController
+     *
+     * @param projectService The service to be used for loading and storing projects
+     */
+    @Autowired
+    public ProjectController(ProjectService projectService) {
+        this.projectService = projectService;
+    }
+
+    /**
+     * Get the current version of the project with the given ID. The response carries an ETag derived from the
+     * project's version numbers; if the app already has this version, the project is not sent again.
+     *
+     * @param projectID      The ID of the project
+     * @param ifNoneMatch    The ETag of the version the app already has (optional)
+     * @param acceptEncoding The encodings accepted by the app (optional)
+     * @return 200: The project as JSON.
+     * 304: If the app already has the current version of the project.
+     * 404: If there is no project with the given ID.
+     * @throws IOException When the project could not be serialized
+     */
+    @GetMapping("/{projectID}")
+    public ResponseEntity<byte[]> getProject(
+            @PathVariable("projectID") Long projectID,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) throws IOException {
+        ProjectStubDTO stub = projectService.getProjectStub(projectID);
+        String eTag = SerializedProject.eTag(stub.getProjectVersion(), stub.getImageVersion());
+        if (matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        SerializedProject project = projectService.getSerializedProject(projectID);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(project.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] content = project.content();
+        if (project.gzipped()) {
+            if (acceptsGzip(acceptEncoding)) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            } else {
+                content = ProjectCache.decompress(content);
+            }
+        }
+        return response.contentLength(content.length).body(content);
+    }
+
+    /**
+     * Get all changes of the project with the given ID since the version the app has. If these changes are not
+     * known anymore, the response contains the complete current project instead.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the app has
+     * @return 200: The changes since the given version.
+     * 404: If there is no project with the given ID.
+     */
+    @GetMapping("/{projectID}/changes")
+    public ResponseEntity<ProjectDelta> getProjectChanges(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber
+    ) {
+        return ResponseEntity.ok(projectService.getProjectDelta(projectID, versionNumber));
+    }
+
+    /**
+     * Stores a new version of the project with the given ID. The version number of the given project has to be the
+     * version the changes are based on. Only the parts of the project that changed are written.
+     *
+     * @param projectID The ID of the project
+     * @param project   The new version of the project
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the ID of the given project does not match the ID in the path, the project lasts longer than
+     * {@link ScheduleDays#MAX_DAYS} days, contains a meal more than once or refers to meals or recipes that do not
+     * exist.
+     * 404: If there is no project with the given ID.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PutMapping("/{projectID}")
+    public ResponseEntity<ProjectUpdateResult> updateProject(
+            @PathVariable("projectID") Long projectID,
+            @RequestBody Project project
+    ) {
+        if (project.id() != projectID) {
+            throw new IllegalArgumentException("Project ID " + project.id() + " does not match " + projectID);
+        }
+        return ResponseEntity.ok(projectService.updateProject(project));
+    }
+
+    /**
+     * Decides whether gzip is an acceptable content coding according to an Accept-Encoding header. A coding listed
+     * with a quality value of 0 is not acceptable; gzip is also acceptable through a wildcard unless it is listed
+     * explicitly.
+     *
+     * @param acceptEncoding The Accept-Encoding header, may be null
+     * @return Whether the response may be sent gzip compressed
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + eTag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.services.ProjectElementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Controller for changing single elements of a project without sending the complete project. Every change has to
+ * state the version of the project it is based on and is rejected if the project was changed in the meantime.
+ */
+@RestController
+@RequestMapping("/projects/{projectID}")
+public class ProjectElementController {
+    private final ProjectElementService projectElementService;
+
+    /**
+     * Creates a new ProjectElementController
+     *
+     * @param projectElementService The service to be used for changing the elements of projects
+     */
+    @Autowired
+    public ProjectElementController(ProjectElementService projectElementService) {
+        this.projectElementService = projectElementService;
+    }
+
+    /**
+     * Adds an allergen person to the project with the given ID or replaces the allergen person with the same name.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param person        The allergen person
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the arrival or departure meal does not exist in the project.
+     * 404: If there is no project with the given ID.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PutMapping("/allergenPeople")
+    public ResponseEntity<ProjectUpdateResult> putAllergenPerson(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestBody AllergenPerson person
+    ) {
+        return ResponseEntity.ok(projectElementService.putAllergenPerson(projectID, versionNumber, person));
+    }
+
+    /**
+     * Removes an allergen person from the project with the given ID.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param name          The name of the allergen person
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 404: If there is no project with the given ID or it has no allergen person with this name.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @DeleteMapping("/allergenPeople/{name}")
+    public ResponseEntity<ProjectUpdateResult> deleteAllergenPerson(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @PathVariable("name") String name
+    ) {
+        return ResponseEntity.ok(projectElementService.deleteAllergenPerson(projectID, versionNumber, name));
+    }
+
+    /**
+     * Adds a meal to the project with the given ID. The new meal is ordered after all existing meals.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param name          The name of the new meal
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the project already has a meal with this name.
+     * 404: If there is no project with the given ID.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PostMapping("/meals/{name}")
+    public ResponseEntity<ProjectUpdateResult> addMeal(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @PathVariable("name") String name
+    ) {
+        return ResponseEntity.ok(projectElementService.addMeal(projectID, versionNumber, name));
+    }
+
+    /**
+     * Renames a meal of the project with the given ID. All allergen persons, recipes and person number changes of the
+     * meal keep referring to it.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param name          The current name of the meal
+     * @param newName       The new name of the meal
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the project already has a meal with the new name.
+     * 404: If there is no project with the given ID or it has no meal with this name.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PatchMapping("/meals/{name}")
+    public ResponseEntity<ProjectUpdateResult> renameMeal(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @PathVariable("name") String name,
+            @RequestParam("newName") String newName
+    ) {
+        return ResponseEntity.ok(projectElementService.renameMeal(projectID, versionNumber, name, newName));
+    }
+
+    /**
+     * Removes a meal from the project with the given ID.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param name          The name of the meal
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the meal is still used by allergen persons, recipes or person number changes.
+     * 404: If there is no project with the given ID or it has no meal with this name.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @DeleteMapping("/meals/{name}")
+    public ResponseEntity<ProjectUpdateResult> deleteMeal(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @PathVariable("name") String name
+    ) {
+        return ResponseEntity.ok(projectElementService.deleteMeal(projectID, versionNumber, name));
+    }
+
+    /**
+     * Adds a recipe to a meal slot of the project with the given ID. A main recipe replaces the current main recipe of
+     * the meal slot.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param recipe        The recipe and its meal slot
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the meal or the recipe does not exist.
+     * 404: If there is no project with the given ID.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PutMapping("/recipes")
+    public ResponseEntity<ProjectUpdateResult> putRecipe(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestBody RecipeForProject recipe
+    ) {
+        return ResponseEntity.ok(projectElementService.putRecipe(projectID, versionNumber, recipe));
+    }
+
+    /**
+     * Removes a recipe from a meal slot of the project with the given ID.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param date          The day of the meal slot
+     * @param meal          The meal of the meal slot
+     * @param recipeID      The ID of the recipe
+     * @param mainRecipe    Whether the recipe is the main recipe of the meal slot or an alternative
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 404: If there is no project with the given ID or the recipe is not used for the meal slot.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @DeleteMapping("/recipes")
+    public ResponseEntity<ProjectUpdateResult> deleteRecipe(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam("meal") String meal,
+            @RequestParam("recipeID") Long recipeID,
+            @RequestParam("mainRecipe") boolean mainRecipe
+    ) {
+        RecipeForProject recipe = new RecipeForProject(date, meal, recipeID, mainRecipe);
+        return ResponseEntity.ok(projectElementService.deleteRecipe(projectID, versionNumber, recipe));
+    }
+
+    /**
+     * Adds a unit conversion to the project with the given ID or replaces the factor of the existing conversion.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param conversion    The unit conversion
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the conversion contradicts the other unit conversions of the project. The body names the
+     * contradicting conversions.
+     * 404: If there is no project with the given ID.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PutMapping("/unitConversions")
+    public ResponseEntity<ProjectUpdateResult> putUnitConversion(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestBody UnitConversion conversion
+    ) {
+        return ResponseEntity.ok(projectElementService.putUnitConversion(projectID, versionNumber, conversion));
+    }
+
+    /**
+     * Removes a unit conversion from the project with the given ID.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param startUnit     The unit the conversion converts from
+     * @param endUnit       The unit the conversion converts to
+     * @param ingredient    The ingredient the conversion is specific to, omitted for general conversions
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 404: If there is no project with the given ID or it has no such conversion.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @DeleteMapping("/unitConversions")
+    public ResponseEntity<ProjectUpdateResult> deleteUnitConversion(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestParam("startUnit") String startUnit,
+            @RequestParam("endUnit") String endUnit,
+            @RequestParam(value = "ingredient", defaultValue = UnitConversionGraph.ALL_INGREDIENTS) String ingredient
+    ) {
+        return ResponseEntity.ok(projectElementService.deleteUnitConversion(projectID, versionNumber, startUnit,
+                endUnit, ingredient));
+    }
+
+    /**
+     * Sets how many persons arrive or leave before a meal slot of the project with the given ID.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param change        The person number change
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 400: If the meal does not exist in the project.
+     * 404: If there is no project with the given ID.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @PutMapping("/personNumberChanges")
+    public ResponseEntity<ProjectUpdateResult> putPersonNumberChange(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestBody PersonNumberChange change
+    ) {
+        return ResponseEntity.ok(projectElementService.putPersonNumberChange(projectID, versionNumber, change));
+    }
+
+    /**
+     * Removes the person number change before a meal slot of the project with the given ID.
+     *
+     * @param projectID     The ID of the project
+     * @param versionNumber The version number of the project the change is based on
+     * @param date          The day of the meal slot
+     * @param meal          The meal of the meal slot
+     * @return 200: The new version number of the project and how many rows were inserted, updated and deleted.
+     * 404: If there is no project with the given ID or the number of persons does not change
+     * before the meal slot.
+     * 409: If the project was changed in the meantime. The body contains the current version number of the project.
+     */
+    @DeleteMapping("/personNumberChanges")
+    public ResponseEntity<ProjectUpdateResult> deletePersonNumberChange(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("versionNumber") Long versionNumber,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam("meal") String meal
+    ) {
+        return ResponseEntity.ok(projectElementService.deletePersonNumberChange(projectID, versionNumber, date,
+                meal));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.recipedtos.DietaryFilter;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeSearchHit;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeStubPage;
+import com.scouts.kitchenplanerbackend.services.RecipeCache;
+import com.scouts.kitchenplanerbackend.services.RecipeSearchService;
+import com.scouts.kitchenplanerbackend.services.RecipeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller which provides complete recipes
+ */
+@RestController
+@RequestMapping("/recipes")
+public class RecipeController {
+    private final RecipeService recipeService;
+    private final RecipeSearchService recipeSearchService;
+
+    /**
+     * Creates a new RecipeController
+     *
+     * @param recipeService       The service to be used for loading recipes
+     * @param recipeSearchService The service to be used for searching recipes
+     */
+    @Autowired
+    public RecipeController(RecipeService recipeService, RecipeSearchService recipeSearchService) {
+        this.recipeService = recipeService;
+        this.recipeSearchService = recipeSearchService;
+    }
+
+    /**
+     * Get the recipe with the given ID including its ingredients, instructions and dietary specialities
+     *
+     * @param recipeID The ID of the recipe
+     * @return 200: The recipe.
+     * 404: If there is no recipe with the given ID.
+     */
+    @GetMapping("/{recipeID}")
+    public ResponseEntity<Recipe> getRecipe(@PathVariable("recipeID") Long recipeID) {
+        return ResponseEntity.ok(recipeService.getRecipe(recipeID));
+    }
+
+    /**
+     * Get all recipes with the given IDs including their ingredients, instructions and dietary specialities. The
+     * recipes are loaded with the same number of queries as a single recipe.
+     *
+     * @param recipeIDs The IDs of the recipes
+     * @return 200: The recipes in the order of the given IDs. IDs without a recipe are skipped.
+     * 400: If more than {@link RecipeService#MAX_BATCH_SIZE} recipes are requested.
+     */
+    @GetMapping
+    public ResponseEntity<List<Recipe>> getRecipes(@RequestParam("ids") List<Long> recipeIDs) {
+        return ResponseEntity.ok(recipeService.getRecipes(recipeIDs));
+    }
+
+    /**
+     * Get one page of the stubs of all recipes. The pages are ordered by the recipe IDs; the next page is requested
+     * with the ID returned together with the current page.
+     *
+     * @param afterID The ID of the last recipe of the previous page, omitted for the first page
+     * @param size    The maximum number of recipes on the page
+     * @return 200: The page of recipe stubs.
+     * 400: If the size is not between 1 and {@link RecipeService#MAX_BATCH_SIZE}.
+     */
+    @GetMapping("/stubs")
+    public ResponseEntity<RecipeStubPage> getRecipeStubs(
+            @RequestParam(value = "afterID", required = false) Long afterID,
+            @RequestParam(value = "size", defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(recipeService.getRecipeStubs(afterID, size));
+    }
+
+    /**
+     * Search recipes by their name, description, ingredients and instructions and by their dietary specialities.
+     * Every word of the query is matched as the beginning of a word of the recipe, ignoring case and the spelling of
+     * umlauts. Without a query, all recipes fulfilling the dietary constraints are returned ordered by their ID.
+     *
+     * @param query         The query
+     * @param freeOf        Specialities, e.g. allergens, the recipes have to be marked free of
+     * @param notContaining Specialities the recipes must not contain
+     * @param noTracesOf    Specialities the recipes must neither contain nor contain traces of
+     * @param offset        The number of best matching recipes to be skipped
+     * @param limit         The maximum number of recipes to be returned
+     * @return 200: The matching recipes, best match first.
+     * 400: If the offset is negative, the limit is not between 1 and {@link RecipeSearchService#MAX_RESULTS} or
+     * their sum exceeds {@link RecipeSearchService#MAX_RANK}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<RecipeSearchHit>> searchRecipes(
+            @RequestParam(value = "query", defaultValue = "") String query,
+            @RequestParam(value = "freeOf", defaultValue = "") List<String> freeOf,
+            @RequestParam(value = "notContaining", defaultValue = "") List<String> notContaining,
+            @RequestParam(value = "noTracesOf", defaultValue = "") List<String> noTracesOf,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        List<DietarySpeciality> required = new ArrayList<>();
+        freeOf.forEach(speciality -> required.add(new DietarySpeciality(speciality, DietaryTypes.FREE_OF)));
+        List<DietarySpeciality> excluded = new ArrayList<>();
+        notContaining.forEach(speciality -> excluded.add(new DietarySpeciality(speciality, DietaryTypes.ALLERGEN)));
+        noTracesOf.forEach(speciality -> {
+            excluded.add(new DietarySpeciality(speciality, DietaryTypes.ALLERGEN));
+            excluded.add(new DietarySpeciality(speciality, DietaryTypes.TRACE));
+        });
+        return ResponseEntity.ok(recipeSearchService.search(query, new DietaryFilter(required, excluded), offset,
+                limit));
+    }
+
+    /**
+     * Get the hit and miss counts of the recipe cache
+     *
+     * @return 200: The statistics of the recipe cache.
+     */
+    @GetMapping("/cacheStatistics")
+    public ResponseEntity<RecipeCache.Statistics> getCacheStatistics() {
+        return ResponseEntity.ok(recipeService.getCacheStatistics());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scouts.kitchenplanerbackend.recipeimport.NdjsonImportListener;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportFormat;
+import com.scouts.kitchenplanerbackend.services.RecipeImporter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller for importing large numbers of recipes
+ */
+@RestController
+@RequestMapping("/recipes/import")
+public class RecipeImportController {
+    private final RecipeImporter recipeImporter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a new RecipeImportController
+     *
+     * @param recipeImporter The importer to be used for storing the recipes
+     * @param objectMapper   The mapper used to write the progress of the import
+     */
+    @Autowired
+    public RecipeImportController(RecipeImporter recipeImporter, ObjectMapper objectMapper) {
+        this.recipeImporter = recipeImporter;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports all recipes of the request body. The body is parsed while it is received and the response is
+     * streamed as newline delimited JSON: every rejected record is reported as {@code {"rejected": ...}} as soon as
+     * it is found and the progress is reported as {@code {"progress": ...}} after every committed chunk. The last
+     * line is the progress with {@code finished} set.
+     *
+     * @param format   The format of the body, NDJSON or CSV
+     * @param body     The records to be imported
+     * @param response The response the progress is streamed to
+     * @throws IOException When reading the body or writing the response fails
+     */
+    @PostMapping
+    public void importRecipes(@RequestParam(value = "format", defaultValue = "NDJSON") RecipeImportFormat format,
+                              InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        recipeImporter.importRecipes(new InputStreamReader(body, StandardCharsets.UTF_8), format,
+                new NdjsonImportListener(response.getOutputStream(), objectMapper));
+    }
+}
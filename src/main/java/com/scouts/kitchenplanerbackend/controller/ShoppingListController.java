@@ -0,0 +1,58 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingList;
+import com.scouts.kitchenplanerbackend.services.ShoppingListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller which provides the shopping lists of projects
+ */
+@RestController
+@RequestMapping("/projects/{projectID}/shoppingList")
+public class ShoppingListController {
+    private final ShoppingListService shoppingListService;
+
+    /**
+     * Creates a new ShoppingListController
+     *
+     * @param shoppingListService The service to be used for computing shopping lists
+     */
+    @Autowired
+    public ShoppingListController(ShoppingListService shoppingListService) {
+        this.shoppingListService = shoppingListService;
+    }
+
+    /**
+     * Get the shopping list of the project with the given ID. All recipes of the project are scaled to the number of
+     * people eating at their meal slots and the quantities are summed per ingredient group, ingredient and unit.
+     *
+     * @param projectID The ID of the project
+     * @return 200: The shopping list.
+     * 404: If there is no project with the given ID.
+     */
+    @GetMapping
+    public ResponseEntity<ShoppingList> getShoppingList(@PathVariable("projectID") Long projectID) {
+        return ResponseEntity.ok(shoppingListService.getShoppingList(projectID));
+    }
+}
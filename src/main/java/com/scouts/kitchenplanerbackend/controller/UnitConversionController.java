@@ -0,0 +1,67 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.controller;
+
+import com.scouts.kitchenplanerbackend.services.UnitConversionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller which converts quantities between units using the unit conversions of a project
+ */
+@RestController
+@RequestMapping("/projects/{projectID}/unitConversions")
+public class UnitConversionController {
+    private final UnitConversionService unitConversionService;
+
+    /**
+     * Creates a new UnitConversionController
+     *
+     * @param unitConversionService The service to be used for converting units
+     */
+    @Autowired
+    public UnitConversionController(UnitConversionService unitConversionService) {
+        this.unitConversionService = unitConversionService;
+    }
+
+    /**
+     * Get the factor to convert a quantity from one unit into another, possibly using several conversions of the
+     * project with the given ID in a row.
+     *
+     * @param projectID  The ID of the project
+     * @param from       The unit the quantity is measured in
+     * @param to         The unit the quantity should be converted to
+     * @param ingredient The ingredient whose conversions should be used in addition to the conversions for all
+     *                   ingredients (optional)
+     * @return 200: The factor.
+     * 404: If there is no project with the given ID or the units can not be converted into each other.
+     */
+    @GetMapping("/factor")
+    public ResponseEntity<Double> getFactor(
+            @PathVariable("projectID") Long projectID,
+            @RequestParam("from") String from,
+            @RequestParam("to") String to,
+            @RequestParam(value = "ingredient", required = false) String ingredient
+    ) {
+        return ResponseEntity.ok(unitConversionService.getFactor(projectID, ingredient, from, to).orElseThrow());
+    }
+}
@@ -16,8 +16,10 @@
 
 package com.scouts.kitchenplanerbackend.entities.projects;
 
+import com.scouts.kitchenplanerbackend.entities.AllergenNameEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.AllergenEntityID;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.JoinColumn;
@@ -37,15 +39,16 @@ import org.hibernate.annotations.OnDeleteAction;
 @IdClass(AllergenEntityID.class)
 public class AllergenEntity {
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ProjectEntity project;
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private AllergenPersonEntity allergenPerson;
     @Id
-    private String allergen;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private AllergenNameEntity allergen;
     private Boolean traces;
 
 
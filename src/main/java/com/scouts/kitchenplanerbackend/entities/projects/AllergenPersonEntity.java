@@ -18,6 +18,7 @@ package com.scouts.kitchenplanerbackend.entities.projects;
 
 import com.scouts.kitchenplanerbackend.entities.projects.ids.AllergenPersonEntityID;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.ManyToOne;
@@ -27,10 +28,9 @@ import lombok.Setter;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
-import java.util.Date;
-
 /**
  * This class represents an allergen person for a specific project and determines when this person arrives and leaves.
+ * The arrival and departure days are stored as {@link ScheduleDays day offsets}.
  */
 @Getter
 @Setter
@@ -42,14 +42,14 @@ public class AllergenPersonEntity {
     @Id
     private String name;
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ProjectEntity project;
-    private Date arrivalDate;
-    private Date departureDate;
-    @ManyToOne
+    private Integer arrivalDay;
+    private Integer departureDay;
+    @ManyToOne(fetch = FetchType.LAZY)
     private MealEntity arrivalMeal;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private MealEntity departureMeal;
 
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.entities.projects;
+
+/**
+ * Projection for {@link AllergenPersonEntity} which contains the names of the arrival and departure meal instead of
+ * the meal entities
+ */
+public interface AllergenPersonStubDTO {
+
+    /**
+     * Provides the name of the allergen person
+     * @return The name of the person
+     */
+    String getName();
+
+    /**
+     * Provides the day when the allergen person arrives
+     * @return The arrival day as {@link ScheduleDays day offset}
+     */
+    Integer getArrivalDay();
+
+    /**
+     * Provides the day when the allergen person leaves
+     * @return The departure day as {@link ScheduleDays day offset}
+     */
+    Integer getDepartureDay();
+
+    /**
+     * Provides the name of the first meal the allergen person has
+     * @return The name of the arrival meal
+     */
+    String getArrivalMeal();
+
+    /**
+     * Provides the name of the last meal the allergen person has
+     * @return The name of the departure meal
+     */
+    String getDepartureMeal();
+}
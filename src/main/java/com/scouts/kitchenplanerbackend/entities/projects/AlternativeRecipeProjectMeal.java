@@ -20,6 +20,7 @@ import com.scouts.kitchenplanerbackend.entities.projects.ids.AlternativeRecipePr
 import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.ManyToOne;
@@ -29,11 +30,10 @@ import lombok.Setter;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
-import java.util.Date;
-
 /**
  * This entity represents an alternative recipe for a specified meal slot in a project. Note that there could be
- * multiple alternative recipes for one meal slot.
+ * multiple alternative recipes for one meal slot. The day of the meal slot is stored as
+ * {@link ScheduleDays day offset}.
  */
 @Getter
 @Setter
@@ -42,17 +42,17 @@ import java.util.Date;
 @Table(name = "alternative_recipe_project_meal")
 public class AlternativeRecipeProjectMeal {
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ProjectEntity project;
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private MealEntity meal;
     @Id
-    private Date date;
+    private int day;
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action =OnDeleteAction.CASCADE)
     private RecipeEntity recipe;
 
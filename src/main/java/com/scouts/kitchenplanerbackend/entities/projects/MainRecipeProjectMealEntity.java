@@ -19,6 +19,7 @@ package com.scouts.kitchenplanerbackend.entities.projects;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.MainRecipeProjectMealID;
 import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.ManyToOne;
@@ -28,10 +29,9 @@ import lombok.Setter;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
-import java.util.Date;
-
 /**
  * Represents a main recipe for a specified meal slot. Note that there is at most one main recipe per meal slot.
+ * The day of the meal slot is stored as {@link ScheduleDays day offset}.
  */
 @Getter
 @Setter
@@ -40,19 +40,19 @@ import java.util.Date;
 @Table(name = "main_recipe_project_meal_entity")
 public class MainRecipeProjectMealEntity {
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ProjectEntity project;
 
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private MealEntity meal;
 
     @Id
-    private Date date;
+    private int day;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private RecipeEntity recipe;
 
@@ -16,11 +16,16 @@
 
 package com.scouts.kitchenplanerbackend.entities.projects;
 
-import com.scouts.kitchenplanerbackend.entities.projects.ids.MealEntityID;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.IdClass;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.OnDelete;
@@ -28,19 +33,24 @@ import org.hibernate.annotations.OnDeleteAction;
 
 /**
  * Represents a meal and their relative order to other meals. Each meal slot belongs to one of the meals.
+ * <p>
+ * Meals are identified by a surrogate key, so the tables referencing a meal only store a single number and a meal
+ * can be renamed without touching them. The name is still unique within a project.
  */
 @Getter
 @Setter
 @Entity
-@IdClass(MealEntityID.class)
+@Table(name = "meal_entity", uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "name"}))
 public class MealEntity {
-
     @Id
-    @ManyToOne
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(nullable = false)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(nullable = false)
     private ProjectEntity project;
     private int sequence;
-    @Id
+    @Column(nullable = false)
     private String name;
-
-}
\ No newline at end of file
+}
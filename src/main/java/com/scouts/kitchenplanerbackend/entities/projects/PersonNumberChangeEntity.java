@@ -18,6 +18,7 @@ package com.scouts.kitchenplanerbackend.entities.projects;
 
 import com.scouts.kitchenplanerbackend.entities.projects.ids.PersonNumberChangeID;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.ManyToOne;
@@ -26,10 +27,9 @@ import lombok.Setter;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
-import java.util.Date;
-
 /**
- * Represents how many persons arrive/leave before a specified meal slot (meal on a day)
+ * Represents how many persons arrive/leave before a specified meal slot (meal on a day). The day of the meal slot is
+ * stored as {@link ScheduleDays day offset}.
  */
 @Getter
 @Setter
@@ -38,13 +38,13 @@ import java.util.Date;
 public class PersonNumberChangeEntity {
 
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ProjectEntity project;
     @Id
-    private Date date;
+    private int day;
     @Id
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private MealEntity meal;
 
     private int differenceBefore;
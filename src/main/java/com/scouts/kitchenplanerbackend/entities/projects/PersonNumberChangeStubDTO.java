@@ -0,0 +1,42 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.entities.projects;
+
+/**
+ * Projection for {@link PersonNumberChangeEntity} which contains the name of the meal instead of the meal entity and
+ * keeps the day as it is stored
+ */
+public interface PersonNumberChangeStubDTO {
+
+    /**
+     * Provides the day of the meal slot before which the number of persons changes
+     * @return The day as {@link ScheduleDays day offset}
+     */
+    Integer getDay();
+
+    /**
+     * Provides the meal of the meal slot before which the number of persons changes
+     * @return The name of the meal
+     */
+    String getMeal();
+
+    /**
+     * Provides by how many persons the number of persons changes
+     * @return The difference of the number of persons
+     */
+    int getDifferenceBefore();
+}
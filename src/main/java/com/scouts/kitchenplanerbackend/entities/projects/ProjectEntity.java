@@ -27,8 +27,8 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashSet;
 
 
@@ -45,11 +45,12 @@ public class ProjectEntity {
     @Column(name = "id", nullable = false)
     private Long id;
     private String name;
-    private Date startDate;
-    private Date endDate;
+    private LocalDate startDate;
+    private LocalDate endDate;
     private String imageUri;
     private Long imageVersion = 0L;
     private Long projectVersion = 0L;
+    private Long journalStartVersion = 0L;
     @ManyToMany
     private Collection<UserEntity> participants = new HashSet<>();
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.entities.projects;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Converts the dates of a project's schedule into the day offsets stored in the database and back. Day 0 is the
+ * start date of the project; a project without start date counts its days from {@link LocalDate#EPOCH}.
+ * <p>
+ * The offsets are independent of time zones and form the day index of the in-memory schedule grids. They are always
+ * relative to the current start date, so all schedule rows of a project are rewritten when its start date changes.
+ */
+public final class ScheduleDays {
+    /**
+     * The maximal number of days of a project. The schedule grids hold every meal slot of the project, so their size
+     * has to be bounded.
+     */
+    public static final int MAX_DAYS = 366;
+
+    private ScheduleDays() {
+    }
+
+    /**
+     * Checks that a project does not last longer than {@link #MAX_DAYS}
+     *
+     * @param startDate The start date of the project or null
+     * @param endDate   The end date of the project or null
+     * @throws IllegalArgumentException When the project lasts longer than {@link #MAX_DAYS}
+     */
+    public static void checkDuration(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DAYS) {
+            throw new IllegalArgumentException("A project can last at most " + MAX_DAYS + " days");
+        }
+    }
+
+    /**
+     * Provides the day offset of a date within a project
+     *
+     * @param startDate The start date of the project
+     * @param date      The date
+     * @return The number of days between the start of the project and the date
+     * @throws IllegalArgumentException When the date is missing or too far away from the start of the project
+     */
+    public static int offset(LocalDate startDate, LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Every meal slot needs a date");
+        }
+        long days = ChronoUnit.DAYS.between(origin(startDate), date);
+        if (days != (int) days) {
+            throw new IllegalArgumentException(date + " is too far away from the start of the project");
+        }
+        return (int) days;
+    }
+
+    /**
+     * Provides the day offset of an optional date within a project
+     *
+     * @param startDate The start date of the project
+     * @param date      The date or null
+     * @return The number of days between the start of the project and the date, or null if there is no date
+     */
+    public static Integer offsetOrNull(LocalDate startDate, LocalDate date) {
+        return date == null ? null : offset(startDate, date);
+    }
+
+    /**
+     * Provides the date of a day offset within a project
+     *
+     * @param startDate The start date of the project
+     * @param day       The day offset or null
+     * @return The date, or null if there is no day offset
+     */
+    public static LocalDate date(LocalDate startDate, Integer day) {
+        return day == null ? null : origin(startDate).plusDays(day);
+    }
+
+    private static LocalDate origin(LocalDate startDate) {
+        return startDate == null ? LocalDate.EPOCH : startDate;
+    }
+}
@@ -18,6 +18,7 @@ package com.scouts.kitchenplanerbackend.entities.projects;
 
 import com.scouts.kitchenplanerbackend.entities.projects.ids.UnitConversionID;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.JoinColumn;
@@ -38,7 +39,7 @@ import org.hibernate.annotations.OnDeleteAction;
 @IdClass(UnitConversionID.class)
 public class UnitConversionEntity {
     @Id
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "project_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private ProjectEntity project;
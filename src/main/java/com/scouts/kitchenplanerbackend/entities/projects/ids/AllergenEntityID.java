@@ -35,5 +35,5 @@ import java.io.Serializable;
 public class AllergenEntityID implements Serializable {
     private ProjectEntity project;
     private AllergenPersonEntity allergenPerson;
-    private String allergen;
+    private int allergen;
 }
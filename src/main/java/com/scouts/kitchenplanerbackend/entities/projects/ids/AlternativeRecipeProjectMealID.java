@@ -25,7 +25,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.io.Serializable;
-import java.util.Date;
 
 /**
  * ID class for {@link com.scouts.kitchenplanerbackend.entities.projects.AlternativeRecipeProjectMeal}
@@ -37,6 +36,6 @@ import java.util.Date;
 public class AlternativeRecipeProjectMealID implements Serializable {
     private ProjectEntity project;
     private MealEntity meal;
-    private Date date;
+    private int day;
     private RecipeEntity recipe;
 }
@@ -24,7 +24,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.io.Serializable;
-import java.util.Date;
 
 /**
  * ID class for {@link com.scouts.kitchenplanerbackend.entities.projects.MainRecipeProjectMealEntity}
@@ -36,5 +35,5 @@ import java.util.Date;
 public class MainRecipeProjectMealID implements Serializable {
     private ProjectEntity project;
     private MealEntity meal;
-    private Date date;
+    private int day;
 }
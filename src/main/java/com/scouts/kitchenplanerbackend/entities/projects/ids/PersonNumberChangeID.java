@@ -24,7 +24,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.io.Serializable;
-import java.util.Date;
 
 @EqualsAndHashCode
 @NoArgsConstructor
@@ -32,6 +31,6 @@ import java.util.Date;
 @Setter
 public class PersonNumberChangeID implements Serializable {
     private ProjectEntity project;
-    private Date date;
+    private int day;
     private MealEntity meal;
 }
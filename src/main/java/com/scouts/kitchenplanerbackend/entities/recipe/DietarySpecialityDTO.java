@@ -0,0 +1,41 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.entities.recipe;
+
+/**
+ * Projection for {@link DietarySpecialityEntity} which references the recipe by its ID
+ */
+public interface DietarySpecialityDTO {
+
+    /**
+     * Provides the ID of the recipe the speciality belongs to
+     * @return The recipe ID
+     */
+    Long getRecipeId();
+
+    /**
+     * Provides the ID of the speciality, e.g. an allergen, in the allergen dictionary
+     * @return The speciality ID
+     */
+    int getSpecialityId();
+
+    /**
+     * Provides whether the recipe is free of, contains traces of or contains the speciality
+     * @return The type of the speciality
+     */
+    DietaryTypes getType();
+}
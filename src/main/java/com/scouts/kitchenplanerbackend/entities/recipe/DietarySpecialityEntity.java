@@ -16,14 +16,15 @@
 
 package com.scouts.kitchenplanerbackend.entities.recipe;
 
-import jakarta.persistence.CascadeType;
+import com.scouts.kitchenplanerbackend.entities.AllergenNameEntity;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -32,12 +33,13 @@ import lombok.Setter;
 @Entity
 @IdClass(DietarySpecialityEntityID.class)
 public class DietarySpecialityEntity {
-    @OneToOne(cascade = CascadeType.ALL)
+    @ManyToOne
     @JoinColumn
     @Id
     private RecipeEntity recipe;
     @Id
-    private String speciality;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private AllergenNameEntity speciality;
 
     @Enumerated(EnumType.STRING)
     private DietaryTypes type;
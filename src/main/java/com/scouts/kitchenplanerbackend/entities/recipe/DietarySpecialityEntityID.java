@@ -30,5 +30,5 @@ import java.io.Serializable;
 @Setter
 public class DietarySpecialityEntityID implements Serializable {
     private long recipe;
-    private String speciality;
+    private int speciality;
 }
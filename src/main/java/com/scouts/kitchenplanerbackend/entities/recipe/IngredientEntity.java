@@ -16,12 +16,11 @@
 
 package com.scouts.kitchenplanerbackend.entities.recipe;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -31,13 +30,15 @@ import lombok.Setter;
 @IdClass(IngredientID.class)
 public class IngredientEntity {
     @Id
-    @OneToOne(cascade = CascadeType.ALL)
+    @ManyToOne
     @JoinColumn
     private RecipeEntity recipe;
     @Id
     private String name;
     @Id
     private String ingredientGroup;
+    private double quantity;
+    private String unit;
 
 
 }
\ No newline at end of file
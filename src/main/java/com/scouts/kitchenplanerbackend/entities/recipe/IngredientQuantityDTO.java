@@ -0,0 +1,59 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.entities.recipe;
+
+/**
+ * Projection for {@link IngredientEntity} which also contains for how many people the recipe of the ingredient is
+ */
+public interface IngredientQuantityDTO {
+
+    /**
+     * Provides the ID of the recipe the ingredient belongs to
+     * @return The recipe ID
+     */
+    Long getRecipeId();
+
+    /**
+     * Provides for how many people the quantities of the recipe are
+     * @return The number of people
+     */
+    int getNumberOfPeople();
+
+    /**
+     * Provides the name of the ingredient
+     * @return The name
+     */
+    String getName();
+
+    /**
+     * Provides the group of the ingredient
+     * @return The ingredient group
+     */
+    String getIngredientGroup();
+
+    /**
+     * Provides the quantity of the ingredient needed for the recipe
+     * @return The quantity, measured in the unit of the ingredient
+     */
+    double getQuantity();
+
+    /**
+     * Provides the unit the quantity of the ingredient is measured in
+     * @return The unit
+     */
+    String getUnit();
+}
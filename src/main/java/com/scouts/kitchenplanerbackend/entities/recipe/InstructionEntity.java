@@ -16,11 +16,10 @@
 
 package com.scouts.kitchenplanerbackend.entities.recipe;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.Id;
@@ -33,7 +32,7 @@ public class InstructionEntity {
 
     @Id
     private int stepNumber;
-    @OneToOne(cascade = CascadeType.ALL)
+    @ManyToOne
     @JoinColumn
     @Id
     private RecipeEntity recipe;
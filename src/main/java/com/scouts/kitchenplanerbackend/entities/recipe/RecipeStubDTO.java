@@ -21,10 +21,13 @@ import lombok.Value;
 import java.io.Serializable;
 
 /**
- * DTO for {@link RecipeEntity}
+ * DTO for {@link RecipeEntity} which only contains the data needed to list recipes and to decide whether a recipe or
+ * its image has to be fetched again
  */
 @Value
 public class RecipeStubDTO implements Serializable {
     Long id;
     String name;
+    Long imageVersion;
+    Long recipeVersion;
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown when a project refers to meals or recipes that do not exist. It lists every such reference of the project,
+ * not only the first one found.
+ */
+public class DanglingReferenceException extends IllegalArgumentException {
+    private final List<String> danglingReferences;
+
+    /**
+     * Creates a new exception
+     *
+     * @param danglingReferences Descriptions of all references that could not be resolved
+     */
+    public DanglingReferenceException(List<String> danglingReferences) {
+        super("The project refers to meals or recipes that do not exist: " + String.join("; ", danglingReferences));
+        this.danglingReferences = List.copyOf(danglingReferences);
+    }
+
+    /**
+     * Provides descriptions of all references that could not be resolved
+     *
+     * @return The dangling references
+     */
+    public List<String> getDanglingReferences() {
+        return danglingReferences;
+    }
+}
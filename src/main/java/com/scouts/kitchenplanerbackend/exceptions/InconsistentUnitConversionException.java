@@ -0,0 +1,46 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown when the unit conversions of a project contradict each other, i.e. two ways of converting between the same
+ * units lead to different factors. It lists every such contradiction, not only the first one found.
+ */
+public class InconsistentUnitConversionException extends IllegalArgumentException {
+    private final List<String> conflicts;
+
+    /**
+     * Creates a new exception
+     *
+     * @param conflicts Descriptions of all contradicting conversions
+     */
+    public InconsistentUnitConversionException(List<String> conflicts) {
+        super("The unit conversions of the project contradict each other: " + String.join("; ", conflicts));
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    /**
+     * Provides descriptions of all contradicting conversions
+     *
+     * @return The contradictions
+     */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.exceptions;
+
+/**
+ * Thrown when a record of a recipe import can not be parsed or does not describe a valid recipe. Only the record
+ * itself is rejected, the import continues with the next record.
+ */
+public class InvalidRecipeRecordException extends IllegalArgumentException {
+    private final long recordNumber;
+
+    /**
+     * Creates a new exception
+     *
+     * @param recordNumber The number of the rejected record, starting at 1
+     * @param message      Why the record was rejected
+     */
+    public InvalidRecipeRecordException(long recordNumber, String message) {
+        super("Record " + recordNumber + ": " + message);
+        this.recordNumber = recordNumber;
+    }
+
+    /**
+     * Provides the number of the rejected record
+     *
+     * @return The record number, starting at 1
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+}
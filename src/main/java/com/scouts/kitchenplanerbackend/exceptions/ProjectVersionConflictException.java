@@ -0,0 +1,57 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.exceptions;
+
+/**
+ * Thrown when a project should be updated based on a version that is not the current version of the project anymore,
+ * i.e. someone else changed the project in the meantime.
+ */
+public class ProjectVersionConflictException extends RuntimeException {
+    private final long projectID;
+    private final long currentVersion;
+
+    /**
+     * Creates a new exception
+     *
+     * @param projectID       The ID of the project that should have been updated
+     * @param expectedVersion The version the update was based on
+     * @param currentVersion  The current version of the project
+     */
+    public ProjectVersionConflictException(long projectID, long expectedVersion, long currentVersion) {
+        super("Project " + projectID + " is at version " + currentVersion + ", not at version " + expectedVersion);
+        this.projectID = projectID;
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * Provides the ID of the project that should have been updated
+     *
+     * @return The project ID
+     */
+    public long getProjectID() {
+        return projectID;
+    }
+
+    /**
+     * Provides the current version of the project
+     *
+     * @return The current version number
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.imaging;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The sizes an image can be downloaded in. Apart from the original, every size is a downscaled derivative which is
+ * stored as JPEG next to the original file. The derivatives are declared from the largest to the smallest, so each
+ * one can be computed from the previous one.
+ */
+public enum ImageSize {
+    ORIGINAL(0),
+    DETAIL(1280),
+    LIST(640),
+    THUMBNAIL(200);
+
+    private final int maxEdge;
+
+    ImageSize(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    /**
+     * Provides the maximum length of the longer edge of images of this size
+     *
+     * @return The maximum edge length in pixels, or 0 for the original
+     */
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * Provides the path of the file of this size belonging to an original image file
+     *
+     * @param original The path of the original image file
+     * @return The path of the derivative, or the original path for the original size
+     */
+    public Path resolve(Path original) {
+        if (this == ORIGINAL) {
+            return original;
+        }
+        return original.resolveSibling(original.getFileName() + "." + name().toLowerCase(Locale.ROOT) + ".jpg");
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.planning;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenConflict;
+import com.scouts.kitchenplanerbackend.projectdtos.MealSlotConflicts;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * Finds the allergen persons of a project who can not eat the recipes of its meal slots. All allergens of the
+ * persons of the project are numbered consecutively, and both the persons and the recipes are encoded as bitsets over it:
+ * <ul>
+ *     <li>a person has to avoid all of their allergens and traces, and additionally traces of their traces</li>
+ *     <li>a recipe contains its {@link DietaryTypes#ALLERGEN} specialities and contains traces of both these and
+ *     its {@link DietaryTypes#TRACE} specialities</li>
+ * </ul>
+ * Whether a person can eat a recipe is then decided by intersecting the bitsets, which compares 64 allergens per
+ * operation. Specialities no person of the project has to avoid are not numbered.
+ */
+public final class AllergenConflictIndex {
+    private final HeadcountTimeline timeline;
+    private final List<String> dictionary;
+    private final List<Person> people;
+    private final Map<Long, Recipe> recipes;
+
+    private AllergenConflictIndex(HeadcountTimeline timeline, List<String> dictionary, List<Person> people,
+                                  Map<Long, Recipe> recipes) {
+        this.timeline = timeline;
+        this.dictionary = dictionary;
+        this.people = people;
+        this.recipes = recipes;
+    }
+
+    /**
+     * Builds the index of a project
+     *
+     * @param timeline     The headcount timeline of the project, used to locate meal slots
+     * @param people       All allergen persons of the project
+     * @param allergens    The allergens and traces of all allergen persons of the project
+     * @param specialities The dietary specialities of all recipes used in the project
+     * @param names        Translates allergen IDs to their names
+     * @return The index
+     */
+    public static AllergenConflictIndex build(HeadcountTimeline timeline, Collection<AllergenPersonStubDTO> people,
+                                              Collection<AllergenDTO> allergens,
+                                              Collection<DietarySpecialityDTO> specialities,
+                                              IntFunction<String> names) {
+        Map<Integer, Integer> bits = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        Map<String, BitSet> avoid = new HashMap<>();
+        Map<String, BitSet> avoidTraces = new HashMap<>();
+        for (AllergenDTO allergen : allergens) {
+            int bit = bits.computeIfAbsent(allergen.getAllergenId(), id -> {
+                dictionary.add(names.apply(id));
+                return dictionary.size() - 1;
+            });
+            avoid.computeIfAbsent(allergen.getAllergenPerson(), name -> new BitSet()).set(bit);
+            if (Boolean.TRUE.equals(allergen.getTraces())) {
+                avoidTraces.computeIfAbsent(allergen.getAllergenPerson(), name -> new BitSet()).set(bit);
+            }
+        }
+
+        List<Person> encodedPeople = new ArrayList<>();
+        for (AllergenPersonStubDTO person : people) {
+            HeadcountTimeline.SlotRange presence = timeline.presence(person);
+            BitSet personAvoid = avoid.get(person.getName());
+            if (presence != null && personAvoid != null) {
+                encodedPeople.add(new Person(person.getName(), presence, personAvoid,
+                        avoidTraces.getOrDefault(person.getName(), new BitSet())));
+            }
+        }
+
+        Map<Long, Recipe> recipes = new HashMap<>();
+        for (DietarySpecialityDTO speciality : specialities) {
+            Integer bit = bits.get(speciality.getSpecialityId());
+            if (bit == null || speciality.getType() == DietaryTypes.FREE_OF) {
+                continue;
+            }
+            Recipe recipe = recipes.computeIfAbsent(speciality.getRecipeId(),
+                    id -> new Recipe(new BitSet(), new BitSet()));
+            if (speciality.getType() == DietaryTypes.ALLERGEN) {
+                recipe.contains().set(bit);
+            }
+            recipe.traces().set(bit);
+        }
+        return new AllergenConflictIndex(timeline, List.copyOf(dictionary), encodedPeople, recipes);
+    }
+
+    /**
+     * Determines for every meal slot which allergen persons present at the slot can not eat its main recipe and
+     * which alternative recipe they can eat instead
+     *
+     * @param usedRecipes All recipes used in the project including their meal slots
+     * @return The conflicts of every meal slot with recipes, ordered by meal slot
+     */
+    public List<MealSlotConflicts> conflicts(Collection<RecipeForProject> usedRecipes) {
+        Map<Integer, Slot> slots = new TreeMap<>();
+        for (RecipeForProject recipe : usedRecipes) {
+            int index = timeline.slotIndex(recipe.date(), recipe.meal());
+            if (index < 0) {
+                continue;
+            }
+            Slot slot = slots.computeIfAbsent(index, i -> new Slot(recipe, new ArrayList<>()));
+            if (recipe.mainRecipe()) {
+                slot.main = recipe.recipeID();
+            } else {
+                slot.alternatives().add(recipe.recipeID());
+            }
+        }
+
+        List<MealSlotConflicts> result = new ArrayList<>();
+        for (Map.Entry<Integer, Slot> entry : slots.entrySet()) {
+            Slot slot = entry.getValue();
+            List<AllergenConflict> conflicts = new ArrayList<>();
+            Recipe main = slot.main == null ? null : recipes.get(slot.main);
+            if (main != null) {
+                for (Person person : people) {
+                    if (entry.getKey() < person.presence().first() || entry.getKey() > person.presence().last()
+                            || person.canEat(main)) {
+                        continue;
+                    }
+                    Long alternative = null;
+                    for (Long alternativeID : slot.alternatives()) {
+                        Recipe recipe = recipes.get(alternativeID);
+                        if (recipe == null || person.canEat(recipe)) {
+                            alternative = alternativeID;
+                            break;
+                        }
+                    }
+                    conflicts.add(new AllergenConflict(person.name(), names(person.conflicts(main)), alternative));
+                }
+            }
+            result.add(new MealSlotConflicts(slot.recipe().date(), slot.recipe().meal(), slot.main, conflicts));
+        }
+        return result;
+    }
+
+    private List<String> names(BitSet allergens) {
+        List<String> names = new ArrayList<>();
+        for (int bit = allergens.nextSetBit(0); bit >= 0; bit = allergens.nextSetBit(bit + 1)) {
+            names.add(dictionary.get(bit));
+        }
+        return names;
+    }
+
+    private record Person(String name, HeadcountTimeline.SlotRange presence, BitSet avoid, BitSet avoidTraces) {
+        private boolean canEat(Recipe recipe) {
+            return !avoid.intersects(recipe.contains()) && !avoidTraces.intersects(recipe.traces());
+        }
+
+        private BitSet conflicts(Recipe recipe) {
+            BitSet conflicts = (BitSet) avoid.clone();
+            conflicts.and(recipe.contains());
+            BitSet traces = (BitSet) avoidTraces.clone();
+            traces.and(recipe.traces());
+            conflicts.or(traces);
+            return conflicts;
+        }
+    }
+
+    private record Recipe(BitSet contains, BitSet traces) {
+    }
+
+    private static final class Slot {
+        private final RecipeForProject recipe;
+        private final List<Long> alternatives;
+        private Long main;
+
+        private Slot(RecipeForProject recipe, List<Long> alternatives) {
+            this.recipe = recipe;
+            this.alternatives = alternatives;
+        }
+
+        private RecipeForProject recipe() {
+            return recipe;
+        }
+
+        private List<Long> alternatives() {
+            return alternatives;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.planning;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The number of people eating at every meal slot of a project, compiled into flat arrays. A meal slot is addressed
+ * by {@code dayOffset * mealsPerDay + mealIndex}, where the day offset counts the days since the start of the project
+ * and the meal index is the position of the meal in the project's meal order. The day offset is the same as the
+ * {@link com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays day offset} stored in the database.
+ *
+ * <p> The headcount of a slot is the sum of all person number changes up to and including that slot. Changes before
+ * the start of the project count for the first slot, changes after its end are ignored. Additionally, the running
+ * sum of the headcounts is kept, so the number of portions over any range of slots is a single subtraction.
+ */
+public final class HeadcountTimeline {
+    private final long projectID;
+    private final long versionNumber;
+    private final LocalDate startDate;
+    private final int days;
+    private final List<String> meals;
+    private final Map<String, Integer> mealIndices;
+    private final int[] headcount;
+    private final int[] allergenPeople;
+    private final long[] portionsBefore;
+
+    private HeadcountTimeline(long projectID, long versionNumber, LocalDate startDate, int days, List<String> meals,
+                              Map<String, Integer> mealIndices, int[] headcount, int[] allergenPeople,
+                              long[] portionsBefore) {
+        this.projectID = projectID;
+        this.versionNumber = versionNumber;
+        this.startDate = startDate;
+        this.days = days;
+        this.meals = meals;
+        this.mealIndices = mealIndices;
+        this.headcount = headcount;
+        this.allergenPeople = allergenPeople;
+        this.portionsBefore = portionsBefore;
+    }
+
+    /**
+     * Compiles the headcount timeline of a project
+     *
+     * @param projectID      Online ID of the project
+     * @param versionNumber  The project version the data belongs to
+     * @param startDate      Start date of the project
+     * @param endDate        End date of the project
+     * @param meals          The names of the meals of the project in their order
+     * @param changes        All person number changes of the project
+     * @param allergenPeople All allergen persons of the project
+     * @return The compiled timeline
+     */
+    public static HeadcountTimeline compile(long projectID, long versionNumber, LocalDate startDate,
+                                            LocalDate endDate, List<String> meals,
+                                            Collection<PersonNumberChangeStubDTO> changes,
+                                            Collection<AllergenPersonStubDTO> allergenPeople) {
+        // a project without dates has no meal slots; projects stored before their duration was checked are cut off
+        LocalDate start = startDate == null ? LocalDate.EPOCH : startDate;
+        int days = startDate == null || endDate == null ? 0
+                : (int) Math.max(0, Math.min(ScheduleDays.MAX_DAYS, ChronoUnit.DAYS.between(start, endDate) + 1));
+        Map<String, Integer> mealIndices = new HashMap<>();
+        for (int i = 0; i < meals.size(); i++) {
+            mealIndices.put(meals.get(i), i);
+        }
+        int slots = days * meals.size();
+
+        // both counts are built as difference arrays first and turned into absolute numbers by a prefix sum
+        int[] headcount = new int[slots + 1];
+        for (PersonNumberChangeStubDTO change : changes) {
+            Integer meal = mealIndices.get(change.getMeal());
+            if (meal == null || change.getDay() == null) {
+                continue;
+            }
+            long slot = (long) change.getDay() * meals.size() + meal;
+            if (slot < slots) {
+                headcount[(int) Math.max(0, slot)] += change.getDifferenceBefore();
+            }
+        }
+
+        int[] allergenCount = new int[slots + 1];
+        for (AllergenPersonStubDTO person : allergenPeople) {
+            SlotRange presence = presence(slots, meals.size(), mealIndices, person);
+            if (presence != null) {
+                allergenCount[presence.first()]++;
+                allergenCount[presence.last() + 1]--;
+            }
+        }
+
+        long[] portionsBefore = new long[slots + 1];
+        for (int slot = 0; slot < slots; slot++) {
+            if (slot > 0) {
+                headcount[slot] += headcount[slot - 1];
+                allergenCount[slot] += allergenCount[slot - 1];
+            }
+            portionsBefore[slot + 1] = portionsBefore[slot] + headcount[slot];
+        }
+        return new HeadcountTimeline(projectID, versionNumber, start, days, List.copyOf(meals), mealIndices,
+                headcount, allergenCount, portionsBefore);
+    }
+
+    /**
+     * Provides the number of people eating at a meal slot
+     *
+     * @param date The day of the meal slot
+     * @param meal The meal of the meal slot
+     * @return The headcount
+     * @throws IllegalArgumentException When the meal slot is not part of the project
+     */
+    public int headcount(LocalDate date, String meal) {
+        return headcount[slot(date, meal)];
+    }
+
+    /**
+     * Provides the number of allergen persons present at a meal slot
+     *
+     * @param date The day of the meal slot
+     * @param meal The meal of the meal slot
+     * @return The number of allergen persons
+     * @throws IllegalArgumentException When the meal slot is not part of the project
+     */
+    public int allergenPeople(LocalDate date, String meal) {
+        return allergenPeople[slot(date, meal)];
+    }
+
+    /**
+     * Provides the number of portions needed for all meal slots between two meal slots, both included
+     *
+     * @param fromDate The day of the first meal slot
+     * @param fromMeal The meal of the first meal slot
+     * @param toDate   The day of the last meal slot
+     * @param toMeal   The meal of the last meal slot
+     * @return The sum of the headcounts of the meal slots, or 0 if the last slot is before the first one
+     * @throws IllegalArgumentException When one of the meal slots is not part of the project
+     */
+    public long portions(LocalDate fromDate, String fromMeal, LocalDate toDate, String toMeal) {
+        int from = slot(fromDate, fromMeal);
+        int to = slot(toDate, toMeal);
+        return to < from ? 0 : portionsBefore[to + 1] - portionsBefore[from];
+    }
+
+    /**
+     * Provides the index of a meal slot, which can be used for {@link #headcountAt(int)} and
+     * {@link #allergenPeopleAt(int)}
+     *
+     * @param date The day of the meal slot
+     * @param meal The meal of the meal slot
+     * @return The index of the meal slot or -1 if the meal slot is not part of the project
+     */
+    public int slotIndex(LocalDate date, String meal) {
+        Integer mealIndex = mealIndices.get(meal);
+        if (mealIndex == null || date == null) {
+            return -1;
+        }
+        long dayOffset = offset(startDate, date);
+        return dayOffset < 0 || dayOffset >= days ? -1 : (int) dayOffset * meals.size() + mealIndex;
+    }
+
+    /**
+     * Provides the number of people eating at a meal slot
+     *
+     * @param slot The index of the meal slot
+     * @return The headcount
+     */
+    public int headcountAt(int slot) {
+        return headcount[slot];
+    }
+
+    /**
+     * Provides the number of allergen persons present at a meal slot
+     *
+     * @param slot The index of the meal slot
+     * @return The number of allergen persons
+     */
+    public int allergenPeopleAt(int slot) {
+        return allergenPeople[slot];
+    }
+
+    /**
+     * Provides the meal slots an allergen person is present at
+     *
+     * @param person The allergen person
+     * @return The first and the last meal slot of the person, or nothing if the person is not present during the
+     * project
+     */
+    public SlotRange presence(AllergenPersonStubDTO person) {
+        return presence(days * meals.size(), meals.size(), mealIndices, person);
+    }
+
+    /**
+     * Provides the number of meal slots of the project
+     *
+     * @return The number of meal slots
+     */
+    public int getSlots() {
+        return days * meals.size();
+    }
+
+    /**
+     * Provides the headcounts of all meal slots as grid
+     *
+     * @return The headcounts, indexed by day offset and meal index
+     */
+    public int[][] headcountGrid() {
+        return grid(headcount);
+    }
+
+    /**
+     * Provides the number of allergen persons of all meal slots as grid
+     *
+     * @return The numbers of allergen persons, indexed by day offset and meal index
+     */
+    public int[][] allergenPeopleGrid() {
+        return grid(allergenPeople);
+    }
+
+    /**
+     * Provides the online ID of the project
+     *
+     * @return The project ID
+     */
+    public long getProjectID() {
+        return projectID;
+    }
+
+    /**
+     * Provides the project version this timeline was compiled from
+     *
+     * @return The project version
+     */
+    public long getVersionNumber() {
+        return versionNumber;
+    }
+
+    /**
+     * Provides the first day of the timeline
+     *
+     * @return The start date of the project
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Provides the number of days of the timeline
+     *
+     * @return The number of days
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Provides the meals of every day in their order
+     *
+     * @return The meal names
+     */
+    public List<String> getMeals() {
+        return meals;
+    }
+
+    private int slot(LocalDate date, String meal) {
+        Integer mealIndex = mealIndices.get(meal);
+        if (mealIndex == null) {
+            throw new IllegalArgumentException("The project has no meal " + meal);
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Every meal slot needs a date");
+        }
+        long dayOffset = ChronoUnit.DAYS.between(startDate, date);
+        if (dayOffset < 0 || dayOffset >= days) {
+            throw new IllegalArgumentException(date + " is not part of the project");
+        }
+        return (int) dayOffset * meals.size() + mealIndex;
+    }
+
+    private static SlotRange presence(int slots, int mealsPerDay, Map<String, Integer> mealIndices,
+                                      AllergenPersonStubDTO person) {
+        if (person.getArrivalDay() == null || person.getDepartureDay() == null) {
+            return null;
+        }
+        // without an arrival or departure meal, the person is there for the whole day
+        long arrival = (long) person.getArrivalDay() * mealsPerDay
+                + mealIndices.getOrDefault(person.getArrivalMeal(), 0);
+        long departure = (long) person.getDepartureDay() * mealsPerDay
+                + mealIndices.getOrDefault(person.getDepartureMeal(), mealsPerDay - 1);
+        arrival = Math.max(0, arrival);
+        departure = Math.min(slots - 1, departure);
+        return arrival <= departure ? new SlotRange((int) arrival, (int) departure) : null;
+    }
+
+    private int[][] grid(int[] values) {
+        int[][] grid = new int[days][meals.size()];
+        for (int day = 0; day < days; day++) {
+            System.arraycopy(values, day * meals.size(), grid[day], 0, meals.size());
+        }
+        return grid;
+    }
+
+    private static long offset(LocalDate start, LocalDate date) {
+        return ChronoUnit.DAYS.between(start, date);
+    }
+
+    /**
+     * A range of meal slots
+     *
+     * @param first The index of the first meal slot
+     * @param last  The index of the last meal slot, included in the range
+     */
+    public record SlotRange(int first, int last) {
+    }
+}
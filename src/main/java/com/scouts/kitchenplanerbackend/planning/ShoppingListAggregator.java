@@ -0,0 +1,127 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.planning;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientQuantityDTO;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingList;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingListGroup;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingListItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Computes the shopping list of a project. Every recipe used in a meal slot is scaled from the number of people it is
+ * written for to the number of people it is cooked for in that slot:
+ * <ul>
+ *     <li>the allergen persons present at the meal slot are split evenly between its alternative recipes, so every
+ *     person is counted once no matter how many alternatives there are</li>
+ *     <li>the main recipe is cooked for everybody else, i.e. the complete headcount if the slot has no alternative
+ *     recipes</li>
+ * </ul>
+ * As quantities scale linearly, the servings are summed per recipe first, so every ingredient row is scaled only
+ * once. Quantities are then converted into the canonical unit of their ingredient, as given by the
+ * {@link UnitConversionGraph} of the project, and summed per ingredient group, ingredient and unit.
+ */
+public final class ShoppingListAggregator {
+
+    private ShoppingListAggregator() {
+    }
+
+    /**
+     * Computes the shopping list of a project
+     *
+     * @param timeline        The headcount timeline of the project
+     * @param recipes         All recipes used in the project including their meal slots
+     * @param ingredients     The ingredients of all used recipes
+     * @param conversions     The unit conversion graph of the project
+     * @return The shopping list, ordered by ingredient group, ingredient and unit
+     */
+    public static ShoppingList aggregate(HeadcountTimeline timeline, Collection<RecipeForProject> recipes,
+                                         Collection<IngredientQuantityDTO> ingredients,
+                                         UnitConversionGraph conversions) {
+        Map<Integer, SortedSet<Long>> alternativesPerSlot = new HashMap<>();
+        for (RecipeForProject recipe : recipes) {
+            int slot = timeline.slotIndex(recipe.date(), recipe.meal());
+            if (!recipe.mainRecipe() && slot >= 0) {
+                alternativesPerSlot.computeIfAbsent(slot, s -> new TreeSet<>()).add(recipe.recipeID());
+            }
+        }
+
+        Map<Long, Long> servings = new HashMap<>();
+        for (RecipeForProject recipe : recipes) {
+            int slot = timeline.slotIndex(recipe.date(), recipe.meal());
+            if (slot < 0 || !recipe.mainRecipe()) {
+                continue;
+            }
+            long people = alternativesPerSlot.containsKey(slot)
+                    ? Math.max(0, timeline.headcountAt(slot) - timeline.allergenPeopleAt(slot))
+                    : timeline.headcountAt(slot);
+            servings.merge(recipe.recipeID(), people, Long::sum);
+        }
+        for (Map.Entry<Integer, SortedSet<Long>> slot : alternativesPerSlot.entrySet()) {
+            int allergenPeople = timeline.allergenPeopleAt(slot.getKey());
+            int alternatives = slot.getValue().size();
+            // the remainder goes to the alternatives with the lowest IDs, so the result does not depend on the order
+            int position = 0;
+            for (long recipeID : slot.getValue()) {
+                long people = allergenPeople / alternatives + (position < allergenPeople % alternatives ? 1 : 0);
+                servings.merge(recipeID, people, Long::sum);
+                position++;
+            }
+        }
+
+        Map<String, Map<ItemKey, Double>> groups = new TreeMap<>();
+        for (IngredientQuantityDTO ingredient : ingredients) {
+            long people = servings.getOrDefault(ingredient.getRecipeId(), 0L);
+            if (people == 0) {
+                continue;
+            }
+            double quantity = ingredient.getQuantity() * people / Math.max(1, ingredient.getNumberOfPeople());
+            String unit = conversions.canonicalUnit(ingredient.getName(), ingredient.getUnit());
+            quantity *= conversions.factor(ingredient.getName(), ingredient.getUnit(), unit).orElse(1);
+            groups.computeIfAbsent(Objects.toString(ingredient.getIngredientGroup(), ""), group -> new TreeMap<>())
+                    .merge(new ItemKey(ingredient.getName(), Objects.toString(unit, "")), quantity, Double::sum);
+        }
+
+        List<ShoppingListGroup> shoppingList = new ArrayList<>();
+        for (Map.Entry<String, Map<ItemKey, Double>> group : groups.entrySet()) {
+            List<ShoppingListItem> items = new ArrayList<>();
+            for (Map.Entry<ItemKey, Double> item : group.getValue().entrySet()) {
+                items.add(new ShoppingListItem(item.getKey().ingredient(), item.getValue(), item.getKey().unit()));
+            }
+            shoppingList.add(new ShoppingListGroup(group.getKey(), items));
+        }
+        return new ShoppingList(timeline.getProjectID(), timeline.getVersionNumber(), shoppingList);
+    }
+
+    private record ItemKey(String ingredient, String unit) implements Comparable<ItemKey> {
+        @Override
+        public int compareTo(ItemKey other) {
+            int byIngredient = ingredient.compareTo(other.ingredient);
+            return byIngredient != 0 ? byIngredient : unit.compareTo(other.unit);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.planning;
+
+import com.scouts.kitchenplanerbackend.exceptions.InconsistentUnitConversionException;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The unit conversions of a project as a graph, together with its transitive closure. Every conversion is an edge
+ * between two units which can be used in both directions. Conversions without an ingredient apply to all
+ * ingredients; conversions for an ingredient are added to these generic ones and take precedence over a generic
+ * conversion between the same units. The factor between any two connected units is computed in advance for every
+ * ingredient which has own conversions and for all other ingredients, so a lookup is a few hash map accesses.
+ *
+ * <p> If two paths between the same units lead to different factors, the conversions contradict each other. The
+ * graph is still built, using the factor of the shortest path, and the contradictions are reported by
+ * {@link #getConflicts()}.
+ */
+public final class UnitConversionGraph {
+    /**
+     * The ingredient of general conversions, which apply to all ingredients without an own conversion
+     */
+    public static final String ALL_INGREDIENTS = "";
+    private static final double TOLERANCE = 1e-6;
+
+    private final long projectID;
+    private final long versionNumber;
+    private final Map<String, Closure> closures;
+    private final List<String> conflicts;
+
+    private UnitConversionGraph(long projectID, long versionNumber, Map<String, Closure> closures,
+                                List<String> conflicts) {
+        this.projectID = projectID;
+        this.versionNumber = versionNumber;
+        this.closures = closures;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Builds the conversion graph of a project and computes its closure
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The project version the conversions belong to
+     * @param conversions   All unit conversions of the project
+     * @return The conversion graph
+     */
+    public static UnitConversionGraph build(long projectID, long versionNumber,
+                                            Collection<UnitConversion> conversions) {
+        Map<String, Map<UnitPair, Double>> edges = new HashMap<>();
+        edges.put(ALL_INGREDIENTS, new LinkedHashMap<>());
+        for (UnitConversion conversion : conversions) {
+            edges.computeIfAbsent(ingredient(conversion.ingredient()), ingredient -> new LinkedHashMap<>())
+                    .put(new UnitPair(conversion.startUnit(), conversion.endUnit()), conversion.factor());
+        }
+
+        Map<String, Closure> closures = new HashMap<>();
+        List<String> conflicts = new ArrayList<>();
+        Map<UnitPair, Double> generic = edges.get(ALL_INGREDIENTS);
+        for (Map.Entry<String, Map<UnitPair, Double>> ingredient : edges.entrySet()) {
+            Map<UnitPair, Double> scope = new LinkedHashMap<>();
+            if (!ingredient.getKey().equals(ALL_INGREDIENTS)) {
+                // a conversion for the ingredient replaces a generic conversion between the same units
+                Map<UnitPair, Double> specific = ingredient.getValue();
+                generic.forEach((pair, factor) -> {
+                    if (!specific.containsKey(pair) && !specific.containsKey(pair.reverse())) {
+                        scope.put(pair, factor);
+                    }
+                });
+            }
+            scope.putAll(ingredient.getValue());
+            closures.put(ingredient.getKey(), Closure.of(ingredient.getKey(), scope, conflicts));
+        }
+        return new UnitConversionGraph(projectID, versionNumber, closures, List.copyOf(conflicts));
+    }
+
+    /**
+     * Checks that unit conversions do not contradict each other
+     *
+     * @param conversions The unit conversions of a project
+     * @throws InconsistentUnitConversionException When two ways of converting between the same units lead to
+     *                                             different factors
+     */
+    public static void validate(Collection<UnitConversion> conversions) {
+        List<String> conflicts = build(0, 0, conversions).getConflicts();
+        if (!conflicts.isEmpty()) {
+            throw new InconsistentUnitConversionException(conflicts);
+        }
+    }
+
+    /**
+     * Provides the factor to convert a quantity of an ingredient from one unit into another
+     *
+     * @param ingredient The ingredient
+     * @param from       The unit the quantity is measured in
+     * @param to         The unit the quantity should be converted to
+     * @return The factor or nothing if the units can not be converted into each other
+     */
+    public OptionalDouble factor(String ingredient, String from, String to) {
+        if (from == null ? to == null : from.equals(to)) {
+            return OptionalDouble.of(1);
+        }
+        Double factor = closure(ingredient).factors.getOrDefault(from, Map.of()).get(to);
+        return factor == null ? OptionalDouble.empty() : OptionalDouble.of(factor);
+    }
+
+    /**
+     * Provides the unit all quantities of an ingredient given in the given unit can be summed up in. Of all units the
+     * given unit can be converted to, this is the first (in alphabetical order) unit which is only converted to,
+     * never from; if there is no such unit, it is the first of all these units.
+     *
+     * @param ingredient The ingredient
+     * @param unit       The unit a quantity is measured in
+     * @return The unit to sum up in, or the given unit if it can not be converted
+     */
+    public String canonicalUnit(String ingredient, String unit) {
+        return closure(ingredient).canonicalUnits.getOrDefault(unit, unit);
+    }
+
+    /**
+     * Provides all contradictions between the conversions
+     *
+     * @return Descriptions of the contradictions; empty if the conversions are consistent
+     */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Provides the online ID of the project
+     *
+     * @return The project ID
+     */
+    public long getProjectID() {
+        return projectID;
+    }
+
+    /**
+     * Provides the project version this graph was built from
+     *
+     * @return The project version
+     */
+    public long getVersionNumber() {
+        return versionNumber;
+    }
+
+    private Closure closure(String ingredient) {
+        Closure closure = closures.get(ingredient(ingredient));
+        return closure != null ? closure : closures.get(ALL_INGREDIENTS);
+    }
+
+    /**
+     * Provides the ingredient a conversion is specific to, treating a missing or blank ingredient as a general
+     * conversion
+     *
+     * @param ingredient The ingredient of the conversion, may be null
+     * @return The ingredient or {@link #ALL_INGREDIENTS}
+     */
+    public static String ingredient(String ingredient) {
+        return ingredient == null || ingredient.isBlank() ? ALL_INGREDIENTS : ingredient;
+    }
+
+    private record UnitPair(String from, String to) {
+        private UnitPair reverse() {
+            return new UnitPair(to, from);
+        }
+    }
+
+    private record Edge(String to, double factor) {
+    }
+
+    /**
+     * The factors between all connected units of one set of conversions
+     */
+    private static final class Closure {
+        private final Map<String, Map<String, Double>> factors = new HashMap<>();
+        private final Map<String, String> canonicalUnits = new HashMap<>();
+
+        private static Closure of(String ingredient, Map<UnitPair, Double> conversions, List<String> conflicts) {
+            Map<String, List<Edge>> edges = new LinkedHashMap<>();
+            Set<String> sources = new HashSet<>();
+            for (Map.Entry<UnitPair, Double> conversion : conversions.entrySet()) {
+                UnitPair pair = conversion.getKey();
+                double factor = conversion.getValue();
+                if (factor == 0 || Double.isNaN(factor) || Double.isInfinite(factor)) {
+                    conflicts.add(describe(ingredient, pair.from(), pair.to()) + " has the invalid factor " + factor);
+                    continue;
+                }
+                edges.computeIfAbsent(pair.from(), unit -> new ArrayList<>()).add(new Edge(pair.to(), factor));
+                edges.computeIfAbsent(pair.to(), unit -> new ArrayList<>()).add(new Edge(pair.from(), 1 / factor));
+                sources.add(pair.from());
+            }
+
+            Closure closure = new Closure();
+            // a contradiction is found from every unit of its cycle, but only reported once
+            Set<String> inconsistentUnits = new HashSet<>();
+            for (String start : edges.keySet()) {
+                boolean reported = inconsistentUnits.contains(start);
+                // breadth first, so the factor of a unit is the one of the shortest path
+                Map<String, Double> reachable = new LinkedHashMap<>();
+                reachable.put(start, 1.0);
+                Deque<String> queue = new ArrayDeque<>();
+                queue.add(start);
+                while (!queue.isEmpty()) {
+                    String unit = queue.poll();
+                    double factor = reachable.get(unit);
+                    for (Edge edge : edges.get(unit)) {
+                        double candidate = factor * edge.factor();
+                        Double known = reachable.get(edge.to());
+                        if (known == null) {
+                            reachable.put(edge.to(), candidate);
+                            queue.add(edge.to());
+                        } else if (!reported && Math.abs(known - candidate) > TOLERANCE * Math.abs(known)) {
+                            conflicts.add(describe(ingredient, start, edge.to()) + " is converted with the factors "
+                                    + known + " and " + candidate);
+                            reported = true;
+                        }
+                    }
+                }
+                if (reported) {
+                    inconsistentUnits.addAll(reachable.keySet());
+                }
+                reachable.remove(start);
+                closure.factors.put(start, reachable);
+
+                TreeSet<String> component = new TreeSet<>(reachable.keySet());
+                component.add(start);
+                String canonical = component.stream().filter(unit -> !sources.contains(unit)).findFirst()
+                        .orElse(component.first());
+                closure.canonicalUnits.put(start, canonical);
+            }
+            return closure;
+        }
+
+        private static String describe(String ingredient, String from, String to) {
+            return from + " -> " + to + (ingredient.equals(ALL_INGREDIENTS) ? "" : " for " + ingredient);
+        }
+    }
+}
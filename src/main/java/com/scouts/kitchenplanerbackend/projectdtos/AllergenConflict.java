@@ -0,0 +1,31 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+import java.util.List;
+
+/**
+ * Representation of an allergen person who can not eat the main recipe of a meal slot, used by the controllers and
+ * the services
+ *
+ * @param person              Name of the allergen person
+ * @param allergens           The allergens and traces in the main recipe the person has to avoid
+ * @param alternativeRecipeID ID of an alternative recipe of the meal slot the person can eat, or null if there is
+ *                            none
+ */
+public record AllergenConflict(String person, List<String> allergens, Long alternativeRecipeID) {
+}
@@ -16,7 +16,7 @@
 
 package com.scouts.kitchenplanerbackend.projectdtos;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -30,8 +30,8 @@ import java.util.List;
  * @param traces all relevant traces for the person
  */
 public record AllergenPerson(String name,
-                             Date arrivalDate,
-                             Date departureDate,
+                             LocalDate arrivalDate,
+                             LocalDate departureDate,
                              String arrivalMeal,
                              String departureMeal,
                              List<String> allergen,
@@ -0,0 +1,35 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The number of people eating at every meal slot of a project, used by the controllers and the services
+ *
+ * @param id             Online ID of the project
+ * @param versionNumber  The project version the numbers belong to
+ * @param startDate      The first day of the project
+ * @param meals          The meals of every day in their order
+ * @param headcount      The number of people for every meal slot, indexed by the day (counted from the start date)
+ *                       and the index of the meal
+ * @param allergenPeople The number of allergen persons for every meal slot, indexed like the headcount
+ */
+public record HeadcountGrid(long id, long versionNumber, LocalDate startDate, List<String> meals, int[][] headcount,
+                            int[][] allergenPeople) {
+}
@@ -0,0 +1,32 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Representation of all allergen persons who can not eat the main recipe of a meal slot, used by the controllers
+ * and the services
+ *
+ * @param date         The date of the meal slot
+ * @param meal         The meal of the meal slot
+ * @param mainRecipeID ID of the main recipe of the meal slot, or null if it has none
+ * @param conflicts    The allergen persons who can not eat the main recipe
+ */
+public record MealSlotConflicts(LocalDate date, String meal, Long mainRecipeID, List<AllergenConflict> conflicts) {
+}
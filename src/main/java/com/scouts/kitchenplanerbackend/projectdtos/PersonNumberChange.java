@@ -16,7 +16,9 @@
 
 package com.scouts.kitchenplanerbackend.projectdtos;
 
-import java.util.Date;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+
+import java.time.LocalDate;
 
 /**
  *  Representation of the change of persons who are there before the meal slot used by the controller and services
@@ -24,5 +26,16 @@ import java.util.Date;
  * @param meal The meal on the date
  * @param differenceBefore The change before the meal happens
  */
-public record PersonNumberChange(Date date, String meal, int differenceBefore) {
+public record PersonNumberChange(LocalDate date, String meal, int differenceBefore) {
+
+    /**
+     * Representation of a change whose meal slot is stored as day offset, used by the repositories
+     * @param startDate Start date of the project
+     * @param day Day offset of the meal slot
+     * @param meal The meal on the day
+     * @param differenceBefore The change before the meal happens
+     */
+    public PersonNumberChange(LocalDate startDate, int day, String meal, int differenceBefore) {
+        this(ScheduleDays.date(startDate, day), meal, differenceBefore);
+    }
 }
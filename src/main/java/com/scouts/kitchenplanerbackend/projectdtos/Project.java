@@ -16,8 +16,7 @@
 
 package com.scouts.kitchenplanerbackend.projectdtos;
 
-import java.util.ArrayList;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -36,7 +35,7 @@ import java.util.List;
  * @param personNumberChange All changes of "eating" persons during the project
  */
 public record Project(long versionNumber, long imageVersionNumber, String name, long id, List<String> meals,
-                      Date startDate, Date endDate,
+                      LocalDate startDate, LocalDate endDate,
                       List<AllergenPerson> allergenPeople, List<RecipeForProject> recipes,
                       List<UnitConversion> unitConversions, List<PersonNumberChange> personNumberChange
 ) {
@@ -53,7 +52,7 @@ public record Project(long versionNumber, long imageVersionNumber, String name,
      * @param unitConversions    All unit conversions relevant for the project
      * @param personNumberChange All changes of "eating" persons during the project
      */
-    public Project(String name, List<String> meals, Date startDate, Date endDate,
+    public Project(String name, List<String> meals, LocalDate startDate, LocalDate endDate,
                    List<AllergenPerson> allergenPeople, List<RecipeForProject> recipes,
                    List<UnitConversion> unitConversions, List<PersonNumberChange> personNumberChange) {
         this(0, 0, name, 0, meals, startDate, endDate, allergenPeople, recipes, unitConversions, personNumberChange);
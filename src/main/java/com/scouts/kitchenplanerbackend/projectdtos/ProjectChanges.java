@@ -0,0 +1,33 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+import java.util.List;
+
+/**
+ * Representation of a set of elements which were either added to or removed from a project, used by the controllers
+ * and the services
+ *
+ * @param allergenPeople     Added or removed allergen people
+ * @param meals              Added or removed meals
+ * @param recipes            Added or removed recipes including their meal slots
+ * @param unitConversions    Added or removed unit conversions
+ * @param personNumberChange Added or removed changes of "eating" persons
+ */
+public record ProjectChanges(List<AllergenPerson> allergenPeople, List<String> meals, List<RecipeForProject> recipes,
+                             List<UnitConversion> unitConversions, List<PersonNumberChange> personNumberChange) {
+}
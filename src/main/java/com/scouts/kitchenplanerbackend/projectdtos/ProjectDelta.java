@@ -0,0 +1,42 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Representation of the changes of a project between the version the app has and the current version, used by the
+ * controllers and services. An element that was changed is contained both in the removed and in the added elements.
+ * If the changes can not be determined anymore, the complete current project is provided instead.
+ *
+ * @param id                 Online Id of the project
+ * @param fromVersionNumber  The version number the changes are based on
+ * @param versionNumber      The current version number of the project
+ * @param imageVersionNumber The current version of the picture of the project
+ * @param name               Current name of the project
+ * @param startDate          Current start date of the project
+ * @param endDate            Current end date of the project
+ * @param meals              All meals of the project in their current order
+ * @param added              All elements added since the version the changes are based on (null for a snapshot)
+ * @param removed            All elements removed since the version the changes are based on (null for a snapshot)
+ * @param snapshot           The complete current project if no changes could be determined, otherwise null
+ */
+public record ProjectDelta(long id, long fromVersionNumber, long versionNumber, long imageVersionNumber, String name,
+                           LocalDate startDate, LocalDate endDate, List<String> meals, ProjectChanges added,
+                           ProjectChanges removed, Project snapshot) {
+}
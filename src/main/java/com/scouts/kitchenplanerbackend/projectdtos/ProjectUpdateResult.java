@@ -0,0 +1,28 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+/**
+ * Result of storing a new version of a project, used by the controllers and services
+ *
+ * @param versionNumber The new version number of the project
+ * @param insertedRows  Number of database rows that were inserted
+ * @param updatedRows   Number of database rows that were updated
+ * @param deletedRows   Number of database rows that were deleted
+ */
+public record ProjectUpdateResult(long versionNumber, int insertedRows, int updatedRows, int deletedRows) {
+}
@@ -16,7 +16,9 @@
 
 package com.scouts.kitchenplanerbackend.projectdtos;
 
-import java.util.Date;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+
+import java.time.LocalDate;
 
 /**
  * Representation of a recipe with its meal slot and if it is the main recipe.
@@ -26,5 +28,17 @@ import java.util.Date;
  * @param recipeID ID of the used recipe
  * @param mainRecipe Whether the recipe is the main recipe for the meal slot
  */
-public record RecipeForProject(Date date, String meal, long recipeID, boolean mainRecipe) {
+public record RecipeForProject(LocalDate date, String meal, long recipeID, boolean mainRecipe) {
+
+    /**
+     * Representation of a recipe whose meal slot is stored as day offset, used by the repositories
+     * @param startDate Start date of the project
+     * @param day Day offset of the meal slot
+     * @param meal For which meal the recipe is used
+     * @param recipeID ID of the used recipe
+     * @param mainRecipe Whether the recipe is the main recipe for the meal slot
+     */
+    public RecipeForProject(LocalDate startDate, int day, String meal, long recipeID, boolean mainRecipe) {
+        this(ScheduleDays.date(startDate, day), meal, recipeID, mainRecipe);
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+/**
+ * Representation of an already serialized project as it is sent to the app
+ *
+ * @param id                 Online Id of the project
+ * @param versionNumber      The version number of the serialized project
+ * @param imageVersionNumber The version of the picture of the serialized project
+ * @param content            The project serialized as JSON
+ * @param gzipped            Whether the content is gzip compressed
+ */
+public record SerializedProject(long id, long versionNumber, long imageVersionNumber, byte[] content,
+                                boolean gzipped) {
+
+    /**
+     * Provides the entity tag identifying this state of the project
+     *
+     * @return The entity tag (without quotes)
+     */
+    public String eTag() {
+        return eTag(versionNumber, imageVersionNumber);
+    }
+
+    /**
+     * Provides the entity tag identifying a state of a project
+     *
+     * @param versionNumber      The version number of the project
+     * @param imageVersionNumber The version of the picture of the project
+     * @return The entity tag (without quotes)
+     */
+    public static String eTag(long versionNumber, long imageVersionNumber) {
+        return versionNumber + "." + imageVersionNumber;
+    }
+}
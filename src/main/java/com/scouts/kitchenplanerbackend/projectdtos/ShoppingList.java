@@ -0,0 +1,29 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.projectdtos;
+
+import java.util.List;
+
+/**
+ * Representation of the shopping list of a project used by the controllers and the services
+ *
+ * @param id            Online ID of the project
+ * @param versionNumber The project version the shopping list was computed for
+ * @param groups        The positions of the shopping list, grouped by ingredient group
+ */
+public record ShoppingList(long id, long versionNumber, List<ShoppingListGroup> groups) {
+}
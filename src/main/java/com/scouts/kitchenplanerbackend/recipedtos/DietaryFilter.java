@@ -0,0 +1,42 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipedtos;
+
+import java.util.List;
+
+/**
+ * Representation of dietary constraints recipes have to fulfill, used by the controllers and the services. A recipe
+ * fulfills the constraints if it has all required dietary specialities and none of the excluded ones.
+ *
+ * @param required The dietary specialities a recipe has to have, e.g. free of gluten
+ * @param excluded The dietary specialities a recipe must not have, e.g. traces of nuts
+ */
+public record DietaryFilter(List<DietarySpeciality> required, List<DietarySpeciality> excluded) {
+    /**
+     * The filter without any constraints
+     */
+    public static final DietaryFilter NONE = new DietaryFilter(List.of(), List.of());
+
+    /**
+     * Checks whether the filter has no constraints
+     *
+     * @return Whether every recipe fulfills the filter
+     */
+    public boolean isEmpty() {
+        return required.isEmpty() && excluded.isEmpty();
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipedtos;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+
+/**
+ * Representation of a dietary speciality of a recipe used by the controllers and the services
+ *
+ * @param speciality Name of the speciality, e.g. an allergen
+ * @param type       Whether the recipe is free of, contains traces of or contains the speciality
+ */
+public record DietarySpeciality(String speciality, DietaryTypes type) {
+}
@@ -0,0 +1,28 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipedtos;
+
+/**
+ * Representation of an ingredient of a recipe used by the controllers and the services
+ *
+ * @param ingredientGroup The group the ingredient belongs to, e.g. the part of the dish it is used for
+ * @param name            Name of the ingredient
+ * @param quantity        The quantity needed for the number of people of the recipe
+ * @param unit            The unit the quantity is measured in
+ */
+public record Ingredient(String ingredientGroup, String name, double quantity, String unit) {
+}
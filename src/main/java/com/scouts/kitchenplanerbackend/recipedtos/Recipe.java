@@ -0,0 +1,37 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipedtos;
+
+import java.util.List;
+
+/**
+ * Representation of a complete recipe used by the controllers and the services
+ *
+ * @param id                  Online ID of the recipe
+ * @param name                Name of the recipe
+ * @param description         Description of the recipe
+ * @param numberOfPeople      For how many people the quantities of the ingredients are
+ * @param recipeVersion       Current version number of the recipe
+ * @param imageVersion        Current version number of the recipe's image
+ * @param ingredients         All ingredients of the recipe
+ * @param instructions        The instructions of the recipe ordered by their step number
+ * @param dietarySpecialities All dietary specialities of the recipe
+ */
+public record Recipe(long id, String name, String description, int numberOfPeople, long recipeVersion,
+                     long imageVersion, List<Ingredient> ingredients, List<String> instructions,
+                     List<DietarySpeciality> dietarySpecialities) {
+}
@@ -0,0 +1,31 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipedtos;
+
+/**
+ * Progress of a recipe import used by the controllers and the services
+ *
+ * @param records          Number of records read so far
+ * @param imported         Number of recipes stored so far
+ * @param rejected         Number of records rejected so far
+ * @param elapsedMillis    Time since the import started
+ * @param recipesPerSecond Number of recipes stored per second
+ * @param finished         Whether all records have been read
+ */
+public record RecipeImportProgress(long records, long imported, long rejected, long elapsedMillis,
+                                   double recipesPerSecond, boolean finished) {
+}
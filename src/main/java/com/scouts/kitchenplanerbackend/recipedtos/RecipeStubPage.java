@@ -14,24 +14,17 @@
  * GNU General Public License for more details.
  */
 
-package com.scouts.kitchenplanerbackend.entities.projects.ids;
+package com.scouts.kitchenplanerbackend.recipedtos;
 
-import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO;
 
-import java.io.Serializable;
+import java.util.List;
 
 /**
- * ID class for {@link com.scouts.kitchenplanerbackend.entities.projects.MealEntity}
+ * One page of the recipe listing used by the controllers and the services
+ *
+ * @param recipes The stubs of the recipes on this page in ascending order of their IDs
+ * @param nextAfterID The ID to request the next page with, or null if this is the last page
  */
-@EqualsAndHashCode
-@NoArgsConstructor
-@Getter
-@Setter
-public class MealEntityID implements Serializable {
-    private ProjectEntity project;
-    private String name;
+public record RecipeStubPage(List<RecipeStubDTO> recipes, Long nextAfterID) {
 }
@@ -0,0 +1,200 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipeimport;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.exceptions.InvalidRecipeRecordException;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Ingredient;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parses recipes from comma separated values as described in RFC 4180, one recipe per row. The first row names the
+ * columns; {@code id}, {@code name} and {@code numberOfPeople} are required, {@code description},
+ * {@code ingredients}, {@code instructions} and {@code dietarySpecialities} are optional. The list columns hold their
+ * entries separated by {@code |}:
+ * <ul>
+ *     <li>ingredients: {@code group;name;quantity;unit}</li>
+ *     <li>instructions: the text of every step in their order</li>
+ *     <li>dietarySpecialities: {@code speciality;type}, where the type is one of {@link DietaryTypes}</li>
+ * </ul>
+ */
+public class CsvRecipeReader implements RecipeRecordReader {
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("\\|");
+    private static final Pattern FIELD_SEPARATOR = Pattern.compile(";");
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private long recordNumber = 0;
+    private boolean endOfInput = false;
+
+    /**
+     * Creates a new reader
+     *
+     * @param reader The source of the records
+     */
+    public CsvRecipeReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public Recipe next() throws IOException {
+        if (columns == null) {
+            List<String> header = readRow();
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String column : List.of("id", "name", "numberofpeople")) {
+                if (!columns.containsKey(column)) {
+                    throw new IllegalArgumentException("The CSV header has no column " + column);
+                }
+            }
+        }
+
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isBlank());
+        recordNumber++;
+        try {
+            return parse(row);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRecipeRecordException(recordNumber, e.getMessage());
+        }
+    }
+
+    @Override
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Recipe parse(List<String> row) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (String entry : list(cell(row, "ingredients"))) {
+            String[] fields = FIELD_SEPARATOR.split(entry, -1);
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("Ingredients need the form group;name;quantity;unit: " + entry);
+            }
+            ingredients.add(new Ingredient(fields[0].trim(), fields[1].trim(), Double.parseDouble(fields[2].trim()),
+                    fields[3].trim()));
+        }
+
+        List<DietarySpeciality> specialities = new ArrayList<>();
+        for (String entry : list(cell(row, "dietaryspecialities"))) {
+            String[] fields = FIELD_SEPARATOR.split(entry, -1);
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Dietary specialities need the form speciality;type: " + entry);
+            }
+            specialities.add(new DietarySpeciality(fields[0].trim(),
+                    DietaryTypes.valueOf(fields[1].trim().toUpperCase(Locale.ROOT))));
+        }
+
+        return new Recipe(Long.parseLong(cell(row, "id").trim()), cell(row, "name"), cell(row, "description"),
+                Integer.parseInt(cell(row, "numberofpeople").trim()), 0, 0, ingredients,
+                list(cell(row, "instructions")), specialities);
+    }
+
+    private String cell(List<String> row, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= row.size() ? null : row.get(index);
+    }
+
+    private static List<String> list(String cell) {
+        if (cell == null || cell.isBlank()) {
+            return List.of();
+        }
+        return List.of(LIST_SEPARATOR.split(cell));
+    }
+
+    private List<String> readRow() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int length = 0;
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                endOfInput = true;
+                if (quoted) {
+                    throw new InvalidRecipeRecordException(recordNumber + 1, "The input ends inside a quoted field");
+                }
+                if (empty) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            empty = false;
+            if (++length > MAX_RECORD_LENGTH) {
+                // without knowing where the record ends, the following records can not be found reliably
+                endOfInput = true;
+                throw new InvalidRecipeRecordException(recordNumber + 1,
+                        "The record is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+}
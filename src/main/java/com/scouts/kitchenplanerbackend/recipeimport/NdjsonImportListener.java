@@ -0,0 +1,62 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipeimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportProgress;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportRejection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Writes the progress and the rejected records of a recipe import as newline delimited JSON, either as
+ * {@code {"progress": ...}} or as {@code {"rejected": ...}}. Every line is flushed immediately, so a client can follow
+ * a running import.
+ */
+public class NdjsonImportListener implements RecipeImportListener {
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a new listener
+     *
+     * @param out          The stream the lines are written to
+     * @param objectMapper The mapper used to serialize the lines
+     */
+    public NdjsonImportListener(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void progress(RecipeImportProgress progress) throws IOException {
+        write(Map.of("progress", progress));
+    }
+
+    @Override
+    public void rejected(RecipeImportRejection rejection) throws IOException {
+        write(Map.of("rejected", rejection));
+    }
+
+    private void write(Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipeimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.scouts.kitchenplanerbackend.exceptions.InvalidRecipeRecordException;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Parses recipes from newline delimited JSON, one {@link Recipe} object per line. Empty lines are skipped and lines
+ * longer than {@link #MAX_RECORD_LENGTH} characters are rejected without being buffered. The input is read in
+ * chunks and scanned for line terminators, so the underlying reader is not called once per character.
+ */
+public class NdjsonRecipeReader implements RecipeRecordReader {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Reader reader;
+    private final ObjectReader recipeReader;
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private long recordNumber = 0;
+
+    /**
+     * Creates a new reader
+     *
+     * @param reader       The source of the records
+     * @param objectMapper The mapper used to parse the records
+     */
+    public NdjsonRecipeReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.recipeReader = objectMapper.readerFor(Recipe.class);
+    }
+
+    @Override
+    public Recipe next() throws IOException {
+        String line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        try {
+            return recipeReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRecipeRecordException(recordNumber, e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Reads the next line, counting it as a record unless it is blank
+     *
+     * @return The line without its line terminator or null at the end of the input
+     * @throws InvalidRecipeRecordException When the line is longer than {@link #MAX_RECORD_LENGTH}
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        boolean tooLong = false;
+        boolean terminated = false;
+        while (!terminated) {
+            if (position == limit) {
+                position = 0;
+                limit = Math.max(0, reader.read(chunk, 0, chunk.length));
+                if (limit == 0) {
+                    if (line.isEmpty() && !tooLong) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            int start = position;
+            while (position < limit && chunk[position] != '\n') {
+                position++;
+            }
+            if (!tooLong && line.length() + position - start > MAX_RECORD_LENGTH) {
+                // the rest of the line is skipped, so the following records can still be read
+                tooLong = true;
+                line = new StringBuilder();
+            }
+            if (!tooLong) {
+                line.append(chunk, start, position - start);
+            }
+            if (position < limit) {
+                position++;
+                terminated = true;
+            }
+        }
+        if (tooLong) {
+            recordNumber++;
+            throw new InvalidRecipeRecordException(recordNumber,
+                    "The record is longer than " + MAX_RECORD_LENGTH + " characters");
+        }
+
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        String result = line.toString();
+        if (!result.isBlank()) {
+            recordNumber++;
+        }
+        return result;
+    }
+
+    @Override
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipeimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * The file formats recipes can be imported from
+ */
+public enum RecipeImportFormat {
+    /**
+     * One JSON object per line, in the same form as recipes are returned by the API
+     */
+    NDJSON,
+    /**
+     * Comma separated values with a header line, see {@link CsvRecipeReader} for the columns
+     */
+    CSV;
+
+    /**
+     * Creates a reader which parses recipes of this format
+     *
+     * @param reader       The source of the records
+     * @param objectMapper The mapper used to parse JSON records
+     * @return The recipe reader
+     */
+    public RecipeRecordReader open(Reader reader, ObjectMapper objectMapper) {
+        return switch (this) {
+            case NDJSON -> new NdjsonRecipeReader(reader, objectMapper);
+            case CSV -> new CsvRecipeReader(reader);
+        };
+    }
+
+    /**
+     * Determines the format of a file by its extension
+     *
+     * @param fileName The name of the file
+     * @return CSV for files ending in .csv, NDJSON otherwise
+     */
+    public static RecipeImportFormat ofFileName(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipeimport;
+
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportProgress;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportRejection;
+
+import java.io.IOException;
+
+/**
+ * Receives the progress and the rejected records of a recipe import while it is running
+ */
+public interface RecipeImportListener {
+
+    /**
+     * Called after every committed chunk of recipes and once when the import is finished
+     *
+     * @param progress The progress of the import
+     * @throws IOException When the progress can not be reported
+     */
+    void progress(RecipeImportProgress progress) throws IOException;
+
+    /**
+     * Called for every record that is not imported
+     *
+     * @param rejection The rejected record
+     * @throws IOException When the rejection can not be reported
+     */
+    void rejected(RecipeImportRejection rejection) throws IOException;
+}
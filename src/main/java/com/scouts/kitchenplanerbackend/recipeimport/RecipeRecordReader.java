@@ -0,0 +1,51 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.recipeimport;
+
+import com.scouts.kitchenplanerbackend.exceptions.InvalidRecipeRecordException;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Parses recipes one record at a time, so only the current record is held in memory regardless of the size of the
+ * import
+ */
+public interface RecipeRecordReader extends Closeable {
+    /**
+     * The maximal number of characters of one record. Longer records are rejected, so a malformed or malicious
+     * import can not make a reader buffer an unbounded amount of input.
+     */
+    int MAX_RECORD_LENGTH = 1 << 20;
+
+    /**
+     * Parses the next record. If the record is invalid, the reader can still be used to parse the following records.
+     *
+     * @return The next recipe or null if there are no more records
+     * @throws InvalidRecipeRecordException When the record can not be parsed
+     * @throws IOException                  When the source can not be read
+     */
+    Recipe next() throws IOException;
+
+    /**
+     * Provides the number of the record that was parsed last
+     *
+     * @return The record number, starting at 1
+     */
+    long recordNumber();
+}
@@ -17,6 +17,7 @@
 package com.scouts.kitchenplanerbackend.repositories.projects;
 
 import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.AllergenPersonEntityID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,6 +27,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Optional;
 
 /**
  * repository that provides CRUD methods to interact with the allergen person table.
@@ -43,6 +45,41 @@ public interface AllergenPersonRepository extends JpaRepository<AllergenPersonEn
     @Query("select a from AllergenPersonEntity a where a.project.id = :id")
     Collection<AllergenPersonEntity> findByProject_Id(@Param("id") long id);
 
+    /**
+     * Provides stubs of all allergen persons who belong to a specified project, including the names of their arrival
+     * and departure meals
+     *
+     * @param id of the requested project
+     * @return all allergen person stubs
+     */
+    @Query("select a.name as name, a.arrivalDay as arrivalDay, a.departureDay as departureDay, " +
+            "arrival.name as arrivalMeal, departure.name as departureMeal from AllergenPersonEntity a " +
+            "left join a.arrivalMeal arrival left join a.departureMeal departure where a.project.id = :id")
+    Collection<AllergenPersonStubDTO> findStubsByProject_Id(@Param("id") long id);
+
+    /**
+     * Provides an allergen person of a project
+     *
+     * @param id   of the requested project
+     * @param name of the requested allergen person
+     * @return the allergen person or nothing if the project has no allergen person with this name
+     */
+    @Query("select a from AllergenPersonEntity a where a.project.id = :id and a.name = :name")
+    Optional<AllergenPersonEntity> findByProject_IdAndName(@Param("id") long id, @Param("name") String name);
+
+    /**
+     * Provides the stub of an allergen person of a project, including the names of the arrival and departure meal
+     *
+     * @param id   of the requested project
+     * @param name of the requested allergen person
+     * @return the allergen person stub or nothing if the project has no allergen person with this name
+     */
+    @Query("select a.name as name, a.arrivalDay as arrivalDay, a.departureDay as departureDay, " +
+            "arrival.name as arrivalMeal, departure.name as departureMeal from AllergenPersonEntity a " +
+            "left join a.arrivalMeal arrival left join a.departureMeal departure " +
+            "where a.project.id = :id and a.name = :name")
+    Optional<AllergenPersonStubDTO> findStubByProject_IdAndName(@Param("id") long id, @Param("name") String name);
+
     /**
      * Deletes all allergen persons who belong to a specified project
      * @param project The project where the persons belong to
@@ -16,6 +16,7 @@
 
 package com.scouts.kitchenplanerbackend.repositories.projects;
 
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenDTO;
 import com.scouts.kitchenplanerbackend.entities.projects.AllergenEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.AllergenEntityID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -41,6 +42,16 @@ public interface AllergenRepository extends JpaRepository<AllergenEntity, Allerg
     @Query("select a from AllergenEntity a where a.project.id = :id")
     Collection<AllergenEntity> findByProject_Id(@Param("id") long id);
 
+    /**
+     * Provides all allergens which are relevant for a given project, referencing their allergen person by name
+     *
+     * @param id of the requested project
+     * @return all allergens
+     */
+    @Query("select a.allergenPerson.name as allergenPerson, a.allergen.id as allergenId, a.traces as traces " +
+            "from AllergenEntity a where a.project.id = :id")
+    Collection<AllergenDTO> findDTOsByProject_Id(@Param("id") long id);
+
     /**
      * Returns all allergens for an allergen person in a project
      *
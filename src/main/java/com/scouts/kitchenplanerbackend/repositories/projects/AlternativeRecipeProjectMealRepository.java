@@ -19,6 +19,7 @@ package com.scouts.kitchenplanerbackend.repositories.projects;
 import com.scouts.kitchenplanerbackend.entities.projects.AlternativeRecipeProjectMeal;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.AlternativeRecipeProjectMealID;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +27,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository which provides access to the alternative recipes for a meal slot (a meal on a date).
@@ -45,6 +48,31 @@ public interface AlternativeRecipeProjectMealRepository
     @Query("select a from AlternativeRecipeProjectMeal a where a.project.id = :id")
     Collection<AlternativeRecipeProjectMeal> findByProject_Id(@Param("id") long id);
 
+    /**
+     * Provides all alternative recipes for a project as they are used by the controllers and services
+     *
+     * @param id of the project
+     * @return all alternative recipes
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject(a.project.startDate, " +
+            "a.day, a.meal.name, a.recipe.id, false) from AlternativeRecipeProjectMeal a where a.project.id = :id")
+    List<RecipeForProject> findRecipesForProjectByProject_Id(@Param("id") long id);
+
+    /**
+     * Provides an alternative recipe of a meal slot of a project
+     *
+     * @param id       of the project
+     * @param meal     name of the meal of the meal slot
+     * @param day      of the meal slot as day offset
+     * @param recipeID of the alternative recipe
+     * @return the alternative recipe or nothing if it is not used for the meal slot
+     */
+    @Query("select a from AlternativeRecipeProjectMeal a " +
+            "where a.project.id = :id and a.meal.name = :meal and a.day = :day and a.recipe.id = :recipe")
+    Optional<AlternativeRecipeProjectMeal> findByProject_IdAndMeal_NameAndDayAndRecipe_Id(
+            @Param("id") long id, @Param("meal") String meal, @Param("day") int day,
+            @Param("recipe") long recipeID);
+
     /**
      * Deletes all alternative recipes associated with the given project
      * @param project Project entity for which the recipes should be deleted
@@ -19,6 +19,7 @@ package com.scouts.kitchenplanerbackend.repositories.projects;
 import com.scouts.kitchenplanerbackend.entities.projects.MainRecipeProjectMealEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.MainRecipeProjectMealID;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +27,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository that provides access to the main recipe of a meal slot.
@@ -43,6 +46,30 @@ public interface MainRecipeProjectMealRepository
     @Query("select m from MainRecipeProjectMealEntity m where m.project.id = :id")
     Collection<MainRecipeProjectMealEntity> findByProject_Id(@Param("id") long id);
 
+    /**
+     * Provides all main recipes for a project as they are used by the controllers and services
+     *
+     * @param id of the project
+     * @return all requested main recipes
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject(m.project.startDate, " +
+            "m.day, m.meal.name, m.recipe.id, true) from MainRecipeProjectMealEntity m where m.project.id = :id")
+    List<RecipeForProject> findRecipesForProjectByProject_Id(@Param("id") long id);
+
+    /**
+     * Provides the main recipe of a meal slot of a project
+     *
+     * @param id   of the project
+     * @param meal name of the meal of the meal slot
+     * @param day  of the meal slot as day offset
+     * @return the main recipe or nothing if the meal slot has no main recipe
+     */
+    @Query("select m from MainRecipeProjectMealEntity m " +
+            "where m.project.id = :id and m.meal.name = :meal and m.day = :day")
+    Optional<MainRecipeProjectMealEntity> findByProject_IdAndMeal_NameAndDay(@Param("id") long id,
+                                                                            @Param("meal") String meal,
+                                                                            @Param("day") int day);
+
     /**
      * Deletes all main recipes associated with the given project
      * @param project Project entity for which the recipes should be deleted
@@ -18,7 +18,6 @@ package com.scouts.kitchenplanerbackend.repositories.projects;
 
 import com.scouts.kitchenplanerbackend.entities.projects.MealEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.ids.MealEntityID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,13 +25,14 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository that provides all possible meals for projects.
  * <p> It contains the basic CRUD methods, like adding, deleting and writing without explicitly defining methods for those operations.
  */
-public interface MealRepository extends JpaRepository<MealEntity, MealEntityID> {
+public interface MealRepository extends JpaRepository<MealEntity, Long> {
 
     /**
      * Provides all meals for project
@@ -43,6 +43,15 @@ public interface MealRepository extends JpaRepository<MealEntity, MealEntityID>
     @Query("select m from MealEntity m where m.project.id = :id")
     Collection<MealEntity> findByProject_Id(@Param("id") long id);
 
+    /**
+     * Provides the names of all meals for a project in the order given by their sequence
+     *
+     * @param id of the project
+     * @return the ordered meal names
+     */
+    @Query("select m.name from MealEntity m where m.project.id = :id order by m.sequence")
+    List<String> findNamesByProject_IdOrderBySequence(@Param("id") long id);
+
     /**
      * Provides the specified meal entity of a meal  for a project
      * @param id The id of the project
@@ -53,6 +62,29 @@ public interface MealRepository extends JpaRepository<MealEntity, MealEntityID>
     Optional<MealEntity> findByProject_IdAndName(@Param("id") Long id, @Param("name") String name);
 
 
+    /**
+     * Provides the highest sequence number of the meals of a project
+     *
+     * @param id of the project
+     * @return the highest sequence number or nothing if the project has no meals
+     */
+    @Query("select max(m.sequence) from MealEntity m where m.project.id = :id")
+    Optional<Integer> findMaxSequenceByProject_Id(@Param("id") long id);
+
+    /**
+     * Queries if a meal of a project is still used by an allergen person, a recipe or a person number change
+     *
+     * @param id   of the project
+     * @param name of the meal
+     * @return whether the meal is still used
+     */
+    @Query("select (count(m) > 0) from MealEntity m where m.project.id = :id and m.name = :name and (" +
+            "exists (select a from AllergenPersonEntity a where a.arrivalMeal = m or a.departureMeal = m) or " +
+            "exists (select r from MainRecipeProjectMealEntity r where r.meal = m) or " +
+            "exists (select r from AlternativeRecipeProjectMeal r where r.meal = m) or " +
+            "exists (select c from PersonNumberChangeEntity c where c.meal = m))")
+    boolean isUsedByProject_IdAndName(@Param("id") long id, @Param("name") String name);
+
     /**
      * Deletes all meals associated with the given project
      * @param project Project entity for which the meals should be deleted
@@ -17,8 +17,10 @@
 package com.scouts.kitchenplanerbackend.repositories.projects;
 
 import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeStubDTO;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.PersonNumberChangeID;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +28,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository that provides how the amount of persons change during a project.
@@ -41,6 +45,38 @@ public interface PersonNumberChangeRepository extends JpaRepository<PersonNumber
     @Query("select p from PersonNumberChangeEntity p where p.project.id = :id")
     Collection<PersonNumberChangeEntity> findByProject_Id(@Param("id") long id);
 
+    /**
+     * Provides all changes for a project as they are used by the controllers and services
+     * @param id of the requested project
+     * @return all changes.
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange(p.project.startDate, " +
+            "p.day, p.meal.name, p.differenceBefore) from PersonNumberChangeEntity p where p.project.id = :id")
+    List<PersonNumberChange> findPersonNumberChangesByProject_Id(@Param("id") long id);
+
+    /**
+     * Provides stubs of all changes for a project, which keep the day offsets as they are stored
+     * @param id of the requested project
+     * @return all change stubs
+     */
+    @Query("select p.day as day, p.meal.name as meal, p.differenceBefore as differenceBefore " +
+            "from PersonNumberChangeEntity p where p.project.id = :id")
+    Collection<PersonNumberChangeStubDTO> findStubsByProject_Id(@Param("id") long id);
+
+    /**
+     * Provides the person number change before a meal slot of a project
+     *
+     * @param id   of the project
+     * @param meal name of the meal of the meal slot
+     * @param day  of the meal slot as day offset
+     * @return the person number change or nothing if the number of persons does not change before the meal slot
+     */
+    @Query("select p from PersonNumberChangeEntity p " +
+            "where p.project.id = :id and p.meal.name = :meal and p.day = :day")
+    Optional<PersonNumberChangeEntity> findByProject_IdAndMeal_NameAndDay(@Param("id") long id,
+                                                                          @Param("meal") String meal,
+                                                                          @Param("day") int day);
+
     /**
      * Deletes all person number changes associated with the given project
      * @param project Project entity for which the changes should be deleted
@@ -0,0 +1,58 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.repositories.projects;
+
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectChangeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository that provides access to the change journal of the projects.
+ * <p> It contains the basic CRUD methods, like adding, deleting and writing without explicitly defining methods for those operations.
+ */
+public interface ProjectChangeRepository extends JpaRepository<ProjectChangeEntity, Long> {
+
+    /**
+     * Provides all changes of a project which lead from one project version to another, in the order they were made
+     *
+     * @param id   of the project
+     * @param from The version from which on the changes are requested (exclusive)
+     * @param to   The version up to which the changes are requested (inclusive)
+     * @return all requested changes
+     */
+    @Query("select c from ProjectChangeEntity c where c.project.id = :id and c.projectVersion > :from " +
+            "and c.projectVersion <= :to order by c.id")
+    List<ProjectChangeEntity> findByProject_IdAndProjectVersionBetween(@Param("id") long id,
+                                                                       @Param("from") long from,
+                                                                       @Param("to") long to);
+
+    /**
+     * Deletes all changes of a project up to (and including) the given version
+     *
+     * @param id      of the project
+     * @param version The last version whose changes are deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ProjectChangeEntity c where c.project.id = :id and c.projectVersion <= :version")
+    void deleteByProject_IdAndProjectVersionLessThanEqual(@Param("id") long id, @Param("version") long version);
+}
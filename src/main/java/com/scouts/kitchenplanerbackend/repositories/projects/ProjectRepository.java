@@ -16,6 +16,7 @@
 
 package com.scouts.kitchenplanerbackend.repositories.projects;
 
+import com.scouts.kitchenplanerbackend.entities.ImageReferenceDTO;
 import com.scouts.kitchenplanerbackend.entities.UserEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectStubDTO;
@@ -25,8 +26,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Date;
+import java.util.Optional;
 
 /**
  * Provides access to the general information of a project and contains the possibility to let people join and leave it.
@@ -57,6 +59,25 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
     @Query("select p.imageUri from ProjectEntity p where p.id = :id")
     String getImageURIById(@Param("id") long id);
 
+    /**
+     * Provides the image file name of a project together with its current image version
+     *
+     * @param id of the requested project
+     * @return the image reference or nothing if the project does not exist
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.entities.ImageReferenceDTO(p.imageUri, p.imageVersion) " +
+            "from ProjectEntity p where p.id = :id")
+    Optional<ImageReferenceDTO> findImageReferenceById(@Param("id") long id);
+
+    /**
+     * Provides the project stub of a project, containing its current project and image version
+     *
+     * @param id of the requested project
+     * @return the project stub or nothing if the project does not exist
+     */
+    @Query("select p from ProjectEntity p where p.id = :id")
+    Optional<ProjectStubDTO> findProjectStubById(@Param("id") long id);
+
     /**
      * Provides all projects stubs where the given participant is part of
      *
@@ -95,9 +116,57 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
     @Transactional
     @Modifying(clearAutomatically = true)
     @Query("update ProjectEntity p set p.name = :name, p.startDate = :startDate, p.endDate = :endDate, p.projectVersion = (p.projectVersion + 1) where p.id = :id")
-    void updateMetaData(@Param("name") String name, @Param("startDate") Date startDate, @Param("endDate") Date endDate,
+    void updateMetaData(@Param("name") String name, @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
                         @Param("id") Long id);
 
+    /**
+     * Updates all metadata of a project and increases the project version number, but only if the project is still
+     * at the expected version. The check and the version bump happen in a single statement, so of two concurrent
+     * updates based on the same version exactly one succeeds.
+     * @param name The new name of the project
+     * @param startDate New start date of the project
+     * @param endDate New end date of the project
+     * @param id Id of the project where the metadata is changed
+     * @param expectedVersion The version number the project must currently have
+     * @return 1 if the project was updated, 0 if it does not exist or is at a different version
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ProjectEntity p set p.name = :name, p.startDate = :startDate, p.endDate = :endDate, p.projectVersion = (p.projectVersion + 1) where p.id = :id and p.projectVersion = :expectedVersion")
+    int updateMetaDataIfVersion(@Param("name") String name, @Param("startDate") LocalDate startDate,
+                                @Param("endDate") LocalDate endDate, @Param("id") Long id,
+                                @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Increases the project version number, but only if the project is still at the expected version
+     * @param id Id of the project
+     * @param expectedVersion The version number the project must currently have
+     * @return 1 if the version was increased, 0 if the project does not exist or is at a different version
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update ProjectEntity p set p.projectVersion = (p.projectVersion + 1) where p.id = :id and p.projectVersion = :expectedVersion")
+    int increaseProjectVersionIfVersion(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Gets the project version number for a project
+     * @param id The id of the project
+     * @return The current project version number, or nothing if the project does not exist
+     */
+    @Query("select p.projectVersion from ProjectEntity p where p.id = :id")
+    Optional<Long> findProjectVersionById(@Param("id") Long id);
+
+
+    /**
+     * Raises the version from which on the change journal of a project is complete
+     * @param id Id of the project
+     * @param version The oldest version from which the project can still be updated using the journal
+     */
+    @Transactional
+    @Modifying
+    @Query("update ProjectEntity p set p.journalStartVersion = :version where p.id = :id and p.journalStartVersion < :version")
+    void raiseJournalStartVersion(@Param("id") Long id, @Param("version") Long version);
 
     /**
      * Provides the number of participants in a projects
@@ -19,6 +19,7 @@ package com.scouts.kitchenplanerbackend.repositories.projects;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.UnitConversionEntity;
 import com.scouts.kitchenplanerbackend.entities.projects.ids.UnitConversionID;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +27,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository that provides access to the unit conversion for a project
@@ -42,6 +45,31 @@ public interface UnitConversionRepository extends JpaRepository<UnitConversionEn
     @Query("select u from UnitConversionEntity u where u.project.id = :id")
     Collection<UnitConversionEntity> findByProject_Id(@Param("id") long id);
 
+    /**
+     * provides all unit conversions for a project as they are used by the controllers and services
+     *
+     * @param id of the project
+     * @return all requested unit conversions
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.projectdtos.UnitConversion(u.sourceUnit, " +
+            "u.destinationUnit, u.ingredient, u.factor) from UnitConversionEntity u where u.project.id = :id")
+    List<UnitConversion> findUnitConversionsByProject_Id(@Param("id") long id);
+
+
+    /**
+     * Provides a unit conversion of a project
+     *
+     * @param id              of the project
+     * @param sourceUnit      unit the conversion starts from
+     * @param destinationUnit unit the conversion leads to
+     * @param ingredient      ingredient the conversion is used for
+     * @return the unit conversion or nothing if the project has no such conversion
+     */
+    @Query("select u from UnitConversionEntity u where u.project.id = :id and u.sourceUnit = :source " +
+            "and u.destinationUnit = :destination and u.ingredient = :ingredient")
+    Optional<UnitConversionEntity> findByProject_IdAndSourceUnitAndDestinationUnitAndIngredient(
+            @Param("id") long id, @Param("source") String sourceUnit, @Param("destination") String destinationUnit,
+            @Param("ingredient") String ingredient);
 
     /**
      * Deletes all unit conversions associated with the given project
@@ -16,9 +16,12 @@
 
 package com.scouts.kitchenplanerbackend.repositories.recipes;
 
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityDTO;
 import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityEntity;
 import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityEntityID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 
@@ -26,4 +29,14 @@ public interface DietarySpecialityRepository
         extends JpaRepository<DietarySpecialityEntity, DietarySpecialityEntityID> {
 
     Collection<DietarySpecialityEntity> getDietarySpecialityEntitiesByRecipeId(long recipeId);
+
+    /**
+     * Provides the dietary specialities of all given recipes
+     *
+     * @param recipeIds IDs of the recipes
+     * @return the dietary specialities of all given recipes
+     */
+    @Query("select d.recipe.id as recipeId, d.speciality.id as specialityId, d.type as type " +
+            "from DietarySpecialityEntity d where d.recipe.id in :ids")
+    Collection<DietarySpecialityDTO> findDTOsByRecipe_IdIn(@Param("ids") Collection<Long> recipeIds);
 }
\ No newline at end of file
@@ -18,7 +18,10 @@ package com.scouts.kitchenplanerbackend.repositories.recipes;
 
 import com.scouts.kitchenplanerbackend.entities.recipe.IngredientEntity;
 import com.scouts.kitchenplanerbackend.entities.recipe.IngredientID;
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientQuantityDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 
@@ -26,4 +29,16 @@ public interface IngredientRepository extends JpaRepository<IngredientEntity, In
 
     Collection<IngredientEntity> getIngredientEntitiesByRecipeId(long recipeId);
 
+    /**
+     * Provides the quantities of all ingredients of the given recipes together with the number of people the
+     * recipes are for
+     *
+     * @param recipeIds IDs of the recipes
+     * @return the ingredients of all given recipes
+     */
+    @Query("select i.recipe.id as recipeId, i.recipe.numberOfPeople as numberOfPeople, i.name as name, " +
+            "i.ingredientGroup as ingredientGroup, i.quantity as quantity, i.unit as unit " +
+            "from IngredientEntity i where i.recipe.id in :ids")
+    Collection<IngredientQuantityDTO> findQuantitiesByRecipe_IdIn(@Param("ids") Collection<Long> recipeIds);
+
 }
\ No newline at end of file
@@ -16,13 +16,26 @@
 
 package com.scouts.kitchenplanerbackend.repositories.recipes;
 
+import com.scouts.kitchenplanerbackend.entities.recipe.InstructionDTO;
 import com.scouts.kitchenplanerbackend.entities.recipe.InstructionEntity;
 import com.scouts.kitchenplanerbackend.entities.recipe.InstructionID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 
 public interface InstructionRepository extends JpaRepository<InstructionEntity, InstructionID> {
 
     Collection<InstructionEntity> getInstructionEntitiesByRecipeIdOrderByStepNumber(long recipeId);
+
+    /**
+     * Provides the instructions of all given recipes, ordered by recipe and step number
+     *
+     * @param recipeIds IDs of the recipes
+     * @return the instructions of all given recipes
+     */
+    @Query("select i.recipe.id as recipeId, i.stepNumber as stepNumber, i.instruction as instruction " +
+            "from InstructionEntity i where i.recipe.id in :ids order by i.recipe.id, i.stepNumber")
+    Collection<InstructionDTO> findDTOsByRecipe_IdIn(@Param("ids") Collection<Long> recipeIds);
 }
\ No newline at end of file
@@ -16,15 +16,22 @@
 
 package com.scouts.kitchenplanerbackend.repositories.recipes;
 
+import com.scouts.kitchenplanerbackend.entities.ImageReferenceDTO;
 import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
 import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntityDTO;
 import com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 public interface RecipeRepository extends JpaRepository<RecipeEntity, Long> {
     /**
      * Updates the path to a recipe's image, increasing the image version number of the recipe
@@ -42,11 +49,50 @@ public interface RecipeRepository extends JpaRepository<RecipeEntity, Long> {
     @Query("select r.imageURI  from RecipeEntity r where r.id = :id")
     String getImageURIById(@Param("id") long id);
 
+    /**
+     * Provides the image file name of a recipe together with its current image version
+     *
+     * @param id of the requested recipe
+     * @return the image reference or nothing if the recipe does not exist
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.entities.ImageReferenceDTO(r.imageURI, r.imageVersion) " +
+            "from RecipeEntity r where r.id = :id")
+    Optional<ImageReferenceDTO> findImageReferenceById(@Param("id") long id);
+
 
-    @Query("select r from RecipeEntity r where r.id = :id")
+    @Query("select new com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO(r.id, r.name, " +
+            "r.imageVersion, r.recipeVersion) from RecipeEntity r where r.id = :id")
     RecipeStubDTO getRecipeStubDTOById(@Param("id") long id);
 
-    @Query("select r from RecipeEntity r")
+    /**
+     * Provides the stubs of the recipes following a given recipe in the order of their IDs. The recipes are found by
+     * seeking the primary key index, so every page costs the same regardless of how many recipes precede it.
+     *
+     * @param afterID The ID after which the stubs start
+     * @param page    The number of stubs to be returned, only the page size is used
+     * @return The recipe stubs in ascending order of their IDs
+     */
+    @Query("select new com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO(r.id, r.name, " +
+            "r.imageVersion, r.recipeVersion) from RecipeEntity r where r.id > :afterID order by r.id")
+    List<RecipeStubDTO> findStubsAfter(@Param("afterID") long afterID, Pageable page);
+
+    /**
+     * Provides the IDs of all recipes
+     * @return The IDs of all recipes in ascending order
+     */
+    @Query("select r.id from RecipeEntity r order by r.id")
+    List<Long> findAllIds();
+
+    /**
+     * Provides which of the given IDs already belong to a recipe
+     * @param ids The IDs to be checked
+     * @return The IDs that belong to a recipe
+     */
+    @Query("select r.id from RecipeEntity r where r.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntityDTO(r.id, r.name, " +
+            "r.description, r.numberOfPeople) from RecipeEntity r where r.id = :id")
     RecipeEntityDTO getRecipeEntityBy(@Param("id") long id);
 
     /**
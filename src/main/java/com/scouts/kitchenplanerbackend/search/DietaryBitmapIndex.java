@@ -0,0 +1,150 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.search;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.recipedtos.DietaryFilter;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bitmap index over the dietary specialities of recipes. Every recipe gets a small ordinal and for every combination
+ * of speciality and dietary type a bitmap has the ordinals of the recipes with that speciality set. Any combination of
+ * dietary constraints is resolved by AND and AND NOT operations on these bitmaps. Ordinals of removed recipes are
+ * reused, so the bitmaps stay dense.
+ *
+ * <p> Speciality names are compared in their {@link GermanNormalizer normalized} form. The index is not thread safe.
+ */
+final class DietaryBitmapIndex {
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> recipeIDs = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<SpecialityKey, BitSet> bitmaps = new HashMap<>();
+    private final Map<Long, Set<SpecialityKey>> recipeSpecialities = new HashMap<>();
+
+    /**
+     * Sets the dietary specialities of a recipe, replacing its previous specialities
+     *
+     * @param recipeID     Online ID of the recipe
+     * @param specialities All dietary specialities of the recipe
+     */
+    void put(long recipeID, Collection<DietarySpeciality> specialities) {
+        remove(recipeID);
+        int ordinal = freeOrdinals.isEmpty() ? recipeIDs.size() : freeOrdinals.pop();
+        if (ordinal == recipeIDs.size()) {
+            recipeIDs.add(recipeID);
+        } else {
+            recipeIDs.set(ordinal, recipeID);
+        }
+        ordinals.put(recipeID, ordinal);
+        live.set(ordinal);
+
+        Set<SpecialityKey> keys = new HashSet<>();
+        for (DietarySpeciality speciality : specialities) {
+            SpecialityKey key = SpecialityKey.of(speciality);
+            keys.add(key);
+            bitmaps.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+        }
+        recipeSpecialities.put(recipeID, keys);
+    }
+
+    /**
+     * Removes a recipe from the index
+     *
+     * @param recipeID Online ID of the recipe
+     */
+    void remove(long recipeID) {
+        Integer ordinal = ordinals.remove(recipeID);
+        if (ordinal == null) {
+            return;
+        }
+        for (SpecialityKey key : recipeSpecialities.remove(recipeID)) {
+            BitSet bitmap = bitmaps.get(key);
+            bitmap.clear(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+        live.clear(ordinal);
+        recipeIDs.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * Provides the ordinals of all recipes fulfilling a dietary filter
+     *
+     * @param filter The dietary constraints
+     * @return The ordinals of the matching recipes, which may be modified by the caller
+     */
+    BitSet matching(DietaryFilter filter) {
+        BitSet matching = (BitSet) live.clone();
+        for (DietarySpeciality speciality : filter.required()) {
+            BitSet bitmap = bitmaps.get(SpecialityKey.of(speciality));
+            if (bitmap == null) {
+                return new BitSet();
+            }
+            matching.and(bitmap);
+        }
+        for (DietarySpeciality speciality : filter.excluded()) {
+            BitSet bitmap = bitmaps.get(SpecialityKey.of(speciality));
+            if (bitmap != null) {
+                matching.andNot(bitmap);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Checks whether a recipe is part of a set of ordinals
+     *
+     * @param ordinals The ordinals, e.g. the result of {@link #matching(DietaryFilter)}
+     * @param recipeID Online ID of the recipe
+     * @return Whether the ordinal of the recipe is contained
+     */
+    boolean contains(BitSet ordinals, long recipeID) {
+        Integer ordinal = this.ordinals.get(recipeID);
+        return ordinal != null && ordinals.get(ordinal);
+    }
+
+    /**
+     * Provides the recipe with an ordinal
+     *
+     * @param ordinal The ordinal of the recipe
+     * @return Online ID of the recipe
+     */
+    long recipeID(int ordinal) {
+        return recipeIDs.get(ordinal);
+    }
+
+    private record SpecialityKey(String speciality, DietaryTypes type) {
+        static SpecialityKey of(DietarySpeciality speciality) {
+            return new SpecialityKey(String.join(" ", GermanNormalizer.tokens(speciality.speciality())),
+                    speciality.type());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits German text into normalized search terms. Terms are lower case, umlauts are replaced by their two letter
+ * spelling ("Käse" becomes "kaese") and all other diacritics are removed, so the spelling of a query does not have to
+ * match the spelling of the recipe exactly.
+ */
+public final class GermanNormalizer {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of("der", "die", "das", "den", "dem", "des", "ein", "eine",
+            "einen", "einem", "einer", "und", "oder", "mit", "ohne", "in", "im", "auf", "zu", "zum", "zur", "von", "vom",
+            "fuer", "bei", "aus", "an", "am", "nach");
+
+    private GermanNormalizer() {
+    }
+
+    /**
+     * Splits a text into normalized terms, leaving out stop words like articles and conjunctions
+     *
+     * @param text The text, may be null
+     * @return The normalized terms in the order they appear in the text
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String term : tokens(text)) {
+            if (!isStopWord(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Splits a text into normalized terms, including stop words
+     *
+     * @param text The text, may be null
+     * @return The normalized terms in the order they appear in the text
+     */
+    public static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        // umlauts may be stored decomposed ("a" followed by a combining diaeresis), which the replacements would miss
+        String composed = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFC);
+        String normalized = composed.toLowerCase(Locale.GERMAN)
+                .replace("ä", "ae")
+                .replace("ö", "oe")
+                .replace("ü", "ue")
+                .replace("ß", "ss");
+        if (!isAscii(normalized)) {
+            normalized = DIACRITICS.matcher(Normalizer.normalize(normalized, Normalizer.Form.NFD)).replaceAll("");
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Checks whether a normalized term is a stop word, which is not indexed
+     *
+     * @param term The normalized term
+     * @return Whether the term is a stop word
+     */
+    public static boolean isStopWord(String term) {
+        return STOP_WORDS.contains(term);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
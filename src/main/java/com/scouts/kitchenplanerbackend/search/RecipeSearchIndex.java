@@ -0,0 +1,268 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.search;
+
+import com.scouts.kitchenplanerbackend.recipedtos.DietaryFilter;
+import com.scouts.kitchenplanerbackend.recipedtos.Ingredient;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeSearchHit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the name, description, ingredient names and instructions of recipes. The terms are
+ * {@link GermanNormalizer normalized} and kept in sorted order, so every query term is matched as a prefix by a
+ * single range of the term map. Recipes can be added, replaced and removed one at a time.
+ *
+ * <p> A recipe matches a query if every query term is a prefix of one of its terms. The score of a matching recipe is
+ * the sum over all query terms of the best matching term's weight, where a term's weight grows with the importance
+ * of the fields it appears in and shrinks with the number of recipes containing it. Terms that are only matched as a
+ * prefix count less than exact matches.
+ *
+ * <p> Additionally, the dietary specialities of all recipes are kept in a {@link DietaryBitmapIndex}, so searches can
+ * be restricted to recipes fulfilling dietary constraints before the best matches are chosen.
+ */
+public final class RecipeSearchIndex {
+    private static final float NAME_WEIGHT = 4;
+    private static final float INGREDIENT_WEIGHT = 2;
+    private static final float DESCRIPTION_WEIGHT = 1;
+    private static final float INSTRUCTION_WEIGHT = 0.5f;
+    private static final double PREFIX_MATCH_FACTOR = 0.6;
+    // shorter query terms are only matched exactly, since they would be a prefix of a large part of all terms
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+    private final DietaryBitmapIndex dietaryIndex = new DietaryBitmapIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a recipe to the index, replacing the previously indexed version of the recipe
+     *
+     * @param recipe The recipe
+     */
+    public void put(Recipe recipe) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, recipe.name(), NAME_WEIGHT);
+        addTerms(terms, recipe.description(), DESCRIPTION_WEIGHT);
+        for (Ingredient ingredient : recipe.ingredients()) {
+            addTerms(terms, ingredient.name(), INGREDIENT_WEIGHT);
+        }
+        for (String instruction : recipe.instructions()) {
+            addTerms(terms, instruction, INSTRUCTION_WEIGHT);
+        }
+        // repeated occurrences of a term add less and less to its weight
+        terms.replaceAll((term, weight) -> (float) (1 + Math.log(weight)));
+
+        lock.writeLock().lock();
+        try {
+            removePostings(recipe.id());
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(recipe.id(), term.getValue());
+            }
+            documents.put(recipe.id(), terms);
+            names.put(recipe.id(), recipe.name());
+            dietaryIndex.put(recipe.id(), recipe.dietarySpecialities());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a recipe from the index
+     *
+     * @param recipeID Online ID of the recipe
+     */
+    public void remove(long recipeID) {
+        lock.writeLock().lock();
+        try {
+            removePostings(recipeID);
+            documents.remove(recipeID);
+            names.remove(recipeID);
+            dietaryIndex.remove(recipeID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes matching a query
+     *
+     * @param query The query, every term of which is matched as a prefix
+     * @param limit The maximum number of recipes to be returned
+     * @return The best matching recipes, best match first
+     */
+    public List<RecipeSearchHit> search(String query, int limit) {
+        return search(query, DietaryFilter.NONE, 0, limit);
+    }
+
+    /**
+     * Finds the recipes matching a query and fulfilling dietary constraints. Without any query terms, all recipes
+     * fulfilling the constraints match and are ordered by their ID.
+     *
+     * @param query  The query, every term of which is matched as a prefix
+     * @param filter The dietary constraints the recipes have to fulfill
+     * @param offset The number of best matching recipes to be skipped
+     * @param limit  The maximum number of recipes to be returned
+     * @return The matching recipes after the skipped ones, best match first
+     */
+    public List<RecipeSearchHit> search(String query, DietaryFilter filter, int offset, int limit) {
+        List<String> tokens = GermanNormalizer.tokens(query);
+        List<String> queryTerms = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            // the last token may be the beginning of a longer word that is no stop word
+            if (i == tokens.size() - 1 || !GermanNormalizer.isStopWord(tokens.get(i))) {
+                queryTerms.add(tokens.get(i));
+            }
+        }
+        if (limit <= 0) {
+            return List.of();
+        }
+        // the sum is clamped so that callers without a bounded offset cannot overflow it
+        int end = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+
+        lock.readLock().lock();
+        try {
+            BitSet allowed = filter.isEmpty() ? null : dietaryIndex.matching(filter);
+            if (queryTerms.isEmpty()) {
+                return list(allowed, offset, end);
+            }
+
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = match(queryTerm);
+                if (scores == null) {
+                    // later terms can only narrow the matches down, so the constraints are applied once
+                    scores = termScores;
+                    if (allowed != null) {
+                        scores.keySet().removeIf(recipeID -> !dietaryIndex.contains(allowed, recipeID));
+                    }
+                } else {
+                    Map<Long, Double> combined = new HashMap<>();
+                    for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                        Double termScore = termScores.get(score.getKey());
+                        if (termScore != null) {
+                            combined.put(score.getKey(), score.getValue() + termScore);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (offset >= scores.size()) {
+                return List.of();
+            }
+            List<RecipeSearchHit> best = best(scores, end);
+            return best.subList(offset, best.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Provides the number of indexed recipes
+     *
+     * @return The number of recipes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> match(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+        NavigableMap<String, Map<Long, Float>> matches = queryTerm.length() < MIN_PREFIX_LENGTH
+                ? postings.subMap(queryTerm, true, queryTerm, true)
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Float>> term : matches.entrySet()) {
+            double idf = Math.log(1 + (double) documents.size() / term.getValue().size());
+            double factor = term.getKey().equals(queryTerm) ? idf : idf * PREFIX_MATCH_FACTOR;
+            for (Map.Entry<Long, Float> posting : term.getValue().entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private List<RecipeSearchHit> list(BitSet allowed, int offset, int end) {
+        List<Long> recipeIDs = new ArrayList<>();
+        if (allowed == null) {
+            recipeIDs.addAll(documents.keySet());
+        } else {
+            allowed.stream().forEach(ordinal -> recipeIDs.add(dietaryIndex.recipeID(ordinal)));
+        }
+        recipeIDs.sort(null);
+        List<RecipeSearchHit> hits = new ArrayList<>();
+        for (int i = offset; i < Math.min(recipeIDs.size(), end); i++) {
+            hits.add(new RecipeSearchHit(recipeIDs.get(i), names.get(recipeIDs.get(i)), 0));
+        }
+        return hits;
+    }
+
+    private List<RecipeSearchHit> best(Map<Long, Double> scores, int limit) {
+        Comparator<RecipeSearchHit> ranking = Comparator.comparingDouble(RecipeSearchHit::score)
+                .thenComparing(Comparator.comparingLong(RecipeSearchHit::recipeID).reversed());
+        // the queue keeps the best hits found so far with the worst of them at its head
+        PriorityQueue<RecipeSearchHit> best = new PriorityQueue<>(Math.min(scores.size(), limit) + 1, ranking);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            best.add(new RecipeSearchHit(score.getKey(), names.get(score.getKey()), score.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<RecipeSearchHit> hits = new ArrayList<>(best);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    private void removePostings(long recipeID) {
+        Map<String, Float> terms = documents.get(recipeID);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> recipes = postings.get(term);
+            recipes.remove(recipeID);
+            if (recipes.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : GermanNormalizer.terms(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityDTO;
+import com.scouts.kitchenplanerbackend.planning.AllergenConflictIndex;
+import com.scouts.kitchenplanerbackend.projectdtos.MealSlotConflicts;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenPersonRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.DietarySpecialityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This service determines which allergen persons of a project can not eat the recipes planned for the meal slots
+ * they are present at
+ */
+@Service
+public class AllergenConflictService {
+    private final HeadcountService headcountService;
+    private final AllergenPersonRepository allergenPersonRepository;
+    private final AllergenRepository allergenRepository;
+    private final MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
+    private final AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
+    private final DietarySpecialityRepository dietarySpecialityRepository;
+    private final AllergenDictionary allergenDictionary;
+
+    /**
+     * Initializes all needed repositories and services for this service
+     * @param headcountService Service providing the meal slots of a project
+     * @param allergenPersonRepository Database access for allergen persons
+     * @param allergenRepository Database access for the allergens of allergen persons
+     * @param mainRecipeProjectMealRepository Database access for main recipes and their meal slots
+     * @param alternativeRecipeProjectMealRepository Database access for alternative recipes and their meal slots
+     * @param dietarySpecialityRepository Database access for the dietary specialities of recipes
+     * @param allergenDictionary Dictionary which translates allergen IDs to their names
+     */
+    @Autowired
+    public AllergenConflictService(HeadcountService headcountService,
+                                   AllergenPersonRepository allergenPersonRepository,
+                                   AllergenRepository allergenRepository,
+                                   MainRecipeProjectMealRepository mainRecipeProjectMealRepository,
+                                   AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository,
+                                   DietarySpecialityRepository dietarySpecialityRepository,
+                                   AllergenDictionary allergenDictionary) {
+        this.headcountService = headcountService;
+        this.allergenPersonRepository = allergenPersonRepository;
+        this.allergenRepository = allergenRepository;
+        this.mainRecipeProjectMealRepository = mainRecipeProjectMealRepository;
+        this.alternativeRecipeProjectMealRepository = alternativeRecipeProjectMealRepository;
+        this.dietarySpecialityRepository = dietarySpecialityRepository;
+        this.allergenDictionary = allergenDictionary;
+    }
+
+    /**
+     * Determines the allergen conflicts of every meal slot of a project. The index is built per request, since the
+     * dietary specialities of recipes can change without changing the version of the project.
+     *
+     * @param projectID Online ID of the project
+     * @return The conflicts of every meal slot with recipes, ordered by meal slot
+     */
+    @Transactional(readOnly = true)
+    public List<MealSlotConflicts> getConflicts(long projectID) {
+        List<RecipeForProject> recipes =
+                new ArrayList<>(mainRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID));
+        recipes.addAll(alternativeRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID));
+
+        Set<Long> recipeIDs = new HashSet<>();
+        for (RecipeForProject recipe : recipes) {
+            recipeIDs.add(recipe.recipeID());
+        }
+        Collection<DietarySpecialityDTO> specialities = recipeIDs.isEmpty() ? List.of()
+                : dietarySpecialityRepository.findDTOsByRecipe_IdIn(recipeIDs);
+
+        return AllergenConflictIndex.build(headcountService.getTimeline(projectID),
+                allergenPersonRepository.findStubsByProject_Id(projectID),
+                allergenRepository.findDTOsByProject_Id(projectID), specialities, allergenDictionary::name)
+                .conflicts(recipes);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.AllergenNameEntity;
+import com.scouts.kitchenplanerbackend.repositories.AllergenNameRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Translates the names of allergens and dietary specialities to their IDs in the allergen dictionary and back.
+ * Dictionary entries are never changed or removed, so both directions are cached for the lifetime of the
+ * application.
+ */
+@Component
+public class AllergenDictionary {
+    private final AllergenNameRepository allergenNameRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes all needed repositories and components for the dictionary
+     * @param allergenNameRepository Database access for the allergen dictionary
+     * @param entityManager Entity manager used to create references to dictionary entries
+     * @param transactionManager Transaction manager used to store new dictionary entries
+     */
+    @Autowired
+    public AllergenDictionary(AllergenNameRepository allergenNameRepository, EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.allergenNameRepository = allergenNameRepository;
+        this.entityManager = entityManager;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Provides the ID of an allergen, adding it to the dictionary if it is not known yet. New entries are stored in
+     * their own transaction, so the cache never contains IDs of entries that were rolled back.
+     *
+     * @param name The name of the allergen
+     * @return The ID of the allergen
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        AllergenNameEntity entity;
+        try {
+            entity = newTransaction.execute(status -> allergenNameRepository.findByName(name)
+                    .orElseGet(() -> allergenNameRepository.save(new AllergenNameEntity(name))));
+        } catch (DataIntegrityViolationException e) {
+            // the allergen was added concurrently
+            entity = newTransaction.execute(status -> allergenNameRepository.findByName(name).orElseThrow());
+        }
+        remember(entity);
+        return entity.getId();
+    }
+
+    /**
+     * Provides a reference to the dictionary entry of an allergen which can be stored in other entities without
+     * loading the entry, adding the allergen to the dictionary if it is not known yet
+     *
+     * @param name The name of the allergen
+     * @return The dictionary entry
+     */
+    public AllergenNameEntity reference(String name) {
+        return entityManager.getReference(AllergenNameEntity.class, id(name));
+    }
+
+    /**
+     * Provides the name of an allergen. If the ID is not cached, the whole dictionary is loaded at once, since it
+     * only contains a few entries.
+     *
+     * @param id The ID of the allergen
+     * @return The name of the allergen
+     * @throws NoSuchElementException When the dictionary has no entry with the given ID
+     */
+    public String name(int id) {
+        String name = names.get(id);
+        if (name == null) {
+            allergenNameRepository.findAll().forEach(this::remember);
+            name = names.get(id);
+            if (name == null) {
+                throw new NoSuchElementException("The allergen dictionary has no entry " + id);
+            }
+        }
+        return name;
+    }
+
+    private void remember(AllergenNameEntity entity) {
+        names.put(entity.getId(), entity.getName());
+        ids.put(entity.getName(), entity.getId());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
+import com.scouts.kitchenplanerbackend.planning.HeadcountTimeline;
+import com.scouts.kitchenplanerbackend.projectdtos.HeadcountGrid;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenPersonRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.PersonNumberChangeRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * This service answers how many people eat at the meal slots of a project. The numbers are compiled once per project
+ * version into a {@link HeadcountTimeline}, so a query only costs reading the current version of the project.
+ */
+@Service
+public class HeadcountService {
+    private final ProjectRepository projectRepo;
+    private final MealRepository mealRepository;
+    private final PersonNumberChangeRepository personNumberChangeRepo;
+    private final AllergenPersonRepository allergenPersonRepo;
+
+    private final ProjectVersionCache<HeadcountTimeline> timelines;
+
+    /**
+     * Initializes all needed repositories for this service
+     * @param projectRepository Database access for projects
+     * @param mealRepository Database access for meals
+     * @param personNumberChangeRepository Database access for person number changes
+     * @param allergenPersonRepository Database access for metadata of allergen persons
+     * @param maxProjects The maximum number of projects whose timeline is kept
+     */
+    @Autowired
+    public HeadcountService(ProjectRepository projectRepository, MealRepository mealRepository,
+                            PersonNumberChangeRepository personNumberChangeRepository,
+                            AllergenPersonRepository allergenPersonRepository,
+                            @Value("${kitchenplaner.headcount-cache.max-projects:500}") int maxProjects) {
+        this.projectRepo = projectRepository;
+        this.mealRepository = mealRepository;
+        this.personNumberChangeRepo = personNumberChangeRepository;
+        this.allergenPersonRepo = allergenPersonRepository;
+        this.timelines = new ProjectVersionCache<>(maxProjects, HeadcountTimeline::getVersionNumber);
+    }
+
+    /**
+     * Provides the number of people eating at a meal slot of a project
+     *
+     * @param projectID Online ID of the project
+     * @param date      The day of the meal slot
+     * @param meal      The meal of the meal slot
+     * @return The headcount
+     * @throws IllegalArgumentException When the meal slot is not part of the project
+     */
+    @Transactional(readOnly = true)
+    public int getHeadcount(long projectID, LocalDate date, String meal) {
+        return getTimeline(projectID).headcount(date, meal);
+    }
+
+    /**
+     * Provides the number of portions needed for all meal slots of a project between two meal slots, both included
+     *
+     * @param projectID Online ID of the project
+     * @param fromDate  The day of the first meal slot
+     * @param fromMeal  The meal of the first meal slot
+     * @param toDate    The day of the last meal slot
+     * @param toMeal    The meal of the last meal slot
+     * @return The sum of the headcounts of the meal slots
+     * @throws IllegalArgumentException When one of the meal slots is not part of the project
+     */
+    @Transactional(readOnly = true)
+    public long getPortions(long projectID, LocalDate fromDate, String fromMeal, LocalDate toDate, String toMeal) {
+        return getTimeline(projectID).portions(fromDate, fromMeal, toDate, toMeal);
+    }
+
+    /**
+     * Provides the headcount and the number of allergen persons of all meal slots of a project
+     *
+     * @param projectID Online ID of the project
+     * @return The numbers of all meal slots
+     */
+    @Transactional(readOnly = true)
+    public HeadcountGrid getHeadcountGrid(long projectID) {
+        HeadcountTimeline timeline = getTimeline(projectID);
+        return new HeadcountGrid(timeline.getProjectID(), timeline.getVersionNumber(), timeline.getStartDate(),
+                timeline.getMeals(), timeline.headcountGrid(), timeline.allergenPeopleGrid());
+    }
+
+    /**
+     * Provides the timeline of the current version of a project, compiling it if necessary
+     *
+     * @param projectID Online ID of the project
+     * @return The headcount timeline
+     */
+    @Transactional(readOnly = true)
+    public HeadcountTimeline getTimeline(long projectID) {
+        Optional<Long> version = projectRepo.findProjectVersionById(projectID);
+        if (version.isEmpty()) {
+            timelines.remove(projectID);
+            throw new NoSuchElementException("There is no project " + projectID);
+        }
+        HeadcountTimeline timeline = timelines.get(projectID, version.get());
+        if (timeline != null) {
+            return timeline;
+        }
+
+        ProjectEntity project = projectRepo.findById(projectID).orElseThrow();
+        timeline = HeadcountTimeline.compile(projectID, project.getProjectVersion(), project.getStartDate(),
+                project.getEndDate(), mealRepository.findNamesByProject_IdOrderBySequence(projectID),
+                personNumberChangeRepo.findStubsByProject_Id(projectID),
+                allergenPersonRepo.findStubsByProject_Id(projectID));
+        timelines.put(projectID, timeline);
+        return timeline;
+    }
+}
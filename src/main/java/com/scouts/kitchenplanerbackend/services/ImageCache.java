@@ -0,0 +1,192 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.imaging.ByteBufferResource;
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache for the content of frequently requested image files. Entries are keyed by the project or recipe together
+ * with its image version and the image size, so a new upload is never answered with the previous image: it simply
+ * is looked up with a new key. The content is kept in direct buffers outside the heap, so the cache does not
+ * increase the work of the garbage collector. The cache is bounded by the total number of cached bytes and evicts
+ * the least recently used images first. The memory of evicted images is released once their buffers are collected,
+ * so the maximum direct memory of the JVM has to leave some room above the budget of the cache.
+ */
+@Component
+public class ImageCache {
+    private final long maxBytes;
+    private final long maxImageBytes;
+
+    private final LinkedHashMap<Key, ByteBufferResource> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a new image cache
+     *
+     * @param maxBytes      The maximum number of bytes the cached images may occupy
+     * @param maxImageBytes The maximum size of a single cached image. Larger images, usually originals, are
+     *                      streamed from their files, so they do not displace many small images.
+     */
+    @Autowired
+    public ImageCache(@Value("${kitchenplaner.image-cache.max-bytes:67108864}") long maxBytes,
+                      @Value("${kitchenplaner.image-cache.max-image-bytes:2097152}") long maxImageBytes) {
+        this.maxBytes = maxBytes;
+        this.maxImageBytes = Math.min(maxImageBytes, maxBytes);
+    }
+
+    /**
+     * Provides the cached content of an image
+     *
+     * @param usedFor      Whether the image belongs to a project or a recipe
+     * @param id           Online ID of the project or recipe
+     * @param imageVersion The requested image version
+     * @param size         The requested image size
+     * @return The cached image or nothing if the image is not cached
+     */
+    public synchronized Optional<Resource> get(String usedFor, long id, long imageVersion, ImageSize size) {
+        ByteBufferResource cached = entries.get(new Key(usedFor, id, imageVersion, size));
+        if (cached == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(cached);
+    }
+
+    /**
+     * Reads an image file into the cache. Cached images of older image versions of the same project or recipe are
+     * removed from the cache. Files exceeding the maximum size of a single image are not read.
+     *
+     * @param usedFor      Whether the image belongs to a project or a recipe
+     * @param id           Online ID of the project or recipe
+     * @param imageVersion The image version of the file
+     * @param size         The image size of the file
+     * @param file         The image file
+     * @return The cached image, or a resource streaming the file if it is too large to be cached
+     * @throws IOException When the file can not be read
+     */
+    public Resource load(String usedFor, long id, long imageVersion, ImageSize size, Path file) throws IOException {
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > maxImageBytes) {
+                return new FileSystemResource(file);
+            }
+            content = ByteBuffer.allocateDirect((int) fileSize);
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // read until the buffer is full or the file ends
+            }
+            content.flip();
+        }
+        ByteBufferResource image = new ByteBufferResource(content, Files.getLastModifiedTime(file).toMillis(),
+                "cached image " + file.getFileName());
+
+        synchronized (this) {
+            Iterator<Map.Entry<Key, ByteBufferResource>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, ByteBufferResource> entry = iterator.next();
+                if (entry.getKey().belongsTo(usedFor, id) && entry.getKey().imageVersion() < imageVersion) {
+                    residentBytes -= entry.getValue().contentLength();
+                    iterator.remove();
+                }
+            }
+            ByteBufferResource previous = entries.put(new Key(usedFor, id, imageVersion, size), image);
+            if (previous != null) {
+                residentBytes -= previous.contentLength();
+            }
+            residentBytes += image.contentLength();
+            evict();
+        }
+        return image;
+    }
+
+    /**
+     * Removes all cached images of a project or recipe
+     *
+     * @param usedFor Whether the images belong to a project or a recipe
+     * @param id      Online ID of the project or recipe
+     */
+    public synchronized void evict(String usedFor, long id) {
+        entries.entrySet().removeIf(entry -> {
+            if (entry.getKey().belongsTo(usedFor, id)) {
+                residentBytes -= entry.getValue().contentLength();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Provides the hit ratio and the occupied memory of the cache
+     *
+     * @return The current statistics of the cache
+     */
+    public synchronized Statistics getStatistics() {
+        long requests = hits + misses;
+        return new Statistics(hits, misses, requests == 0 ? 0 : (double) hits / requests, evictions,
+                residentBytes, entries.size());
+    }
+
+    private void evict() {
+        Iterator<ByteBufferResource> iterator = entries.values().iterator();
+        while (residentBytes > maxBytes && iterator.hasNext()) {
+            residentBytes -= iterator.next().contentLength();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private record Key(String usedFor, long id, long imageVersion, ImageSize size) {
+        boolean belongsTo(String usedFor, long id) {
+            return this.usedFor.equals(usedFor) && this.id == id;
+        }
+    }
+
+    /**
+     * Statistics of the image cache
+     *
+     * @param hits          Number of requested images that were served from the cache
+     * @param misses        Number of requested images that were not cached
+     * @param hitRatio      Share of the requested images that were served from the cache
+     * @param evictions     Number of images removed because the cache was full
+     * @param residentBytes Number of bytes currently occupied by the cached images
+     * @param images        Number of images currently cached
+     */
+    public record Statistics(long hits, long misses, double hitRatio, long evictions, long residentBytes,
+                             int images) {
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.imaging.ImageScaler;
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the downscaled derivatives of uploaded images. Decoding a photo needs a lot of memory and time, so the
+ * derivatives are generated on a small pool of worker threads with a bounded queue instead of the request thread.
+ * Until the derivatives of an image exist, the original image is served instead. Originals whose derivatives could
+ * not be generated are remembered, so they are not scheduled again on every request. Every upload is stored under a
+ * new file name, so a remembered original stands for exactly one image version.
+ */
+@Service
+public class ImageDerivativeService {
+    private static final int MAX_FAILED_ORIGINALS = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+    private final ThreadPoolExecutor executor;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final Set<Path> failed = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, Boolean> eldest) {
+                    return size() > MAX_FAILED_ORIGINALS;
+                }
+            }));
+
+    /**
+     * Creates the worker pool for the image derivatives
+     *
+     * @param threads       Number of images whose derivatives are generated at the same time
+     * @param queueCapacity Number of images that may wait for their derivatives
+     */
+    @Autowired
+    public ImageDerivativeService(@Value("${kitchenplaner.image-derivatives.threads:2}") int threads,
+                                  @Value("${kitchenplaner.image-derivatives.queue-capacity:50}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the generation of all derivatives of an image. Images which are already scheduled or whose
+     * derivatives could not be generated before are skipped. If the queue is full, the image is skipped as well and
+     * its derivatives are scheduled again when they are requested the next time.
+     *
+     * @param original The path of the original image file
+     */
+    public void generate(Path original) {
+        if (failed.contains(original) || !pending.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeDerivatives(original);
+                } catch (IOException | RuntimeException e) {
+                    failed.add(original);
+                    logger.warn("Could not generate the derivatives of {}", original, e);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            logger.debug("Skipped the derivatives of {}, too many images are waiting", original);
+        }
+    }
+
+    /**
+     * Checks whether the derivatives of an image could not be generated, so only the original can be served
+     *
+     * @param original The path of the original image file
+     * @return Whether generating the derivatives failed
+     */
+    public boolean hasFailed(Path original) {
+        return failed.contains(original);
+    }
+
+    /**
+     * Generates all derivatives of an image on the calling thread. Every derivative is written to a temporary file
+     * first and moved in place afterwards, so a partially written derivative is never served.
+     *
+     * @param original The path of the original image file
+     * @throws IOException When the image can not be read or decoded or a derivative can not be written
+     */
+    public void writeDerivatives(Path original) throws IOException {
+        BufferedImage image = ImageIO.read(original.toFile());
+        if (image == null) {
+            // ImageIO has no reader for the format, so only the original can be served
+            throw new IOException("The image format of " + original + " can not be decoded");
+        }
+        for (ImageSize size : ImageSize.values()) {
+            if (size == ImageSize.ORIGINAL) {
+                continue;
+            }
+            image = ImageScaler.scale(image, size.getMaxEdge());
+            Path temporary = Files.createTempFile(original.getParent(), ".derivative", ".jpg");
+            try {
+                if (!ImageIO.write(image, "jpg", temporary.toFile())) {
+                    throw new IOException("No JPEG writer available");
+                }
+                Files.move(temporary, size.resolve(original), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /**
+     * Deletes all derivatives of an image
+     *
+     * @param original The path of the original image file
+     * @throws IOException When a derivative can not be deleted
+     */
+    public void deleteDerivatives(Path original) throws IOException {
+        failed.remove(original);
+        for (ImageSize size : ImageSize.values()) {
+            if (size != ImageSize.ORIGINAL) {
+                Files.deleteIfExists(size.resolve(original));
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads, discarding images that still wait for their derivatives
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
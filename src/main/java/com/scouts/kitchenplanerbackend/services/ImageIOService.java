@@ -17,10 +17,13 @@
 
 package com.scouts.kitchenplanerbackend.services;
 
+import com.scouts.kitchenplanerbackend.entities.ImageReferenceDTO;
 import com.scouts.kitchenplanerbackend.exceptions.ImageFileNotFoundException;
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
 import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
 import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -28,6 +31,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -37,14 +42,23 @@ public class ImageIOService {
 
     private final ProjectRepository projectRepository;
     private final RecipeRepository recipeRepository;
+    private final RecipeService recipeService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageCache imageCache;
 
     @Autowired
     public ImageIOService(
             ProjectRepository projectRepository,
-            RecipeRepository recipeRepository
+            RecipeRepository recipeRepository,
+            RecipeService recipeService,
+            ImageDerivativeService imageDerivativeService,
+            ImageCache imageCache
     ) {
         this.projectRepository = projectRepository;
         this.recipeRepository = recipeRepository;
+        this.recipeService = recipeService;
+        this.imageDerivativeService = imageDerivativeService;
+        this.imageCache = imageCache;
     }
 
     public long saveProjectImage(MultipartFile image, Long projectID) throws IOException {
@@ -54,7 +68,10 @@ public class ImageIOService {
 
         String fileName = filePath.subpath(filePath.getNameCount() - 1, filePath.getNameCount()).toString();
 
-        return projectRepository.updateImagePath(projectID, fileName);
+        long imageVersion = projectRepository.updateImagePath(projectID, fileName);
+        imageCache.evict("project", projectID);
+        imageDerivativeService.generate(filePath);
+        return imageVersion;
     }
 
     public long saveRecipeImage(MultipartFile image, Long recipeID) throws IOException {
@@ -64,31 +81,44 @@ public class ImageIOService {
 
         String fileName = filePath.subpath(filePath.getNameCount() - 1, filePath.getNameCount()).toString();
 
-        return recipeRepository.updateImagePath(recipeID, fileName);
+        long imageVersion = recipeRepository.updateImagePath(recipeID, fileName);
+        recipeService.recipeChanged(recipeID);
+        imageCache.evict("recipe", recipeID);
+        imageDerivativeService.generate(filePath);
+        return imageVersion;
     }
 
-    public byte[] getProjectImage(Long projectID) throws ImageFileNotFoundException, IOException {
-        String imageName = projectRepository.getImageURIById(projectID);
-
-        Path filePath = Path.of(PROJECT_DIRECTORY).resolve(imageName);
-
-        if (Files.exists(filePath)) {
-            return Files.readAllBytes(filePath);
-        } else {
-            throw new ImageFileNotFoundException(imageName, "project");
-        }
+    /**
+     * Provides the image of a project. Small images are served from the image cache, larger ones are streamed from
+     * the image file without reading them into memory.
+     *
+     * @param projectID The ID of the project
+     * @param size      The requested size of the image
+     * @return The project's image and the image version it belongs to
+     * @throws IOException                When reading the image into the cache fails
+     * @throws ImageFileNotFoundException When no image exists matching the file name stored in the project
+     * @throws NoSuchElementException     When the project does not exist
+     */
+    public VersionedImage getProjectImage(Long projectID, ImageSize size)
+            throws IOException, ImageFileNotFoundException {
+        ImageReferenceDTO reference = projectRepository.findImageReferenceById(projectID).orElseThrow();
+        return image(PROJECT_DIRECTORY, projectID, reference, size, "project");
     }
 
-    public byte[] getRecipeImage(Long recipeID) throws ImageFileNotFoundException, IOException {
-        String imageName = recipeRepository.getImageURIById(recipeID);
-
-        Path filePath = Path.of(RECIPE_DIRECTORY).resolve(imageName);
-
-        if (Files.exists(filePath)) {
-            return Files.readAllBytes(filePath);
-        } else {
-            throw new ImageFileNotFoundException(imageName, "recipe");
-        }
+    /**
+     * Provides the image of a recipe. Small images are served from the image cache, larger ones are streamed from
+     * the image file without reading them into memory.
+     *
+     * @param recipeID The ID of the recipe
+     * @param size     The requested size of the image
+     * @return The recipe's image and the image version it belongs to
+     * @throws IOException                When reading the image into the cache fails
+     * @throws ImageFileNotFoundException When no image exists matching the file name stored for the recipe
+     * @throws NoSuchElementException     When the recipe does not exist
+     */
+    public VersionedImage getRecipeImage(Long recipeID, ImageSize size) throws IOException, ImageFileNotFoundException {
+        ImageReferenceDTO reference = recipeRepository.findImageReferenceById(recipeID).orElseThrow();
+        return image(RECIPE_DIRECTORY, recipeID, reference, size, "recipe");
     }
 
     public void deleteProjectImage(Long projectID) throws ImageFileNotFoundException, IOException {
@@ -98,6 +128,8 @@ public class ImageIOService {
 
         if (Files.exists(filePath)) {
             Files.delete(filePath);
+            imageDerivativeService.deleteDerivatives(filePath);
+            imageCache.evict("project", projectID);
         } else {
             throw new ImageFileNotFoundException(imageName, "project");
         }
@@ -110,11 +142,50 @@ public class ImageIOService {
 
         if (Files.exists(filePath)) {
             Files.delete(filePath);
+            imageDerivativeService.deleteDerivatives(filePath);
+            imageCache.evict("recipe", recipeID);
         } else {
             throw new ImageFileNotFoundException(imageName, "recipe");
         }
     }
 
+    /**
+     * Provides the cache statistics of the image cache
+     *
+     * @return The current statistics of the image cache
+     */
+    public ImageCache.Statistics getCacheStatistics() {
+        return imageCache.getStatistics();
+    }
+
+    private VersionedImage image(String directory, long id, ImageReferenceDTO reference, ImageSize size,
+                                 String usedFor) throws IOException, ImageFileNotFoundException {
+        long imageVersion = reference.getImageVersion();
+        Optional<Resource> cached = imageCache.get(usedFor, id, imageVersion, size);
+        if (cached.isPresent()) {
+            return new VersionedImage(cached.get(), imageVersion, size);
+        }
+        String imageName = reference.getImageURI();
+        if (imageName == null) {
+            throw new ImageFileNotFoundException(null, usedFor);
+        }
+        Path original = Path.of(directory).resolve(imageName);
+        if (!Files.isRegularFile(original)) {
+            throw new ImageFileNotFoundException(imageName, usedFor);
+        }
+        Path derivative = size.resolve(original);
+        if (!Files.isRegularFile(derivative)) {
+            // the derivatives are not generated yet or were skipped because too many images were waiting; originals
+            // whose derivatives could not be generated are served as they are without scheduling them again
+            if (!imageDerivativeService.hasFailed(original)) {
+                imageDerivativeService.generate(original);
+            }
+            return new VersionedImage(imageCache.load(usedFor, id, imageVersion, ImageSize.ORIGINAL, original),
+                    imageVersion, ImageSize.ORIGINAL);
+        }
+        return new VersionedImage(imageCache.load(usedFor, id, imageVersion, size, derivative), imageVersion, size);
+    }
+
     private Path createFilePath(String name, String directory) throws IOException {
         String fileName = UUID.randomUUID() + "_" + name;
 
@@ -127,4 +198,15 @@ public class ImageIOService {
 
         return filePath;
     }
+
+    /**
+     * The file of an image together with its image version. Every upload stores a new file and increases the
+     * version, so the content of a file never changes for the same version and size.
+     *
+     * @param file    The image, either cached or backed by the image file
+     * @param version The image version of the project or recipe the file belongs to
+     * @param size    The size of the file, which is the original size while the requested derivative does not exist
+     */
+    public record VersionedImage(Resource file, long version, ImageSize size) {
+    }
 }
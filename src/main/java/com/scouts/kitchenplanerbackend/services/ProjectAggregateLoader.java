@@ -0,0 +1,139 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenPersonRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.PersonNumberChangeRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.UnitConversionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles a complete {@link Project} from the database. Every table of the project aggregate is read with exactly
+ * one set based query, so the number of statements needed to load a project does not depend on its size.
+ */
+@Component
+public class ProjectAggregateLoader {
+    private final ProjectRepository projectRepo;
+    private final MealRepository mealRepository;
+    private final AllergenPersonRepository allergenPersonRepo;
+    private final AllergenRepository allergenRepo;
+    private final MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
+    private final AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
+    private final UnitConversionRepository unitConversionRepository;
+    private final PersonNumberChangeRepository personNumberChangeRepo;
+    private final AllergenDictionary allergenDictionary;
+
+    /**
+     * Initializes all needed repositories for this loader
+     * @param projectRepository Database access for projects
+     * @param mealRepository Database access for meals
+     * @param allergenPersonRepository Database access for metadata of allergen persons
+     * @param allergenRepository Database access for allergens of allergen persons
+     * @param mainRecipeProjectMealRepository Database access for main recipes and their meal slots
+     * @param alternativeRecipeProjectMealRepository Database access for alternative recipes and their meal slots
+     * @param unitConversionRepository Database access for unit conversions
+     * @param personNumberChangeRepository Database access for person number changes
+     * @param allergenDictionary Dictionary which translates allergen IDs to their names
+     */
+    @Autowired
+    public ProjectAggregateLoader(ProjectRepository projectRepository, MealRepository mealRepository,
+                                  AllergenPersonRepository allergenPersonRepository,
+                                  AllergenRepository allergenRepository,
+                                  MainRecipeProjectMealRepository mainRecipeProjectMealRepository,
+                                  AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository,
+                                  UnitConversionRepository unitConversionRepository,
+                                  PersonNumberChangeRepository personNumberChangeRepository,
+                                  AllergenDictionary allergenDictionary) {
+        this.projectRepo = projectRepository;
+        this.mealRepository = mealRepository;
+        this.allergenPersonRepo = allergenPersonRepository;
+        this.allergenRepo = allergenRepository;
+        this.mainRecipeProjectMealRepository = mainRecipeProjectMealRepository;
+        this.alternativeRecipeProjectMealRepository = alternativeRecipeProjectMealRepository;
+        this.unitConversionRepository = unitConversionRepository;
+        this.personNumberChangeRepo = personNumberChangeRepository;
+        this.allergenDictionary = allergenDictionary;
+    }
+
+    /**
+     * Loads the project with the given ID including all of its meals, allergen persons, recipes, unit conversions
+     * and person number changes
+     *
+     * @param projectID Online ID of the project
+     * @return the project
+     */
+    @Transactional(readOnly = true)
+    public Project load(long projectID) {
+        ProjectEntity project = projectRepo.findById(projectID).orElseThrow();
+
+        Map<String, List<String>> allergens = new HashMap<>();
+        Map<String, List<String>> traces = new HashMap<>();
+        for (AllergenDTO allergen : allergenRepo.findDTOsByProject_Id(projectID)) {
+            Map<String, List<String>> target = Boolean.TRUE.equals(allergen.getTraces()) ? traces : allergens;
+            target.computeIfAbsent(allergen.getAllergenPerson(), name -> new ArrayList<>())
+                    .add(allergenDictionary.name(allergen.getAllergenId()));
+        }
+
+        List<AllergenPerson> allergenPeople = new ArrayList<>();
+        for (AllergenPersonStubDTO person : allergenPersonRepo.findStubsByProject_Id(projectID)) {
+            allergenPeople.add(new AllergenPerson(
+                    person.getName(),
+                    ScheduleDays.date(project.getStartDate(), person.getArrivalDay()),
+                    ScheduleDays.date(project.getStartDate(), person.getDepartureDay()),
+                    person.getArrivalMeal(),
+                    person.getDepartureMeal(),
+                    allergens.getOrDefault(person.getName(), new ArrayList<>()),
+                    traces.getOrDefault(person.getName(), new ArrayList<>())));
+        }
+
+        List<String> meals = mealRepository.findNamesByProject_IdOrderBySequence(projectID);
+
+        List<RecipeForProject> recipes =
+                new ArrayList<>(mainRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID));
+        recipes.addAll(alternativeRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID));
+
+        List<UnitConversion> unitConversions = unitConversionRepository.findUnitConversionsByProject_Id(projectID);
+
+        List<PersonNumberChange> personNumberChanges =
+                personNumberChangeRepo.findPersonNumberChangesByProject_Id(projectID);
+
+        return new Project(project.getProjectVersion(), project.getImageVersion(), project.getName(),
+                project.getId(), meals, project.getStartDate(), project.getEndDate(),
+                allergenPeople, recipes, unitConversions, personNumberChanges);
+    }
+}
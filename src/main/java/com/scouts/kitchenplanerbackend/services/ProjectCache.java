@@ -0,0 +1,180 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.SerializedProject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache for serialized projects. Entries are keyed by the project ID together with the project and image version,
+ * so an entry never has to be invalidated: a changed project simply is looked up with a new key. The cache is
+ * bounded by the total number of cached bytes and evicts the least recently used projects first.
+ */
+@Component
+public class ProjectCache {
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final boolean gzip;
+
+    private final LinkedHashMap<Key, SerializedProject> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes = 0;
+
+    /**
+     * Creates a new project cache
+     *
+     * @param objectMapper The mapper used to serialize the projects
+     * @param maxBytes     The maximum number of bytes the cached projects may occupy
+     * @param gzip         Whether the serialized projects should be stored gzip compressed
+     */
+    @Autowired
+    public ProjectCache(ObjectMapper objectMapper,
+                        @Value("${kitchenplaner.project-cache.max-bytes:67108864}") long maxBytes,
+                        @Value("${kitchenplaner.project-cache.gzip:true}") boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Provides the cached serialization of a project in the given version
+     *
+     * @param projectID          Online ID of the project
+     * @param versionNumber      The project version that is requested
+     * @param imageVersionNumber The image version that is requested
+     * @return The serialized project or nothing if this version of the project is not cached
+     */
+    public synchronized Optional<SerializedProject> get(long projectID, long versionNumber, long imageVersionNumber) {
+        return Optional.ofNullable(entries.get(new Key(projectID, versionNumber, imageVersionNumber)));
+    }
+
+    /**
+     * Serializes a project and stores it in the cache. Older versions of the same project are removed from the cache.
+     * If a newer version of the project is already cached, e.g. because a slow request serialized an outdated
+     * version, the project is serialized but not stored.
+     *
+     * @param project The project to be serialized
+     * @return The serialized project
+     * @throws IOException When the project could not be serialized
+     */
+    public SerializedProject put(Project project) throws IOException {
+        byte[] content = objectMapper.writeValueAsBytes(project);
+        if (gzip) {
+            content = compress(content);
+        }
+        SerializedProject serialized = new SerializedProject(project.id(), project.versionNumber(),
+                project.imageVersionNumber(), content, gzip);
+
+        Key key = new Key(project.id(), project.versionNumber(), project.imageVersionNumber());
+        synchronized (this) {
+            for (Key cached : entries.keySet()) {
+                if (cached.projectID() == key.projectID() && cached.isNewerThan(key)) {
+                    return serialized;
+                }
+            }
+            Iterator<Map.Entry<Key, SerializedProject>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, SerializedProject> entry = iterator.next();
+                if (entry.getKey().projectID() == project.id()) {
+                    residentBytes -= entry.getValue().content().length;
+                    iterator.remove();
+                }
+            }
+            if (content.length <= maxBytes) {
+                entries.put(key, serialized);
+                residentBytes += content.length;
+                evict();
+            }
+        }
+        return serialized;
+    }
+
+    /**
+     * Removes all cached versions of a project
+     *
+     * @param projectID Online ID of the project
+     */
+    public synchronized void evict(long projectID) {
+        entries.entrySet().removeIf(entry -> {
+            if (entry.getKey().projectID() == projectID) {
+                residentBytes -= entry.getValue().content().length;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Provides the number of bytes currently occupied by the cached projects
+     *
+     * @return The number of cached bytes
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Decompresses gzip compressed content
+     *
+     * @param content The compressed content
+     * @return The uncompressed content
+     * @throws IOException When the content is not valid gzip
+     */
+    public static byte[] decompress(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] compress(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void evict() {
+        Iterator<SerializedProject> iterator = entries.values().iterator();
+        while (residentBytes > maxBytes && iterator.hasNext()) {
+            residentBytes -= iterator.next().content().length;
+            iterator.remove();
+        }
+    }
+
+    private record Key(long projectID, long versionNumber, long imageVersionNumber) {
+        private boolean isNewerThan(Key other) {
+            return versionNumber != other.versionNumber ? versionNumber > other.versionNumber
+                    : imageVersionNumber > other.imageVersionNumber;
+        }
+    }
+}
@@ -0,0 +1,674 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.AlternativeRecipeProjectMeal;
+import com.scouts.kitchenplanerbackend.entities.projects.MainRecipeProjectMealEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.MealEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectElementType;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+import com.scouts.kitchenplanerbackend.entities.projects.UnitConversionEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.exceptions.DanglingReferenceException;
+import com.scouts.kitchenplanerbackend.exceptions.InconsistentUnitConversionException;
+import com.scouts.kitchenplanerbackend.exceptions.ProjectVersionConflictException;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenPersonRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.PersonNumberChangeRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.UnitConversionRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * This service changes single elements of a project, i.e. allergen persons, meals, recipes of meal slots, unit
+ * conversions and person number changes. Each change only touches the rows of the element itself and increases the
+ * project version, so it does not depend on the size of the project. Like complete updates, a change is only applied
+ * if the project is still at the version the change is based on, and it is recorded in the project's change journal.
+ */
+@Service
+public class ProjectElementService {
+    private final ProjectRepository projectRepo;
+    private final MealRepository mealRepository;
+    private final AllergenPersonRepository allergenPersonRepo;
+    private final AllergenRepository allergenRepo;
+    private final MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
+    private final AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
+    private final UnitConversionRepository unitConversionRepository;
+    private final PersonNumberChangeRepository personNumberChangeRepo;
+    private final RecipeRepository recipeRepository;
+    private final ProjectJournal projectJournal;
+    private final ProjectAggregateLoader projectLoader;
+    private final AllergenDictionary allergenDictionary;
+    private final EntityManager entityManager;
+
+    /**
+     * Initializes all needed repositories and components for this service
+     * @param projectRepository Database access for projects
+     * @param mealRepository Database access for meals
+     * @param allergenPersonRepository Database access for metadata of allergen persons
+     * @param allergenRepository Database access for allergens of allergen persons
+     * @param mainRecipeProjectMealRepository Database access for main recipes and their meal slots
+     * @param alternativeRecipeProjectMealRepository Database access for alternative recipes and their meal slots
+     * @param unitConversionRepository Database access for unit conversions
+     * @param personNumberChangeRepository Database access for person number changes
+     * @param recipeRepository Database access for all recipes
+     * @param projectJournal Journal which records the changes of every project version
+     * @param projectLoader Loader which reads a complete project
+     * @param allergenDictionary Dictionary which translates between allergen names and their IDs
+     * @param entityManager Entity manager used to persist and remove the rows
+     */
+    @Autowired
+    public ProjectElementService(ProjectRepository projectRepository, MealRepository mealRepository,
+                                 AllergenPersonRepository allergenPersonRepository,
+                                 AllergenRepository allergenRepository,
+                                 MainRecipeProjectMealRepository mainRecipeProjectMealRepository,
+                                 AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository,
+                                 UnitConversionRepository unitConversionRepository,
+                                 PersonNumberChangeRepository personNumberChangeRepository,
+                                 RecipeRepository recipeRepository, ProjectJournal projectJournal,
+                                 ProjectAggregateLoader projectLoader, AllergenDictionary allergenDictionary,
+                                 EntityManager entityManager) {
+        this.projectRepo = projectRepository;
+        this.mealRepository = mealRepository;
+        this.allergenPersonRepo = allergenPersonRepository;
+        this.allergenRepo = allergenRepository;
+        this.mainRecipeProjectMealRepository = mainRecipeProjectMealRepository;
+        this.alternativeRecipeProjectMealRepository = alternativeRecipeProjectMealRepository;
+        this.unitConversionRepository = unitConversionRepository;
+        this.personNumberChangeRepo = personNumberChangeRepository;
+        this.recipeRepository = recipeRepository;
+        this.projectJournal = projectJournal;
+        this.projectLoader = projectLoader;
+        this.allergenDictionary = allergenDictionary;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Adds an allergen person to a project or replaces the allergen person with the same name
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param person        The allergen person
+     * @return The new version number of the project and the number of rows that were written
+     * @throws DanglingReferenceException When the arrival or departure meal does not exist in the project
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult putAllergenPerson(long projectID, long versionNumber, AllergenPerson person) {
+        // an allergen listed as allergen and as trace is stored as trace, like in complete updates
+        Map<String, Boolean> allergens = new LinkedHashMap<>();
+        person.allergen().forEach(allergen -> allergens.put(allergen, false));
+        person.traces().forEach(trace -> allergens.put(trace, true));
+        Optional<AllergenPersonEntity> stored = allergenPersonRepo.findByProject_IdAndName(projectID, person.name());
+        if (stored.isPresent() && isUnchanged(projectID, stored.get(), person, allergens)) {
+            return unchanged(projectID, versionNumber);
+        }
+
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        MealEntity arrivalMeal = meal(projectID, person.arrivalMeal());
+        MealEntity departureMeal = meal(projectID, person.departureMeal());
+        // the version increase detached the entities loaded before
+        stored = allergenPersonRepo.findByProject_IdAndName(projectID, person.name());
+        AllergenPersonEntity entity;
+        Map<String, AllergenEntity> storedAllergens = new HashMap<>();
+        if (stored.isPresent()) {
+            entity = stored.get();
+            Collection<AllergenEntity> allergens =
+                    allergenRepo.findByProject_IdAndAllergenPerson_Name(projectID, person.name());
+            projectJournal.record(project, ProjectElementType.ALLERGEN_PERSON, false,
+                    allergenPerson(project, person.name(), allergens));
+            for (AllergenEntity allergen : allergens) {
+                storedAllergens.put(allergenDictionary.name(allergen.getAllergen().getId()), allergen);
+            }
+            counts.updated++;
+        } else {
+            entity = new AllergenPersonEntity();
+            entity.setProject(project);
+            entity.setName(person.name());
+            entityManager.persist(entity);
+            counts.inserted++;
+        }
+        entity.setArrivalDay(ScheduleDays.offsetOrNull(project.getStartDate(), person.arrivalDate()));
+        entity.setDepartureDay(ScheduleDays.offsetOrNull(project.getStartDate(), person.departureDate()));
+        entity.setArrivalMeal(arrivalMeal);
+        entity.setDepartureMeal(departureMeal);
+
+        for (Map.Entry<String, Boolean> allergen : allergens.entrySet()) {
+            AllergenEntity allergenEntity = storedAllergens.remove(allergen.getKey());
+            if (allergenEntity == null) {
+                allergenEntity = new AllergenEntity();
+                allergenEntity.setProject(project);
+                allergenEntity.setAllergenPerson(entity);
+                allergenEntity.setAllergen(allergenDictionary.reference(allergen.getKey()));
+                allergenEntity.setTraces(allergen.getValue());
+                entityManager.persist(allergenEntity);
+                counts.inserted++;
+            } else if (!Objects.equals(allergenEntity.getTraces(), allergen.getValue())) {
+                allergenEntity.setTraces(allergen.getValue());
+                counts.updated++;
+            }
+        }
+        for (AllergenEntity allergen : storedAllergens.values()) {
+            entityManager.remove(allergen);
+            counts.deleted++;
+        }
+
+        projectJournal.record(project, ProjectElementType.ALLERGEN_PERSON, true, person);
+        return result(project, counts);
+    }
+
+    /**
+     * Removes an allergen person from a project
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param name          The name of the allergen person
+     * @return The new version number of the project and the number of rows that were written
+     * @throws java.util.NoSuchElementException When the project has no allergen person with this name
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult deleteAllergenPerson(long projectID, long versionNumber, String name) {
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        AllergenPersonEntity entity = allergenPersonRepo.findByProject_IdAndName(projectID, name).orElseThrow();
+        Collection<AllergenEntity> allergens = allergenRepo.findByProject_IdAndAllergenPerson_Name(projectID, name);
+        AllergenPerson person = allergenPerson(project, name, allergens);
+        for (AllergenEntity allergen : allergens) {
+            entityManager.remove(allergen);
+            counts.deleted++;
+        }
+        entityManager.remove(entity);
+        counts.deleted++;
+
+        projectJournal.record(project, ProjectElementType.ALLERGEN_PERSON, false, person);
+        return result(project, counts);
+    }
+
+    /**
+     * Adds a meal to a project. The new meal is ordered after all existing meals.
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param name          The name of the new meal
+     * @return The new version number of the project and the number of rows that were written
+     * @throws IllegalArgumentException When the project already has a meal with this name
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult addMeal(long projectID, long versionNumber, String name) {
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        if (mealRepository.findByProject_IdAndName(projectID, name).isPresent()) {
+            throw new IllegalArgumentException("The project already has a meal " + name);
+        }
+        MealEntity meal = new MealEntity();
+        meal.setProject(project);
+        meal.setName(name);
+        meal.setSequence(mealRepository.findMaxSequenceByProject_Id(projectID).map(max -> max + 1).orElse(0));
+        entityManager.persist(meal);
+        counts.inserted++;
+
+        projectJournal.record(project, ProjectElementType.MEAL, true, name);
+        return result(project, counts);
+    }
+
+    /**
+     * Renames a meal of a project. Allergen persons, recipes and person number changes reference the meal by its
+     * key, so only the meal itself is written. The journal records the meal and all elements referencing it as removed
+     * under the old and added under the new name, like a complete update does. Otherwise an app that folds the journal
+     * would keep the references under the old name, e.g. when a meal with the old name is added again later.
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param name          The current name of the meal
+     * @param newName       The new name of the meal
+     * @return The new version number of the project and the number of rows that were written
+     * @throws java.util.NoSuchElementException When the project has no meal with this name
+     * @throws IllegalArgumentException When the project already has a meal with the new name
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult renameMeal(long projectID, long versionNumber, String name, String newName) {
+        if (name.equals(newName)) {
+            mealRepository.findByProject_IdAndName(projectID, name).orElseThrow();
+            return unchanged(projectID, versionNumber);
+        }
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        MealEntity meal = mealRepository.findByProject_IdAndName(projectID, name).orElseThrow();
+        if (mealRepository.findByProject_IdAndName(projectID, newName).isPresent()) {
+            throw new IllegalArgumentException("The project already has a meal " + newName);
+        }
+        Project before = projectLoader.load(projectID);
+        meal.setName(newName);
+        counts.updated++;
+
+        projectJournal.record(project, before, renamed(before, name, newName));
+        return result(project, counts);
+    }
+
+    private static Project renamed(Project project, String name, String newName) {
+        UnaryOperator<String> rename = meal -> name.equals(meal) ? newName : meal;
+        return new Project(project.versionNumber(), project.imageVersionNumber(), project.name(), project.id(),
+                project.meals().stream().map(rename).toList(), project.startDate(), project.endDate(),
+                project.allergenPeople().stream().map(person -> new AllergenPerson(person.name(),
+                        person.arrivalDate(), person.departureDate(), rename.apply(person.arrivalMeal()),
+                        rename.apply(person.departureMeal()), person.allergen(), person.traces())).toList(),
+                project.recipes().stream().map(recipe -> new RecipeForProject(recipe.date(),
+                        rename.apply(recipe.meal()), recipe.recipeID(), recipe.mainRecipe())).toList(),
+                project.unitConversions(),
+                project.personNumberChange().stream().map(change -> new PersonNumberChange(change.date(),
+                        rename.apply(change.meal()), change.differenceBefore())).toList());
+    }
+
+    /**
+     * Removes a meal from a project. Meals that are still used by allergen persons, recipes or person number
+     * changes can not be removed.
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param name          The name of the meal
+     * @return The new version number of the project and the number of rows that were written
+     * @throws java.util.NoSuchElementException When the project has no meal with this name
+     * @throws IllegalArgumentException When the meal is still used
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult deleteMeal(long projectID, long versionNumber, String name) {
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        MealEntity meal = mealRepository.findByProject_IdAndName(projectID, name).orElseThrow();
+        if (mealRepository.isUsedByProject_IdAndName(projectID, name)) {
+            throw new IllegalArgumentException("The meal " + name + " is still used in the project");
+        }
+        entityManager.remove(meal);
+        counts.deleted++;
+
+        projectJournal.record(project, ProjectElementType.MEAL, false, name);
+        return result(project, counts);
+    }
+
+    /**
+     * Adds a recipe to a meal slot of a project. A main recipe replaces the current main recipe of the meal slot.
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param recipe        The recipe and its meal slot
+     * @return The new version number of the project and the number of rows that were written
+     * @throws DanglingReferenceException When the meal or the recipe does not exist
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult putRecipe(long projectID, long versionNumber, RecipeForProject recipe) {
+        int day = ScheduleDays.offset(projectRepo.findById(projectID).orElseThrow().getStartDate(), recipe.date());
+        boolean unchanged = recipe.mainRecipe()
+                ? mainRecipeProjectMealRepository.findByProject_IdAndMeal_NameAndDay(projectID, recipe.meal(), day)
+                        .filter(main -> main.getRecipe().getId() == recipe.recipeID()).isPresent()
+                : alternativeRecipeProjectMealRepository.findByProject_IdAndMeal_NameAndDayAndRecipe_Id(projectID,
+                        recipe.meal(), day, recipe.recipeID()).isPresent();
+        if (unchanged) {
+            return unchanged(projectID, versionNumber);
+        }
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        MealEntity meal = meal(projectID, recipe.meal());
+        RecipeEntity recipeEntity = recipe(recipe.recipeID());
+
+        if (recipe.mainRecipe()) {
+            Optional<MainRecipeProjectMealEntity> stored = mainRecipeProjectMealRepository
+                    .findByProject_IdAndMeal_NameAndDay(projectID, recipe.meal(), day);
+            if (stored.isPresent()) {
+                MainRecipeProjectMealEntity entity = stored.get();
+                projectJournal.record(project, ProjectElementType.RECIPE, false,
+                        new RecipeForProject(recipe.date(), recipe.meal(), entity.getRecipe().getId(), true));
+                entity.setRecipe(recipeEntity);
+                counts.updated++;
+            } else {
+                MainRecipeProjectMealEntity entity = new MainRecipeProjectMealEntity();
+                entity.setProject(project);
+                entity.setMeal(meal);
+                entity.setDay(day);
+                entity.setRecipe(recipeEntity);
+                entityManager.persist(entity);
+                counts.inserted++;
+            }
+        } else {
+            AlternativeRecipeProjectMeal entity = new AlternativeRecipeProjectMeal();
+            entity.setProject(project);
+            entity.setMeal(meal);
+            entity.setDay(day);
+            entity.setRecipe(recipeEntity);
+            entityManager.persist(entity);
+            counts.inserted++;
+        }
+
+        projectJournal.record(project, ProjectElementType.RECIPE, true, recipe);
+        return result(project, counts);
+    }
+
+    /**
+     * Removes a recipe from a meal slot of a project
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param recipe        The recipe and its meal slot
+     * @return The new version number of the project and the number of rows that were written
+     * @throws java.util.NoSuchElementException When the recipe is not used for the meal slot
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult deleteRecipe(long projectID, long versionNumber, RecipeForProject recipe) {
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        int day = ScheduleDays.offset(project.getStartDate(), recipe.date());
+        Object entity;
+        if (recipe.mainRecipe()) {
+            entity = mainRecipeProjectMealRepository
+                    .findByProject_IdAndMeal_NameAndDay(projectID, recipe.meal(), day)
+                    .filter(main -> main.getRecipe().getId() == recipe.recipeID())
+                    .orElseThrow();
+        } else {
+            entity = alternativeRecipeProjectMealRepository.findByProject_IdAndMeal_NameAndDayAndRecipe_Id(
+                    projectID, recipe.meal(), day, recipe.recipeID()).orElseThrow();
+        }
+        entityManager.remove(entity);
+        counts.deleted++;
+
+        projectJournal.record(project, ProjectElementType.RECIPE, false, recipe);
+        return result(project, counts);
+    }
+
+    /**
+     * Adds a unit conversion to a project or replaces the factor of an existing conversion between the same units
+     * for the same ingredient. A conversion without an ingredient is stored as a general conversion.
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param change        The unit conversion
+     * @return The new version number of the project and the number of rows that were written
+     * @throws InconsistentUnitConversionException When the conversion contradicts the other conversions of the
+     *                                             project
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult putUnitConversion(long projectID, long versionNumber, UnitConversion change) {
+        // the ingredient is part of the primary key, so general conversions are stored with an empty ingredient
+        UnitConversion conversion = new UnitConversion(change.startUnit(), change.endUnit(),
+                UnitConversionGraph.ingredient(change.ingredient()), change.factor());
+        Optional<UnitConversionEntity> stored = unitConversionRepository
+                .findByProject_IdAndSourceUnitAndDestinationUnitAndIngredient(projectID, conversion.startUnit(),
+                        conversion.endUnit(), conversion.ingredient());
+        if (stored.isPresent() && stored.get().getFactor() == conversion.factor()) {
+            return unchanged(projectID, versionNumber);
+        }
+        List<UnitConversion> conversions = new ArrayList<>();
+        for (UnitConversion stored : unitConversionRepository.findUnitConversionsByProject_Id(projectID)) {
+            if (!Objects.equals(stored.startUnit(), conversion.startUnit())
+                    || !Objects.equals(stored.endUnit(), conversion.endUnit())
+                    || !UnitConversionGraph.ingredient(stored.ingredient()).equals(conversion.ingredient())) {
+                conversions.add(stored);
+            }
+        }
+        conversions.add(conversion);
+        UnitConversionGraph.validate(conversions);
+
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        // the version increase detached the entities loaded before
+        stored = unitConversionRepository.findByProject_IdAndSourceUnitAndDestinationUnitAndIngredient(projectID,
+                conversion.startUnit(), conversion.endUnit(), conversion.ingredient());
+        if (stored.isPresent()) {
+            UnitConversionEntity entity = stored.get();
+            projectJournal.record(project, ProjectElementType.UNIT_CONVERSION, false, new UnitConversion(
+                    entity.getSourceUnit(), entity.getDestinationUnit(), entity.getIngredient(), entity.getFactor()));
+            entity.setFactor(conversion.factor());
+            counts.updated++;
+        } else {
+            UnitConversionEntity entity = new UnitConversionEntity();
+            entity.setProject(project);
+            entity.setSourceUnit(conversion.startUnit());
+            entity.setDestinationUnit(conversion.endUnit());
+            entity.setIngredient(conversion.ingredient());
+            entity.setFactor(conversion.factor());
+            entityManager.persist(entity);
+            counts.inserted++;
+        }
+
+        projectJournal.record(project, ProjectElementType.UNIT_CONVERSION, true, conversion);
+        return result(project, counts);
+    }
+
+    /**
+     * Removes a unit conversion from a project
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param startUnit     The unit the conversion converts from
+     * @param endUnit       The unit the conversion converts to
+     * @param ingredient    The ingredient the conversion is specific to, null or blank for a general conversion
+     * @return The new version number of the project and the number of rows that were written
+     * @throws java.util.NoSuchElementException When the project has no such conversion
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult deleteUnitConversion(long projectID, long versionNumber, String startUnit,
+                                                    String endUnit, String ingredient) {
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        UnitConversionEntity entity = unitConversionRepository
+                .findByProject_IdAndSourceUnitAndDestinationUnitAndIngredient(projectID, startUnit, endUnit,
+                        UnitConversionGraph.ingredient(ingredient))
+                .orElseThrow();
+        entityManager.remove(entity);
+        counts.deleted++;
+
+        projectJournal.record(project, ProjectElementType.UNIT_CONVERSION, false, new UnitConversion(
+                entity.getSourceUnit(), entity.getDestinationUnit(), entity.getIngredient(), entity.getFactor()));
+        return result(project, counts);
+    }
+
+    /**
+     * Sets how many persons arrive or leave before a meal slot of a project
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param change        The person number change
+     * @return The new version number of the project and the number of rows that were written
+     * @throws DanglingReferenceException When the meal does not exist in the project
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult putPersonNumberChange(long projectID, long versionNumber, PersonNumberChange change) {
+        int day = ScheduleDays.offset(projectRepo.findById(projectID).orElseThrow().getStartDate(), change.date());
+        if (personNumberChangeRepo.findByProject_IdAndMeal_NameAndDay(projectID, change.meal(), day)
+                .filter(stored -> stored.getDifferenceBefore() == change.differenceBefore()).isPresent()) {
+            return unchanged(projectID, versionNumber);
+        }
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        MealEntity meal = meal(projectID, change.meal());
+        Optional<PersonNumberChangeEntity> stored =
+                personNumberChangeRepo.findByProject_IdAndMeal_NameAndDay(projectID, change.meal(), day);
+        if (stored.isPresent()) {
+            PersonNumberChangeEntity entity = stored.get();
+            projectJournal.record(project, ProjectElementType.PERSON_NUMBER_CHANGE, false,
+                    new PersonNumberChange(change.date(), change.meal(), entity.getDifferenceBefore()));
+            entity.setDifferenceBefore(change.differenceBefore());
+            counts.updated++;
+        } else {
+            PersonNumberChangeEntity entity = new PersonNumberChangeEntity();
+            entity.setProject(project);
+            entity.setMeal(meal);
+            entity.setDay(day);
+            entity.setDifferenceBefore(change.differenceBefore());
+            entityManager.persist(entity);
+            counts.inserted++;
+        }
+
+        projectJournal.record(project, ProjectElementType.PERSON_NUMBER_CHANGE, true, change);
+        return result(project, counts);
+    }
+
+    /**
+     * Removes the person number change before a meal slot of a project
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the change is based on
+     * @param date          The day of the meal slot
+     * @param meal          The meal of the meal slot
+     * @return The new version number of the project and the number of rows that were written
+     * @throws java.util.NoSuchElementException When the number of persons does not change before the meal slot
+     * @throws ProjectVersionConflictException When the project is not at the given version anymore
+     */
+    @Transactional
+    public ProjectUpdateResult deletePersonNumberChange(long projectID, long versionNumber, LocalDate date,
+                                                        String meal) {
+        ProjectEntity project = increaseVersion(projectID, versionNumber);
+        RowCounts counts = new RowCounts();
+        PersonNumberChangeEntity entity = personNumberChangeRepo
+                .findByProject_IdAndMeal_NameAndDay(projectID, meal, ScheduleDays.offset(project.getStartDate(), date))
+                .orElseThrow();
+        entityManager.remove(entity);
+        counts.deleted++;
+
+        projectJournal.record(project, ProjectElementType.PERSON_NUMBER_CHANGE, false,
+                new PersonNumberChange(date, meal, entity.getDifferenceBefore()));
+        return result(project, counts);
+    }
+
+    /**
+     * Increases the version of the project if it is still at the version the change is based on. This happens
+     * before the change itself, so concurrent changes of the same project are serialized on the project row.
+     */
+    private ProjectEntity increaseVersion(long projectID, long versionNumber) {
+        if (projectRepo.increaseProjectVersionIfVersion(projectID, versionNumber) == 0) {
+            long currentVersion = projectRepo.findProjectVersionById(projectID).orElseThrow();
+            throw new ProjectVersionConflictException(projectID, versionNumber, currentVersion);
+        }
+        return projectRepo.findById(projectID).orElseThrow();
+    }
+
+    /**
+     * Provides the result of a change that leaves the project as it is. The project version is not increased, since
+     * a version without journal entries would only make the apps sync for nothing, but the change still has to be
+     * based on the current version.
+     */
+    private ProjectUpdateResult unchanged(long projectID, long versionNumber) {
+        long currentVersion = projectRepo.findProjectVersionById(projectID).orElseThrow();
+        if (currentVersion != versionNumber) {
+            throw new ProjectVersionConflictException(projectID, versionNumber, currentVersion);
+        }
+        return new ProjectUpdateResult(versionNumber, 0, 0, 0);
+    }
+
+    /**
+     * Checks whether a stored allergen person already has the arrival, departure and allergens of the given person
+     */
+    private boolean isUnchanged(long projectID, AllergenPersonEntity entity, AllergenPerson person,
+                                Map<String, Boolean> allergens) {
+        LocalDate startDate = projectRepo.findById(projectID).orElseThrow().getStartDate();
+        Integer arrivalDay = ScheduleDays.offsetOrNull(startDate, person.arrivalDate());
+        Integer departureDay = ScheduleDays.offsetOrNull(startDate, person.departureDate());
+        if (!Objects.equals(entity.getArrivalDay(), arrivalDay)
+                || !Objects.equals(entity.getDepartureDay(), departureDay)
+                || !Objects.equals(mealName(entity.getArrivalMeal()), person.arrivalMeal())
+                || !Objects.equals(mealName(entity.getDepartureMeal()), person.departureMeal())) {
+            return false;
+        }
+        Map<String, Boolean> storedAllergens = new HashMap<>();
+        for (AllergenEntity allergen : allergenRepo.findByProject_IdAndAllergenPerson_Name(projectID,
+                person.name())) {
+            storedAllergens.put(allergenDictionary.name(allergen.getAllergen().getId()),
+                    Boolean.TRUE.equals(allergen.getTraces()));
+        }
+        return storedAllergens.equals(allergens);
+    }
+
+    private ProjectUpdateResult result(ProjectEntity project, RowCounts counts) {
+        entityManager.flush();
+        // the version increase of the project row itself counts as one updated row
+        return new ProjectUpdateResult(project.getProjectVersion(), counts.inserted, counts.updated + 1,
+                counts.deleted);
+    }
+
+    private MealEntity meal(long projectID, String name) {
+        return mealRepository.findByProject_IdAndName(projectID, name)
+                .orElseThrow(() -> new DanglingReferenceException(List.of("meal " + name)));
+    }
+
+    private RecipeEntity recipe(long recipeID) {
+        return recipeRepository.findById(recipeID)
+                .orElseThrow(() -> new DanglingReferenceException(List.of("recipe " + recipeID)));
+    }
+
+    private AllergenPerson allergenPerson(ProjectEntity project, String name,
+                                          Collection<AllergenEntity> allergenEntities) {
+        AllergenPersonStubDTO stub =
+                allergenPersonRepo.findStubByProject_IdAndName(project.getId(), name).orElseThrow();
+        List<String> allergens = new ArrayList<>();
+        List<String> traces = new ArrayList<>();
+        for (AllergenEntity allergen : allergenEntities) {
+            (Boolean.TRUE.equals(allergen.getTraces()) ? traces : allergens)
+                    .add(allergenDictionary.name(allergen.getAllergen().getId()));
+        }
+        return new AllergenPerson(stub.getName(), ScheduleDays.date(project.getStartDate(), stub.getArrivalDay()),
+                ScheduleDays.date(project.getStartDate(), stub.getDepartureDay()),
+                stub.getArrivalMeal(), stub.getDepartureMeal(), allergens, traces);
+    }
+
+    private static String mealName(MealEntity meal) {
+        return meal == null ? null : meal.getName();
+    }
+
+    private static final class RowCounts {
+        private int inserted = 0;
+        private int updated = 0;
+        private int deleted = 0;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectChangeEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectElementType;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectChanges;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectDelta;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.projects.MealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.ProjectChangeRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the change journal of the projects. For every project version the journal stores which elements were added
+ * to and removed from the project, so the app can be brought up to date without downloading the whole project. Only
+ * the changes of the most recent versions are retained; older entries are compacted away.
+ */
+@Component
+public class ProjectJournal {
+    private final ProjectChangeRepository changeRepository;
+    private final ProjectRepository projectRepo;
+    private final MealRepository mealRepository;
+    private final ProjectAggregateLoader projectLoader;
+    private final ObjectMapper objectMapper;
+    private final long retainedVersions;
+
+    /**
+     * Creates a new project journal
+     *
+     * @param changeRepository  Database access for the journal entries
+     * @param projectRepository Database access for projects
+     * @param mealRepository    Database access for meals
+     * @param projectLoader     Loader which assembles complete projects when the journal can not be used
+     * @param objectMapper      The mapper used to serialize the journaled elements
+     * @param retainedVersions  The number of project versions whose changes are kept in the journal
+     */
+    @Autowired
+    public ProjectJournal(ProjectChangeRepository changeRepository, ProjectRepository projectRepository,
+                          MealRepository mealRepository, ProjectAggregateLoader projectLoader,
+                          ObjectMapper objectMapper,
+                          @Value("${kitchenplaner.project-journal.retained-versions:100}") long retainedVersions) {
+        this.changeRepository = changeRepository;
+        this.projectRepo = projectRepository;
+        this.mealRepository = mealRepository;
+        this.projectLoader = projectLoader;
+        this.objectMapper = objectMapper;
+        this.retainedVersions = retainedVersions;
+    }
+
+    /**
+     * Records all differences between two states of a project as changes of the current project version
+     *
+     * @param project The project entity, already carrying the new project version
+     * @param before  The project before the update
+     * @param after   The project after the update
+     */
+    @Transactional
+    public void record(ProjectEntity project, Project before, Project after) {
+        List<ProjectChangeEntity> changes = new ArrayList<>();
+        diff(changes, project, ProjectElementType.ALLERGEN_PERSON, before.allergenPeople(), after.allergenPeople());
+        diff(changes, project, ProjectElementType.MEAL, before.meals(), after.meals());
+        diff(changes, project, ProjectElementType.RECIPE, before.recipes(), after.recipes());
+        diff(changes, project, ProjectElementType.UNIT_CONVERSION, before.unitConversions(),
+                after.unitConversions());
+        diff(changes, project, ProjectElementType.PERSON_NUMBER_CHANGE, before.personNumberChange(),
+                after.personNumberChange());
+        changeRepository.saveAll(changes);
+        compact(project);
+    }
+
+    /**
+     * Records that a single element was added to or removed from a project with the current project version
+     *
+     * @param project     The project entity, already carrying the new project version
+     * @param elementType The kind of the element
+     * @param added       Whether the element was added (or removed)
+     * @param element     The element in the representation used by the controllers and services
+     */
+    @Transactional
+    public void record(ProjectEntity project, ProjectElementType elementType, boolean added, Object element) {
+        changeRepository.save(change(project, elementType, added, serialize(element)));
+        compact(project);
+    }
+
+    /**
+     * Provides all changes of a project since the given version. If the journal does not reach back to that version
+     * anymore, the complete current project is provided instead.
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The version of the project the app has
+     * @return The changes since that version
+     */
+    @Transactional(readOnly = true)
+    public ProjectDelta getChangesSince(long projectID, long versionNumber) {
+        ProjectEntity project = projectRepo.findById(projectID).orElseThrow();
+        long currentVersion = project.getProjectVersion();
+        if (versionNumber < project.getJournalStartVersion() || versionNumber > currentVersion) {
+            Project snapshot = projectLoader.load(projectID);
+            return new ProjectDelta(projectID, versionNumber, snapshot.versionNumber(), snapshot.imageVersionNumber(),
+                    snapshot.name(), snapshot.startDate(), snapshot.endDate(), snapshot.meals(), null, null,
+                    snapshot);
+        }
+
+        Map<ProjectElementType, Set<String>> added = new EnumMap<>(ProjectElementType.class);
+        Map<ProjectElementType, Set<String>> removed = new EnumMap<>(ProjectElementType.class);
+        for (ProjectElementType type : ProjectElementType.values()) {
+            added.put(type, new LinkedHashSet<>());
+            removed.put(type, new LinkedHashSet<>());
+        }
+        for (ProjectChangeEntity change :
+                changeRepository.findByProject_IdAndProjectVersionBetween(projectID, versionNumber, currentVersion)) {
+            // an element that is added and removed again (or vice versa) in between is not a change for the app
+            Set<String> same = change.isAdded() ? added.get(change.getElementType())
+                    : removed.get(change.getElementType());
+            Set<String> opposite = change.isAdded() ? removed.get(change.getElementType())
+                    : added.get(change.getElementType());
+            if (!opposite.remove(change.getElement())) {
+                same.add(change.getElement());
+            }
+        }
+
+        return new ProjectDelta(projectID, versionNumber, currentVersion, project.getImageVersion(),
+                project.getName(), project.getStartDate(), project.getEndDate(),
+                mealRepository.findNamesByProject_IdOrderBySequence(projectID), toChanges(added), toChanges(removed),
+                null);
+    }
+
+    private void diff(List<ProjectChangeEntity> changes, ProjectEntity project, ProjectElementType elementType,
+                      Collection<?> before, Collection<?> after) {
+        Set<String> old = serialize(before);
+        Set<String> current = serialize(after);
+        for (String element : current) {
+            if (!old.contains(element)) {
+                changes.add(change(project, elementType, true, element));
+            }
+        }
+        for (String element : old) {
+            if (!current.contains(element)) {
+                changes.add(change(project, elementType, false, element));
+            }
+        }
+    }
+
+    private ProjectChangeEntity change(ProjectEntity project, ProjectElementType elementType, boolean added,
+                                       String element) {
+        ProjectChangeEntity change = new ProjectChangeEntity();
+        change.setProject(project);
+        change.setProjectVersion(project.getProjectVersion());
+        change.setElementType(elementType);
+        change.setAdded(added);
+        change.setElement(element);
+        return change;
+    }
+
+    private void compact(ProjectEntity project) {
+        long journalStart = project.getProjectVersion() - retainedVersions;
+        if (journalStart > project.getJournalStartVersion()) {
+            changeRepository.deleteByProject_IdAndProjectVersionLessThanEqual(project.getId(), journalStart);
+            projectRepo.raiseJournalStartVersion(project.getId(), journalStart);
+        }
+    }
+
+    private ProjectChanges toChanges(Map<ProjectElementType, Set<String>> elements) {
+        return new ProjectChanges(
+                deserialize(elements.get(ProjectElementType.ALLERGEN_PERSON), AllergenPerson.class),
+                deserialize(elements.get(ProjectElementType.MEAL), String.class),
+                deserialize(elements.get(ProjectElementType.RECIPE), RecipeForProject.class),
+                deserialize(elements.get(ProjectElementType.UNIT_CONVERSION), UnitConversion.class),
+                deserialize(elements.get(ProjectElementType.PERSON_NUMBER_CHANGE), PersonNumberChange.class));
+    }
+
+    private Set<String> serialize(Collection<?> elements) {
+        Set<String> serialized = new LinkedHashSet<>();
+        for (Object element : elements) {
+            serialized.add(serialize(element));
+        }
+        return serialized;
+    }
+
+    private String serialize(Object element) {
+        try {
+            return objectMapper.writeValueAsString(canonical(element));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Brings the nested lists of an element into a fixed order. Journal entries are matched by their serialization,
+     * but the allergens of a person are loaded and sent in no particular order, so an unchanged person would
+     * otherwise be journaled as removed and added again. For the same reason, general unit conversions are always
+     * journaled with the empty ingredient they are stored with.
+     */
+    private static Object canonical(Object element) {
+        if (element instanceof AllergenPerson person) {
+            return new AllergenPerson(person.name(), person.arrivalDate(), person.departureDate(),
+                    person.arrivalMeal(), person.departureMeal(), sorted(person.allergen()), sorted(person.traces()));
+        }
+        if (element instanceof UnitConversion conversion) {
+            return new UnitConversion(conversion.startUnit(), conversion.endUnit(),
+                    UnitConversionGraph.ingredient(conversion.ingredient()), conversion.factor());
+        }
+        return element;
+    }
+
+    private static List<String> sorted(List<String> names) {
+        if (names == null) {
+            return null;
+        }
+        return names.stream().sorted(Comparator.nullsFirst(Comparator.naturalOrder())).toList();
+    }
+
+    private <T> List<T> deserialize(Collection<String> elements, Class<T> type) {
+        List<T> deserialized = new ArrayList<>();
+        try {
+            for (String element : elements) {
+                deserialized.add(objectMapper.readValue(element, type));
+            }
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return deserialized;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.exceptions.DanglingReferenceException;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the meals and recipes a project refers to. All references of the project are checked at once, before
+ * anything of the project is written, and the recipes are fetched with a single query.
+ */
+public class ProjectReferenceIndex {
+    private final Map<Long, RecipeEntity> recipes;
+
+    private ProjectReferenceIndex(Map<Long, RecipeEntity> recipes) {
+        this.recipes = recipes;
+    }
+
+    /**
+     * Resolves all references of a project
+     *
+     * @param project          The project whose references should be resolved
+     * @param recipeRepository Database access for all recipes
+     * @return The index of all referenced recipes
+     * @throws DanglingReferenceException When the project refers to meals it does not contain or to recipes that
+     *                                    do not exist
+     * @throws IllegalArgumentException   When the project contains a meal name more than once
+     */
+    public static ProjectReferenceIndex of(Project project, RecipeRepository recipeRepository) {
+        Set<String> meals = new HashSet<>();
+        List<String> duplicateMeals = new ArrayList<>();
+        for (String meal : project.meals()) {
+            if (!meals.add(meal)) {
+                duplicateMeals.add(meal);
+            }
+        }
+        if (!duplicateMeals.isEmpty()) {
+            throw new IllegalArgumentException("The project contains these meals more than once: "
+                    + String.join(", ", duplicateMeals));
+        }
+
+        Set<Long> recipeIDs = new HashSet<>();
+        for (RecipeForProject recipe : project.recipes()) {
+            recipeIDs.add(recipe.recipeID());
+        }
+        Map<Long, RecipeEntity> recipes = new HashMap<>();
+        for (RecipeEntity recipe : recipeRepository.findAllById(recipeIDs)) {
+            recipes.put(recipe.getId(), recipe);
+        }
+
+        List<String> dangling = new ArrayList<>();
+        for (AllergenPerson person : project.allergenPeople()) {
+            checkMeal(dangling, meals, person.arrivalMeal(), "arrival meal of " + person.name());
+            checkMeal(dangling, meals, person.departureMeal(), "departure meal of " + person.name());
+        }
+        for (RecipeForProject recipe : project.recipes()) {
+            String slot = recipe.meal() + " on " + recipe.date();
+            checkMeal(dangling, meals, recipe.meal(), "meal of recipe " + recipe.recipeID());
+            if (!recipes.containsKey(recipe.recipeID())) {
+                dangling.add("recipe " + recipe.recipeID() + " used for " + slot);
+            }
+        }
+        for (PersonNumberChange change : project.personNumberChange()) {
+            checkMeal(dangling, meals, change.meal(), "meal of person number change on " + change.date());
+        }
+        if (!dangling.isEmpty()) {
+            throw new DanglingReferenceException(dangling);
+        }
+        return new ProjectReferenceIndex(recipes);
+    }
+
+    /**
+     * Provides a referenced recipe
+     *
+     * @param recipeID ID of the recipe
+     * @return The recipe entity
+     */
+    public RecipeEntity recipe(long recipeID) {
+        return recipes.get(recipeID);
+    }
+
+    private static void checkMeal(List<String> dangling, Set<String> meals, String meal, String usage) {
+        if (!meals.contains(meal)) {
+            dangling.add("meal " + meal + " (" + usage + ")");
+        }
+    }
+}
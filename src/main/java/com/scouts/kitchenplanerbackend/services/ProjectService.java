@@ -16,37 +16,27 @@
 
 package com.scouts.kitchenplanerbackend.services;
 
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
 import com.scouts.kitchenplanerbackend.entities.projects.ProjectStubDTO;
-import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
-import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.exceptions.DanglingReferenceException;
+import com.scouts.kitchenplanerbackend.exceptions.InconsistentUnitConversionException;
+import com.scouts.kitchenplanerbackend.exceptions.ProjectVersionConflictException;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
 import com.scouts.kitchenplanerbackend.projectdtos.Project;
-import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
-import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
-import com.scouts.kitchenplanerbackend.entities.projects.AllergenEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.AlternativeRecipeProjectMeal;
-import com.scouts.kitchenplanerbackend.entities.projects.MainRecipeProjectMealEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.MealEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
-import com.scouts.kitchenplanerbackend.entities.projects.UnitConversionEntity;
-import com.scouts.kitchenplanerbackend.repositories.projects.AllergenPersonRepository;
-import com.scouts.kitchenplanerbackend.repositories.projects.AllergenRepository;
-import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
-import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
-import com.scouts.kitchenplanerbackend.repositories.projects.MealRepository;
-import com.scouts.kitchenplanerbackend.repositories.projects.PersonNumberChangeRepository;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectDelta;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.SerializedProject;
 import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
-import com.scouts.kitchenplanerbackend.repositories.projects.UnitConversionRepository;
 import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * This service provides methods to store, get and update a project. It also provides all project stubs for a user
@@ -54,46 +44,31 @@ import java.util.List;
 @Service
 public class ProjectService {
     private final ProjectRepository projectRepo;
-    private final MealRepository mealRepository;
-
-    private final AllergenPersonRepository allergenPersonRepo;
-
-    private final AllergenRepository allergenRepo;
-    private final MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
     private final RecipeRepository recipeRepository;
-    private final AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
-    private final UnitConversionRepository unitConversionRepository;
-    private final PersonNumberChangeRepository personNumberChangeRepo;
+    private final ProjectAggregateLoader projectLoader;
+    private final ProjectUpdater projectUpdater;
+    private final ProjectCache projectCache;
+    private final ProjectJournal projectJournal;
 
     /**
-     * Initializes all needed repositories for this service
+     * Initializes all needed repositories and components for this service
      * @param projectRepository Database access for projects
-     * @param mealRepository Database access for meals
-     * @param allergenPersonRepository Database access for metadata of allergen persons
-     * @param allergenRepository Database access for allergens of allergen persons
-     * @param mainRecipeProjectMealRepository Database access for main recipes and their meal slots
      * @param recipeRepository Database access for all recipes
-     * @param alternativeRecipeProjectMealRepository Database access for alternative recipes and their meal slots
-     * @param unitConversionRepository Database access for unit conversions
-     * @param personNumberChangeRepository Database access for person number changes
+     * @param projectLoader Loader which assembles complete projects from the database
+     * @param projectUpdater Updater which writes the changed parts of a project to the database
+     * @param projectCache Cache for serialized projects
+     * @param projectJournal Journal which records the changes of every project version
      */
     @Autowired
-    public ProjectService(ProjectRepository projectRepository, MealRepository mealRepository,
-                          AllergenPersonRepository allergenPersonRepository, AllergenRepository allergenRepository,
-                          MainRecipeProjectMealRepository mainRecipeProjectMealRepository,
-                          RecipeRepository recipeRepository,
-                          AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository,
-                          UnitConversionRepository unitConversionRepository,
-                          PersonNumberChangeRepository personNumberChangeRepository) {
+    public ProjectService(ProjectRepository projectRepository, RecipeRepository recipeRepository,
+                          ProjectAggregateLoader projectLoader, ProjectUpdater projectUpdater,
+                          ProjectCache projectCache, ProjectJournal projectJournal) {
         this.projectRepo = projectRepository;
-        this.mealRepository = mealRepository;
-        this.allergenPersonRepo = allergenPersonRepository;
-        this.allergenRepo = allergenRepository;
-        this.mainRecipeProjectMealRepository = mainRecipeProjectMealRepository;
         this.recipeRepository = recipeRepository;
-        this.alternativeRecipeProjectMealRepository = alternativeRecipeProjectMealRepository;
-        this.unitConversionRepository = unitConversionRepository;
-        this.personNumberChangeRepo = personNumberChangeRepository;
+        this.projectLoader = projectLoader;
+        this.projectUpdater = projectUpdater;
+        this.projectCache = projectCache;
+        this.projectJournal = projectJournal;
     }
 
     /**
@@ -101,35 +76,60 @@ public class ProjectService {
      *
      * @param project The project that should be stored
      * @return online ID of the project
+     * @throws DanglingReferenceException When the project refers to meals or recipes that do not exist
+     * @throws InconsistentUnitConversionException When the unit conversions of the project contradict each other
+     * @throws IllegalArgumentException When the project lasts longer than {@link ScheduleDays#MAX_DAYS}
      */
     @Transactional
     public long saveNewProject(Project project) {
+        ScheduleDays.checkDuration(project.startDate(), project.endDate());
+        ProjectReferenceIndex references = ProjectReferenceIndex.of(project, recipeRepository);
+        UnitConversionGraph.validate(project.unitConversions());
         ProjectEntity projectEntity = new ProjectEntity();
         projectEntity.setName(project.name());
         projectEntity.setStartDate(project.startDate());
         projectEntity.setEndDate(project.endDate());
         projectEntity = projectRepo.save(projectEntity);
-        updateProjectEntityFromProject(projectEntity, project);
+        projectUpdater.update(projectEntity, project, references);
         return projectEntity.getId();
     }
 
     /**
-     * Rewrites all data of a project, so the latest version of a project is saved
+     * Stores the latest version of a project. The project's version number is the version the changes are based on;
+     * they are only applied if the stored project is still at that version. Only the rows that differ from the
+     * stored version are written and the differences to the previous version are recorded in the project's change
+     * journal.
      *
      * @param project The new version of the project
-     * @return The new version number of the project
+     * @return The new version number of the project and the number of rows that were written
+     * @throws DanglingReferenceException When the project refers to meals or recipes that do not exist
+     * @throws InconsistentUnitConversionException When the unit conversions of the project contradict each other
+     * @throws IllegalArgumentException When the project lasts longer than {@link ScheduleDays#MAX_DAYS}
+     * @throws ProjectVersionConflictException When the project was changed since the version the changes are based on
      */
     @Transactional
-    public long updateProject(Project project) {
-        projectRepo.updateMetaData(project.name(), project.startDate(), project.endDate(),
-                project.id());
+    public ProjectUpdateResult updateProject(Project project) {
+        ScheduleDays.checkDuration(project.startDate(), project.endDate());
+        ProjectReferenceIndex references = ProjectReferenceIndex.of(project, recipeRepository);
+        UnitConversionGraph.validate(project.unitConversions());
+        long currentVersion = projectRepo.findProjectVersionById(project.id()).orElseThrow();
+        if (currentVersion != project.versionNumber()) {
+            throw new ProjectVersionConflictException(project.id(), project.versionNumber(), currentVersion);
+        }
+        Project before = projectLoader.load(project.id());
+        // the version check is repeated atomically: a concurrent update may have committed since the check above
+        int updated = projectRepo.updateMetaDataIfVersion(project.name(), project.startDate(), project.endDate(),
+                project.id(), project.versionNumber());
+        if (updated == 0) {
+            throw new ProjectVersionConflictException(project.id(), project.versionNumber(),
+                    projectRepo.findProjectVersionById(project.id()).orElseThrow());
+        }
         ProjectEntity projectEntity = projectRepo.findById(project.id()).orElseThrow();
-        alternativeRecipeProjectMealRepository.deleteByProject(projectEntity);
-        mainRecipeProjectMealRepository.deleteByProject(projectEntity);
-        personNumberChangeRepo.deleteByProject(projectEntity);
-        allergenPersonRepo.deleteByProject(projectEntity); //also deletes the allergens through cascade
-        updateProjectEntityFromProject(projectEntity, project);
-        return projectEntity.getProjectVersion();
+        ProjectUpdateResult result = projectUpdater.update(projectEntity, project, references);
+        projectJournal.record(projectEntity, before, project);
+        // the metadata update of the project row itself counts as one updated row
+        return new ProjectUpdateResult(result.versionNumber(), result.insertedRows(), result.updatedRows() + 1,
+                result.deletedRows());
     }
 
     /**
@@ -137,57 +137,49 @@ public class ProjectService {
      * @param projectID Online ID of a project
      * @return the project
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public Project getProject(long projectID) {
-        ProjectEntity project = projectRepo.findById(projectID).orElseThrow();
-        List<AllergenPerson> allergenPeople = new ArrayList<>();
-        for (AllergenPersonEntity allergenPersonEntity : allergenPersonRepo.findByProject_Id(projectID)) {
-            List<String> allergen = new ArrayList<>();
-            List<String> traces = new ArrayList<>();
-            Collection<AllergenEntity> allergenEntities =
-                    allergenRepo.findByProject_IdAndAllergenPerson_Name(projectID, allergenPersonEntity.getName());
-            for (AllergenEntity allergenEntity : allergenEntities) {
-                if (allergenEntity.getTraces()) {
-                    traces.add(allergenEntity.getAllergen());
-                } else {
-                    allergen.add(allergenEntity.getAllergen());
-                }
-            }
-            allergenPeople.add(new AllergenPerson(
-                    allergenPersonEntity.getName(),
-                    allergenPersonEntity.getArrivalDate(),
-                    allergenPersonEntity.getDepartureDate(),
-                    allergenPersonEntity.getArrivalMeal().getName(),
-                    allergenPersonEntity.getDepartureMeal().getName(),
-                    allergen,
-                    traces));
-        }
-        List<String> meals = mealRepository.findByProject_Id(projectID).stream().map(MealEntity::getName).toList();
-
-        List<PersonNumberChange> personNumberChanges = personNumberChangeRepo.findByProject_Id(projectID).stream()
-                .map(entity -> new PersonNumberChange(entity.getDate(), entity.getMeal().getName(),
-                        entity.getDifferenceBefore())).toList();
+        return projectLoader.load(projectID);
+    }
 
-        List<RecipeForProject> recipes =
-                new ArrayList<>(mainRecipeProjectMealRepository.findByProject_Id(projectID).stream().map(
-                        entity -> new RecipeForProject(entity.getDate(), entity.getMeal().getName(),
-                                entity.getRecipe().getId(),
-                                true)).toList());
-        recipes.addAll(alternativeRecipeProjectMealRepository.findByProject_Id(projectID).stream()
-                .map(entity -> new RecipeForProject(entity.getDate(), entity.getMeal().getName(),
-                        entity.getRecipe().getId(), false)).toList());
+    /**
+     * Provides the project with the given Id already serialized as JSON. The serialization is cached per project
+     * version, so unchanged projects are neither loaded from the database nor serialized again.
+     *
+     * @param projectID Online ID of a project
+     * @return the serialized project
+     * @throws IOException When the project could not be serialized
+     */
+    @Transactional(readOnly = true)
+    public SerializedProject getSerializedProject(long projectID) throws IOException {
+        ProjectStubDTO stub = getProjectStub(projectID);
+        Optional<SerializedProject> cached =
+                projectCache.get(projectID, stub.getProjectVersion(), stub.getImageVersion());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return projectCache.put(projectLoader.load(projectID));
+    }
 
-        List<UnitConversion> unitConversions =
-                unitConversionRepository.findByProject_Id(projectID).stream().map(entity ->
-                        new UnitConversion(entity.getSourceUnit(),
-                                entity.getDestinationUnit(),
-                                entity.getIngredient(),
-                                entity.getFactor())
-                ).toList();
+    /**
+     * Provides all changes of a project since the version the app has
+     *
+     * @param projectID Online ID of a project
+     * @param versionNumber The version of the project the app has
+     * @return the changes since that version, or the complete project if they can not be determined anymore
+     */
+    public ProjectDelta getProjectDelta(long projectID, long versionNumber) {
+        return projectJournal.getChangesSince(projectID, versionNumber);
+    }
 
-        return new Project(project.getProjectVersion(), project.getImageVersion(), project.getName(),
-                project.getId(), meals, project.getStartDate(), project.getEndDate()
-                , allergenPeople, recipes, unitConversions, personNumberChanges);
+    /**
+     * Provides the stub of the project with the given Id, including its current version numbers
+     *
+     * @param projectID Online ID of a project
+     * @return the project stub
+     */
+    public ProjectStubDTO getProjectStub(long projectID) {
+        return projectRepo.findProjectStubById(projectID).orElseThrow();
     }
 
     /**
@@ -199,84 +191,4 @@ public class ProjectService {
     public Collection<ProjectStubDTO> getProjectStubs(String username) {
         return projectRepo.findByParticipants_Name(username);
     }
-
-
-    private void updateProjectEntityFromProject(ProjectEntity projectEntity, Project project) {
-        long projectID = projectEntity.getId();
-        for (int i = 0; i < project.meals().size(); i++) {
-            MealEntity mealEntity = new MealEntity();
-            mealEntity.setProject(projectEntity);
-            mealEntity.setName(project.meals().get(i));
-            mealEntity.setSequence(i);
-            mealRepository.save(mealEntity);
-        }
-
-        for (AllergenPerson allergenPerson : project.allergenPeople()) {
-            AllergenPersonEntity person = new AllergenPersonEntity();
-            person.setName(allergenPerson.name());
-            person.setProject(projectEntity);
-            person.setArrivalDate(allergenPerson.arrivalDate());
-            person.setArrivalMeal(
-                    mealRepository.findByProject_IdAndName(projectID, allergenPerson.arrivalMeal()).orElseThrow());
-            person.setDepartureMeal(
-                    mealRepository.findByProject_IdAndName(projectID, allergenPerson.departureMeal()).orElseThrow());
-            person.setDepartureDate(allergenPerson.departureDate());
-            person = allergenPersonRepo.save(person);
-
-            for (String allergen : allergenPerson.allergen()) {
-                AllergenEntity allergenEntity = new AllergenEntity();
-                allergenEntity.setProject(projectEntity);
-                allergenEntity.setAllergenPerson(person);
-                allergenEntity.setAllergen(allergen);
-                allergenEntity.setTraces(false);
-                allergenRepo.save(allergenEntity);
-            }
-
-            for (String trace : allergenPerson.traces()) {
-                AllergenEntity traceEntity = new AllergenEntity();
-                traceEntity.setProject(projectEntity);
-                traceEntity.setAllergenPerson(person);
-                traceEntity.setAllergen(trace);
-                traceEntity.setTraces(true);
-                allergenRepo.save(traceEntity);
-            }
-            for (RecipeForProject recipe : project.recipes()) {
-                if (recipe.mainRecipe()) {
-                    MainRecipeProjectMealEntity mainRecipe = new MainRecipeProjectMealEntity();
-                    mainRecipe.setProject(projectEntity);
-                    mainRecipe.setDate(recipe.date());
-                    mainRecipe.setMeal(mealRepository.findByProject_IdAndName(projectID, recipe.meal()).orElseThrow());
-                    mainRecipe.setRecipe(recipeRepository.findById(recipe.recipeID()).orElseThrow());
-                    mainRecipeProjectMealRepository.save(mainRecipe);
-                } else {
-                    AlternativeRecipeProjectMeal alternativeRecipe = new AlternativeRecipeProjectMeal();
-                    alternativeRecipe.setDate(recipe.date());
-                    alternativeRecipe.setProject(projectEntity);
-                    alternativeRecipe.setMeal(
-                            mealRepository.findByProject_IdAndName(projectID, recipe.meal()).orElseThrow());
-                    alternativeRecipe.setRecipe(recipeRepository.findById(recipe.recipeID()).orElseThrow());
-                    alternativeRecipeProjectMealRepository.save(alternativeRecipe);
-                }
-            }
-
-            project.unitConversions().forEach(conversion -> {
-                UnitConversionEntity conversionEntity = new UnitConversionEntity();
-                conversionEntity.setProject(projectEntity);
-                conversionEntity.setFactor(conversion.factor());
-                conversionEntity.setIngredient(conversion.ingredient());
-                conversionEntity.setSourceUnit(conversion.startUnit());
-                conversionEntity.setDestinationUnit(conversion.endUnit());
-                unitConversionRepository.save(conversionEntity);
-            });
-
-            project.personNumberChange().forEach(change -> {
-                PersonNumberChangeEntity entity = new PersonNumberChangeEntity();
-                entity.setDate(change.date());
-                entity.setProject(projectEntity);
-                entity.setMeal(mealRepository.findByProject_IdAndName(projectID, change.meal()).orElseThrow());
-                entity.setDifferenceBefore(change.differenceBefore());
-                personNumberChangeRepo.save(entity);
-            });
-        }
-    }
 }
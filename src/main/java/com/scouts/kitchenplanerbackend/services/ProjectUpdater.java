@@ -0,0 +1,391 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AlternativeRecipeProjectMeal;
+import com.scouts.kitchenplanerbackend.entities.projects.MainRecipeProjectMealEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.MealEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ProjectEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+import com.scouts.kitchenplanerbackend.entities.projects.UnitConversionEntity;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenPersonRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AllergenRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.PersonNumberChangeRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.UnitConversionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Brings the stored state of a project in line with a given {@link Project}. Instead of rewriting all rows of the
+ * project, the stored rows are compared with the given project by their primary key, so only rows which were
+ * actually added, changed or removed are written. New rows are persisted without a preceding select and all writes
+ * are flushed at once, which lets Hibernate send them as one JDBC batch per table.
+ */
+@Component
+public class ProjectUpdater {
+    private final MealRepository mealRepository;
+    private final AllergenPersonRepository allergenPersonRepo;
+    private final AllergenRepository allergenRepo;
+    private final MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
+    private final AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
+    private final UnitConversionRepository unitConversionRepository;
+    private final PersonNumberChangeRepository personNumberChangeRepo;
+    private final AllergenDictionary allergenDictionary;
+    private final EntityManager entityManager;
+
+    /**
+     * Initializes all needed repositories for this updater
+     * @param mealRepository Database access for meals
+     * @param allergenPersonRepository Database access for metadata of allergen persons
+     * @param allergenRepository Database access for allergens of allergen persons
+     * @param mainRecipeProjectMealRepository Database access for main recipes and their meal slots
+     * @param alternativeRecipeProjectMealRepository Database access for alternative recipes and their meal slots
+     * @param unitConversionRepository Database access for unit conversions
+     * @param personNumberChangeRepository Database access for person number changes
+     * @param allergenDictionary Dictionary which translates allergen names to their IDs
+     * @param entityManager Entity manager used to persist and remove the rows
+     */
+    @Autowired
+    public ProjectUpdater(MealRepository mealRepository, AllergenPersonRepository allergenPersonRepository,
+                          AllergenRepository allergenRepository,
+                          MainRecipeProjectMealRepository mainRecipeProjectMealRepository,
+                          AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository,
+                          UnitConversionRepository unitConversionRepository,
+                          PersonNumberChangeRepository personNumberChangeRepository,
+                          AllergenDictionary allergenDictionary, EntityManager entityManager) {
+        this.mealRepository = mealRepository;
+        this.allergenPersonRepo = allergenPersonRepository;
+        this.allergenRepo = allergenRepository;
+        this.mainRecipeProjectMealRepository = mainRecipeProjectMealRepository;
+        this.alternativeRecipeProjectMealRepository = alternativeRecipeProjectMealRepository;
+        this.unitConversionRepository = unitConversionRepository;
+        this.personNumberChangeRepo = personNumberChangeRepository;
+        this.allergenDictionary = allergenDictionary;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Writes the meals, allergen persons, recipes, unit conversions and person number changes of a project,
+     * touching only the rows that differ from the stored state
+     *
+     * @param projectEntity The (already stored) project entity
+     * @param project       The new state of the project
+     * @param references    The resolved references of the new state of the project
+     * @return The number of inserted, updated and deleted rows; the version number is the one of the project entity
+     */
+    @Transactional
+    public ProjectUpdateResult update(ProjectEntity projectEntity, Project project,
+                                      ProjectReferenceIndex references) {
+        long projectID = projectEntity.getId();
+        LocalDate startDate = project.startDate();
+        RowCounts counts = new RowCounts();
+
+        // everything is read before anything is written, so all writes are flushed together in JDBC batches
+        Collection<MealEntity> storedMeals = mealRepository.findByProject_Id(projectID);
+        Collection<AllergenPersonEntity> storedPeople = allergenPersonRepo.findByProject_Id(projectID);
+        Collection<AllergenEntity> storedAllergens = allergenRepo.findByProject_Id(projectID);
+        Collection<MainRecipeProjectMealEntity> storedMainRecipes =
+                mainRecipeProjectMealRepository.findByProject_Id(projectID);
+        Collection<AlternativeRecipeProjectMeal> storedAlternativeRecipes =
+                alternativeRecipeProjectMealRepository.findByProject_Id(projectID);
+        Collection<UnitConversionEntity> storedConversions = unitConversionRepository.findByProject_Id(projectID);
+        Collection<PersonNumberChangeEntity> storedChanges = personNumberChangeRepo.findByProject_Id(projectID);
+
+        Map<String, MealEntity> meals = new HashMap<>();
+        List<MealEntity> removedMeals = new ArrayList<>();
+        synchronizeMeals(projectEntity, storedMeals, project.meals(), meals, removedMeals, counts);
+
+        Synchronized<String, AllergenPersonEntity> people = synchronize(storedPeople,
+                AllergenPersonEntity::getName, project.allergenPeople(), AllergenPerson::name,
+                person -> {
+                    AllergenPersonEntity entity = new AllergenPersonEntity();
+                    entity.setName(person.name());
+                    entity.setProject(projectEntity);
+                    updatePerson(entity, person, startDate, meals);
+                    return entity;
+                },
+                (entity, person) -> updatePerson(entity, person, startDate, meals),
+                counts);
+
+        Synchronized<AllergenKey, AllergenEntity> allergens = synchronize(storedAllergens,
+                allergen -> new AllergenKey(allergen.getAllergenPerson().getName(), allergen.getAllergen().getId()),
+                allergens(project.allergenPeople()),
+                allergen -> new AllergenKey(allergen.person(), allergenDictionary.id(allergen.name())),
+                allergen -> {
+                    AllergenEntity entity = new AllergenEntity();
+                    entity.setProject(projectEntity);
+                    entity.setAllergenPerson(people.current().get(allergen.person()));
+                    entity.setAllergen(allergenDictionary.reference(allergen.name()));
+                    entity.setTraces(allergen.traces());
+                    return entity;
+                },
+                (entity, allergen) -> {
+                    if (Objects.equals(entity.getTraces(), allergen.traces())) {
+                        return false;
+                    }
+                    entity.setTraces(allergen.traces());
+                    return true;
+                },
+                counts);
+
+        Synchronized<SlotKey, MainRecipeProjectMealEntity> mainRecipes = synchronize(storedMainRecipes,
+                entity -> new SlotKey(entity.getMeal().getName(), entity.getDay()),
+                project.recipes().stream().filter(RecipeForProject::mainRecipe).toList(),
+                recipe -> new SlotKey(recipe.meal(), ScheduleDays.offset(startDate, recipe.date())),
+                recipe -> {
+                    MainRecipeProjectMealEntity entity = new MainRecipeProjectMealEntity();
+                    entity.setProject(projectEntity);
+                    entity.setDay(ScheduleDays.offset(startDate, recipe.date()));
+                    entity.setMeal(meals.get(recipe.meal()));
+                    entity.setRecipe(references.recipe(recipe.recipeID()));
+                    return entity;
+                },
+                (entity, recipe) -> {
+                    if (entity.getRecipe().getId() == recipe.recipeID()) {
+                        return false;
+                    }
+                    entity.setRecipe(references.recipe(recipe.recipeID()));
+                    return true;
+                },
+                counts);
+
+        Synchronized<AlternativeKey, AlternativeRecipeProjectMeal> alternativeRecipes = synchronize(
+                storedAlternativeRecipes,
+                entity -> new AlternativeKey(entity.getMeal().getName(), entity.getDay(),
+                        entity.getRecipe().getId()),
+                project.recipes().stream().filter(recipe -> !recipe.mainRecipe()).toList(),
+                recipe -> new AlternativeKey(recipe.meal(), ScheduleDays.offset(startDate, recipe.date()),
+                        recipe.recipeID()),
+                recipe -> {
+                    AlternativeRecipeProjectMeal entity = new AlternativeRecipeProjectMeal();
+                    entity.setProject(projectEntity);
+                    entity.setDay(ScheduleDays.offset(startDate, recipe.date()));
+                    entity.setMeal(meals.get(recipe.meal()));
+                    entity.setRecipe(references.recipe(recipe.recipeID()));
+                    return entity;
+                },
+                (entity, recipe) -> false,
+                counts);
+
+        Synchronized<ConversionKey, UnitConversionEntity> conversions = synchronize(storedConversions,
+                entity -> new ConversionKey(entity.getSourceUnit(), entity.getDestinationUnit(),
+                        entity.getIngredient()),
+                project.unitConversions(),
+                conversion -> new ConversionKey(conversion.startUnit(), conversion.endUnit(),
+                        UnitConversionGraph.ingredient(conversion.ingredient())),
+                conversion -> {
+                    UnitConversionEntity entity = new UnitConversionEntity();
+                    entity.setProject(projectEntity);
+                    entity.setSourceUnit(conversion.startUnit());
+                    entity.setDestinationUnit(conversion.endUnit());
+                    entity.setIngredient(UnitConversionGraph.ingredient(conversion.ingredient()));
+                    entity.setFactor(conversion.factor());
+                    return entity;
+                },
+                (entity, conversion) -> {
+                    if (entity.getFactor() == conversion.factor()) {
+                        return false;
+                    }
+                    entity.setFactor(conversion.factor());
+                    return true;
+                },
+                counts);
+
+        Synchronized<SlotKey, PersonNumberChangeEntity> changes = synchronize(storedChanges,
+                entity -> new SlotKey(entity.getMeal().getName(), entity.getDay()),
+                project.personNumberChange(),
+                change -> new SlotKey(change.meal(), ScheduleDays.offset(startDate, change.date())),
+                change -> {
+                    PersonNumberChangeEntity entity = new PersonNumberChangeEntity();
+                    entity.setProject(projectEntity);
+                    entity.setDay(ScheduleDays.offset(startDate, change.date()));
+                    entity.setMeal(meals.get(change.meal()));
+                    entity.setDifferenceBefore(change.differenceBefore());
+                    return entity;
+                },
+                (entity, change) -> {
+                    if (entity.getDifferenceBefore() == change.differenceBefore()) {
+                        return false;
+                    }
+                    entity.setDifferenceBefore(change.differenceBefore());
+                    return true;
+                },
+                counts);
+
+        // rows referencing other rows have to be deleted first, so the meals go last
+        delete(allergens.removed(), counts);
+        delete(mainRecipes.removed(), counts);
+        delete(alternativeRecipes.removed(), counts);
+        delete(conversions.removed(), counts);
+        delete(changes.removed(), counts);
+        delete(people.removed(), counts);
+        delete(removedMeals, counts);
+        entityManager.flush();
+
+        return new ProjectUpdateResult(projectEntity.getProjectVersion(), counts.inserted, counts.updated,
+                counts.deleted);
+    }
+
+    private void synchronizeMeals(ProjectEntity projectEntity, Collection<MealEntity> stored, List<String> mealNames,
+                                  Map<String, MealEntity> meals, List<MealEntity> removedMeals, RowCounts counts) {
+        Map<String, MealEntity> storedMeals = new HashMap<>();
+        for (MealEntity meal : stored) {
+            storedMeals.put(meal.getName(), meal);
+        }
+        for (int i = 0; i < mealNames.size(); i++) {
+            MealEntity meal = storedMeals.remove(mealNames.get(i));
+            if (meal == null) {
+                meal = new MealEntity();
+                meal.setProject(projectEntity);
+                meal.setName(mealNames.get(i));
+                meal.setSequence(i);
+                entityManager.persist(meal);
+                counts.inserted++;
+            } else if (meal.getSequence() != i) {
+                meal.setSequence(i);
+                counts.updated++;
+            }
+            meals.put(meal.getName(), meal);
+        }
+        removedMeals.addAll(storedMeals.values());
+    }
+
+    private boolean updatePerson(AllergenPersonEntity entity, AllergenPerson person, LocalDate startDate,
+                                 Map<String, MealEntity> meals) {
+        MealEntity arrivalMeal = meals.get(person.arrivalMeal());
+        MealEntity departureMeal = meals.get(person.departureMeal());
+        Integer arrivalDay = ScheduleDays.offsetOrNull(startDate, person.arrivalDate());
+        Integer departureDay = ScheduleDays.offsetOrNull(startDate, person.departureDate());
+        if (Objects.equals(entity.getArrivalDay(), arrivalDay)
+                && Objects.equals(entity.getDepartureDay(), departureDay)
+                && Objects.equals(mealName(entity.getArrivalMeal()), arrivalMeal.getName())
+                && Objects.equals(mealName(entity.getDepartureMeal()), departureMeal.getName())) {
+            return false;
+        }
+        entity.setArrivalDay(arrivalDay);
+        entity.setDepartureDay(departureDay);
+        entity.setArrivalMeal(arrivalMeal);
+        entity.setDepartureMeal(departureMeal);
+        return true;
+    }
+
+    /**
+     * Compares the stored rows of a table with the incoming elements by their key. Missing rows are inserted and
+     * existing rows are updated in place; the rows which are no longer needed are returned, so they can be deleted
+     * in an order that respects the references between the tables.
+     */
+    private <K, T, E> Synchronized<K, E> synchronize(Collection<E> stored, Function<E, K> storedKey,
+                                                     Collection<T> incoming, Function<T, K> incomingKey,
+                                                     Function<T, E> create, BiPredicate<E, T> update,
+                                                     RowCounts counts) {
+        Map<K, E> remaining = new HashMap<>();
+        for (E entity : stored) {
+            remaining.put(storedKey.apply(entity), entity);
+        }
+        Map<K, T> elements = new LinkedHashMap<>();
+        for (T element : incoming) {
+            elements.put(incomingKey.apply(element), element);
+        }
+
+        Map<K, E> current = new HashMap<>();
+        for (Map.Entry<K, T> element : elements.entrySet()) {
+            E entity = remaining.remove(element.getKey());
+            if (entity == null) {
+                // persist instead of merge: the rows are known to be new, so no select is needed before the insert
+                entity = create.apply(element.getValue());
+                entityManager.persist(entity);
+                counts.inserted++;
+            } else if (update.test(entity, element.getValue())) {
+                counts.updated++;
+            }
+            current.put(element.getKey(), entity);
+        }
+        return new Synchronized<>(current, new ArrayList<>(remaining.values()));
+    }
+
+    private void delete(List<?> entities, RowCounts counts) {
+        entities.forEach(entityManager::remove);
+        counts.deleted += entities.size();
+    }
+
+    private static List<Allergen> allergens(List<AllergenPerson> people) {
+        List<Allergen> allergens = new ArrayList<>();
+        for (AllergenPerson person : people) {
+            for (String allergen : person.allergen()) {
+                allergens.add(new Allergen(person.name(), allergen, false));
+            }
+            for (String trace : person.traces()) {
+                allergens.add(new Allergen(person.name(), trace, true));
+            }
+        }
+        return allergens;
+    }
+
+    private static String mealName(MealEntity meal) {
+        return meal == null ? null : meal.getName();
+    }
+
+    private static final class RowCounts {
+        private int inserted = 0;
+        private int updated = 0;
+        private int deleted = 0;
+    }
+
+    private record Synchronized<K, E>(Map<K, E> current, List<E> removed) {
+    }
+
+    private record Allergen(String person, String name, boolean traces) {
+    }
+
+    private record AllergenKey(String person, int allergen) {
+    }
+
+    private record SlotKey(String meal, int day) {
+    }
+
+    private record AlternativeKey(String meal, int day, long recipe) {
+    }
+
+    private record ConversionKey(String sourceUnit, String destinationUnit, String ingredient) {
+    }
+}
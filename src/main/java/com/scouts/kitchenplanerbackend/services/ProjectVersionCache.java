@@ -0,0 +1,83 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache for data compiled from one version of a project. Only the most recently compiled version of a project is
+ * kept, so superseded versions are replaced instead of piling up. The cache is bounded by the number of projects and
+ * evicts the least recently used project first.
+ *
+ * @param <V> The type of the compiled data
+ */
+final class ProjectVersionCache<V> {
+    private final ToLongFunction<V> versionNumber;
+    private final LinkedHashMap<Long, V> entries;
+
+    /**
+     * Creates a new cache
+     *
+     * @param maxProjects   The maximum number of projects whose data is kept
+     * @param versionNumber Provides the project version the data was compiled from
+     */
+    ProjectVersionCache(int maxProjects, ToLongFunction<V> versionNumber) {
+        this.versionNumber = versionNumber;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    /**
+     * Provides the cached data of a project if it was compiled from the given version
+     *
+     * @param projectID     Online ID of the project
+     * @param versionNumber The current version of the project
+     * @return The cached data or null if the data of this version is not cached
+     */
+    synchronized V get(long projectID, long versionNumber) {
+        V cached = entries.get(projectID);
+        return cached != null && this.versionNumber.applyAsLong(cached) == versionNumber ? cached : null;
+    }
+
+    /**
+     * Stores the data of a project. Data of a newer version that was compiled concurrently is not replaced.
+     *
+     * @param projectID Online ID of the project
+     * @param compiled  The compiled data
+     */
+    synchronized void put(long projectID, V compiled) {
+        V cached = entries.get(projectID);
+        if (cached == null || versionNumber.applyAsLong(cached) <= versionNumber.applyAsLong(compiled)) {
+            entries.put(projectID, compiled);
+        }
+    }
+
+    /**
+     * Removes the data of a project, e.g. because the project does not exist anymore
+     *
+     * @param projectID Online ID of the project
+     */
+    synchronized void remove(long projectID) {
+        entries.remove(projectID);
+    }
+}
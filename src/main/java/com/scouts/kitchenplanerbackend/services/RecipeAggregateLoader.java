@@ -0,0 +1,144 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientQuantityDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.InstructionDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Ingredient;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.repositories.recipes.DietarySpecialityRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.IngredientRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.InstructionRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Assembles complete {@link Recipe recipes} from the database. Every table of the recipe aggregate is read with
+ * exactly one set based query for all requested recipes together, so loading many recipes needs as many statements
+ * as loading a single one.
+ */
+@Component
+public class RecipeAggregateLoader {
+    private final RecipeRepository recipeRepository;
+    private final IngredientRepository ingredientRepository;
+    private final InstructionRepository instructionRepository;
+    private final DietarySpecialityRepository dietarySpecialityRepository;
+    private final AllergenDictionary allergenDictionary;
+
+    /**
+     * Initializes all needed repositories for this loader
+     * @param recipeRepository Database access for recipes
+     * @param ingredientRepository Database access for the ingredients of recipes
+     * @param instructionRepository Database access for the instructions of recipes
+     * @param dietarySpecialityRepository Database access for the dietary specialities of recipes
+     * @param allergenDictionary Dictionary which translates allergen IDs to their names
+     */
+    @Autowired
+    public RecipeAggregateLoader(RecipeRepository recipeRepository, IngredientRepository ingredientRepository,
+                                 InstructionRepository instructionRepository,
+                                 DietarySpecialityRepository dietarySpecialityRepository,
+                                 AllergenDictionary allergenDictionary) {
+        this.recipeRepository = recipeRepository;
+        this.ingredientRepository = ingredientRepository;
+        this.instructionRepository = instructionRepository;
+        this.dietarySpecialityRepository = dietarySpecialityRepository;
+        this.allergenDictionary = allergenDictionary;
+    }
+
+    /**
+     * Loads the recipe with the given ID including all of its ingredients, instructions and dietary specialities
+     *
+     * @param recipeID Online ID of the recipe
+     * @return the recipe
+     * @throws NoSuchElementException When there is no recipe with the given ID
+     */
+    @Transactional(readOnly = true)
+    public Recipe load(long recipeID) {
+        List<Recipe> recipes = loadAll(List.of(recipeID));
+        if (recipes.isEmpty()) {
+            throw new NoSuchElementException("There is no recipe with ID " + recipeID);
+        }
+        return recipes.get(0);
+    }
+
+    /**
+     * Loads all recipes with the given IDs including all of their ingredients, instructions and dietary
+     * specialities. IDs without a recipe are skipped.
+     *
+     * @param recipeIDs Online IDs of the recipes
+     * @return the recipes in the order of their first occurrence in the given IDs
+     */
+    @Transactional(readOnly = true)
+    public List<Recipe> loadAll(Collection<Long> recipeIDs) {
+        Set<Long> ids = new LinkedHashSet<>(recipeIDs);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<Ingredient>> ingredients = new HashMap<>();
+        for (IngredientQuantityDTO ingredient : ingredientRepository.findQuantitiesByRecipe_IdIn(ids)) {
+            ingredients.computeIfAbsent(ingredient.getRecipeId(), id -> new ArrayList<>())
+                    .add(new Ingredient(ingredient.getIngredientGroup(), ingredient.getName(),
+                            ingredient.getQuantity(), ingredient.getUnit()));
+        }
+
+        // the instructions are already ordered by their step number
+        Map<Long, List<String>> instructions = new HashMap<>();
+        for (InstructionDTO instruction : instructionRepository.findDTOsByRecipe_IdIn(ids)) {
+            instructions.computeIfAbsent(instruction.getRecipeId(), id -> new ArrayList<>())
+                    .add(instruction.getInstruction());
+        }
+
+        Map<Long, List<DietarySpeciality>> specialities = new HashMap<>();
+        for (DietarySpecialityDTO speciality : dietarySpecialityRepository.findDTOsByRecipe_IdIn(ids)) {
+            specialities.computeIfAbsent(speciality.getRecipeId(), id -> new ArrayList<>())
+                    .add(new DietarySpeciality(allergenDictionary.name(speciality.getSpecialityId()),
+                            speciality.getType()));
+        }
+
+        Map<Long, RecipeEntity> entities = new HashMap<>();
+        for (RecipeEntity recipe : recipeRepository.findAllById(ids)) {
+            entities.put(recipe.getId(), recipe);
+        }
+
+        List<Recipe> recipes = new ArrayList<>();
+        for (Long id : ids) {
+            RecipeEntity recipe = entities.get(id);
+            if (recipe != null) {
+                recipes.add(new Recipe(recipe.getId(), recipe.getName(), recipe.getDescription(),
+                        recipe.getNumberOfPeople(), recipe.getRecipeVersion(), recipe.getImageVersion(),
+                        ingredients.getOrDefault(id, List.of()), instructions.getOrDefault(id, List.of()),
+                        specialities.getOrDefault(id, List.of())));
+            }
+        }
+        return recipes;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeStubPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-through cache for complete recipes, which are shared by all projects and read far more often than they are
+ * changed. Every entry carries the recipe and image version it was loaded with. Entries are removed whenever a
+ * recipe is written and the least recently used recipes are evicted once the cache is full. Pages of the recipe
+ * listing are cached as well and all of them are dropped whenever any recipe is written, so reads do not touch the
+ * database in steady state. Every write of a recipe therefore has to be followed by {@link #invalidate(long)}.
+ *
+ * <p> A recipe loaded before a concurrent write could otherwise be stored after that write invalidated it. Therefore
+ * loaders take a {@link #generation() generation} before reading the database and the loaded recipes are only stored
+ * if no recipe was invalidated in the meantime.
+ */
+@Component
+public class RecipeCache {
+    private final int maxEntries;
+    private final int maxStubPages;
+
+    private final LinkedHashMap<Long, Recipe> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<StubPageKey, RecipeStubPage> stubPages = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a new recipe cache
+     *
+     * @param maxEntries   The maximum number of recipes that are cached
+     * @param maxStubPages The maximum number of pages of the recipe listing that are cached
+     */
+    public RecipeCache(@Value("${kitchenplaner.recipe-cache.max-entries:2000}") int maxEntries,
+                       @Value("${kitchenplaner.recipe-cache.max-stub-pages:100}") int maxStubPages) {
+        this.maxEntries = maxEntries;
+        this.maxStubPages = maxStubPages;
+    }
+
+    /**
+     * Provides all cached recipes with the given IDs. Every requested ID counts as either a hit or a miss.
+     *
+     * @param recipeIDs Online IDs of the recipes
+     * @return The cached recipes by their ID
+     */
+    public synchronized Map<Long, Recipe> getAll(Collection<Long> recipeIDs) {
+        Map<Long, Recipe> cached = new HashMap<>();
+        for (Long recipeID : recipeIDs) {
+            Recipe recipe = entries.get(recipeID);
+            if (recipe != null) {
+                cached.put(recipeID, recipe);
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Provides a cached page of the recipe listing
+     *
+     * @param afterID The ID of the last recipe of the previous page, or null for the first page
+     * @param size    The maximum number of stubs on the page
+     * @return The page or null if it is not cached
+     */
+    public synchronized RecipeStubPage getStubPage(Long afterID, int size) {
+        return stubPages.get(new StubPageKey(afterID, size));
+    }
+
+    /**
+     * Stores a page of the recipe listing in the cache, unless a recipe was invalidated since the given generation
+     * was taken
+     *
+     * @param afterID    The ID of the last recipe of the previous page, or null for the first page
+     * @param size       The maximum number of stubs on the page
+     * @param page       The page loaded from the database
+     * @param generation The generation of the cache before the page was loaded
+     */
+    public synchronized void putStubPage(Long afterID, int size, RecipeStubPage page, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        stubPages.put(new StubPageKey(afterID, size), page);
+        Iterator<RecipeStubPage> iterator = stubPages.values().iterator();
+        while (stubPages.size() > maxStubPages && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Provides the current generation of the cache, which has to be taken before the recipes are read from the
+     * database
+     *
+     * @return The generation
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores recipes in the cache, unless a recipe was invalidated since the given generation was taken
+     *
+     * @param recipes    The recipes loaded from the database
+     * @param generation The generation of the cache before the recipes were loaded
+     */
+    public synchronized void putAll(Collection<Recipe> recipes, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        for (Recipe recipe : recipes) {
+            entries.put(recipe.id(), recipe);
+        }
+        Iterator<Recipe> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes a recipe and all pages of the recipe listing from the cache. Has to be called after every change of a
+     * recipe has been committed, including added recipes and new images.
+     *
+     * @param recipeID Online ID of the changed recipe
+     */
+    public synchronized void invalidate(long recipeID) {
+        entries.remove(recipeID);
+        stubPages.clear();
+        generation++;
+    }
+
+    /**
+     * Provides the hit and miss counts and the size of the cache
+     *
+     * @return The current statistics of the cache
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, entries.size());
+    }
+
+    /**
+     * Statistics of the recipe cache
+     *
+     * @param hits      Number of requested recipes that were served from the cache
+     * @param misses    Number of requested recipes that had to be loaded from the database
+     * @param evictions Number of recipes removed because the cache was full
+     * @param size      Number of recipes currently cached
+     */
+    public record Statistics(long hits, long misses, long evictions, int size) {
+    }
+
+    private record StubPageKey(Long afterID, int size) {
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.InstructionEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.exceptions.InvalidRecipeRecordException;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Ingredient;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportProgress;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportRejection;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportFormat;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportListener;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeRecordReader;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Imports large numbers of recipes. The records are parsed one at a time and written in chunks, each of which is
+ * committed in its own transaction, so the memory needed does not depend on the size of the import. Within a chunk,
+ * the inserts are sent to the database in JDBC batches. Invalid records and recipes that already exist are rejected
+ * without aborting the import.
+ */
+@Service
+public class RecipeImporter {
+    private final RecipeRepository recipeRepository;
+    private final RecipeService recipeService;
+    private final AllergenDictionary allergenDictionary;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * Initializes all needed repositories and components for the importer
+     * @param recipeRepository Database access for recipes
+     * @param recipeService Service which has to be notified about the imported recipes
+     * @param allergenDictionary Dictionary which translates dietary specialities to their IDs
+     * @param entityManager Entity manager used to persist the recipes
+     * @param transactionManager Transaction manager used to commit every chunk of recipes
+     * @param objectMapper The mapper used to parse JSON records
+     * @param chunkSize The number of recipes committed together
+     */
+    @Autowired
+    public RecipeImporter(RecipeRepository recipeRepository, RecipeService recipeService,
+                          AllergenDictionary allergenDictionary, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                          @Value("${kitchenplaner.recipe-import.chunk-size:500}") int chunkSize) {
+        this.recipeRepository = recipeRepository;
+        this.recipeService = recipeService;
+        this.allergenDictionary = allergenDictionary;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports all recipes of a source. The listener is informed about every rejected record and about the progress
+     * after every committed chunk.
+     *
+     * @param source   The records to be imported
+     * @param format   The format of the records
+     * @param listener Listener for the progress and the rejected records
+     * @return The progress after the import is finished
+     * @throws IOException When the source can not be read or the listener fails
+     */
+    public RecipeImportProgress importRecipes(Reader source, RecipeImportFormat format,
+                                              RecipeImportListener listener) throws IOException {
+        ImportRun run = new ImportRun(listener);
+        List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+        try (RecipeRecordReader reader = format.open(source, objectMapper)) {
+            while (true) {
+                Recipe recipe;
+                try {
+                    recipe = reader.next();
+                } catch (InvalidRecipeRecordException e) {
+                    run.records++;
+                    run.reject(e.getRecordNumber(), null, e.getMessage());
+                    continue;
+                }
+                if (recipe == null) {
+                    break;
+                }
+                run.records++;
+                try {
+                    chunk.add(new ImportRecord(reader.recordNumber(), normalize(recipe)));
+                } catch (IllegalArgumentException e) {
+                    run.reject(reader.recordNumber(), recipe.id(), e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    write(chunk, run);
+                    chunk.clear();
+                    listener.progress(run.progress(false));
+                }
+            }
+        }
+        write(chunk, run);
+        RecipeImportProgress progress = run.progress(true);
+        listener.progress(progress);
+        return progress;
+    }
+
+    private void write(List<ImportRecord> chunk, ImportRun run) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // new dictionary entries are stored in their own transactions, so they are created before the chunk
+        chunk.forEach(record -> record.recipe().dietarySpecialities()
+                .forEach(speciality -> allergenDictionary.id(speciality.speciality())));
+
+        Set<Long> existing = recipeRepository.findExistingIds(chunk.stream().map(record -> record.recipe().id())
+                .toList());
+        Set<Long> ids = new HashSet<>();
+        List<ImportRecord> accepted = new ArrayList<>();
+        for (ImportRecord record : chunk) {
+            if (existing.contains(record.recipe().id()) || !ids.add(record.recipe().id())) {
+                run.reject(record.record(), record.recipe().id(), "A recipe with this ID already exists");
+            } else {
+                accepted.add(record);
+            }
+        }
+
+        List<Long> imported = new ArrayList<>();
+        try {
+            transaction.executeWithoutResult(status -> accepted.forEach(record -> persist(record.recipe())));
+            accepted.forEach(record -> imported.add(record.recipe().id()));
+        } catch (DataAccessException | PersistenceException e) {
+            // one recipe the database refuses must not reject the whole chunk, so the recipes are written one by one
+            for (ImportRecord record : accepted) {
+                try {
+                    transaction.executeWithoutResult(status -> persist(record.recipe()));
+                    imported.add(record.recipe().id());
+                } catch (DataAccessException | PersistenceException recipeException) {
+                    run.reject(record.record(), record.recipe().id(), "The recipe could not be stored: "
+                            + recipeException.getMessage());
+                }
+            }
+        }
+        run.imported += imported.size();
+        recipeService.recipesChanged(imported);
+    }
+
+    private void persist(Recipe recipe) {
+        RecipeEntity entity = new RecipeEntity();
+        entity.setId(recipe.id());
+        entity.setName(recipe.name());
+        entity.setDescription(recipe.description());
+        entity.setNumberOfPeople(recipe.numberOfPeople());
+        entityManager.persist(entity);
+
+        for (Ingredient ingredient : recipe.ingredients()) {
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setRecipe(entity);
+            ingredientEntity.setIngredientGroup(ingredient.ingredientGroup());
+            ingredientEntity.setName(ingredient.name());
+            ingredientEntity.setQuantity(ingredient.quantity());
+            ingredientEntity.setUnit(ingredient.unit());
+            entityManager.persist(ingredientEntity);
+        }
+
+        for (int step = 0; step < recipe.instructions().size(); step++) {
+            InstructionEntity instruction = new InstructionEntity();
+            instruction.setRecipe(entity);
+            instruction.setStepNumber(step);
+            instruction.setInstruction(recipe.instructions().get(step));
+            entityManager.persist(instruction);
+        }
+
+        for (DietarySpeciality speciality : recipe.dietarySpecialities()) {
+            DietarySpecialityEntity specialityEntity = new DietarySpecialityEntity();
+            specialityEntity.setRecipe(entity);
+            specialityEntity.setSpeciality(allergenDictionary.reference(speciality.speciality()));
+            specialityEntity.setType(speciality.type());
+            entityManager.persist(specialityEntity);
+        }
+    }
+
+    /**
+     * Checks that a recipe can be stored and fills in missing optional parts
+     *
+     * @param recipe The parsed recipe
+     * @return The recipe with empty lists and ingredient groups instead of missing ones
+     * @throws IllegalArgumentException When the recipe is invalid
+     */
+    private static Recipe normalize(Recipe recipe) {
+        if (recipe.id() <= 0) {
+            throw new IllegalArgumentException("The recipe ID has to be positive");
+        }
+        if (recipe.name() == null || recipe.name().isBlank()) {
+            throw new IllegalArgumentException("The recipe has no name");
+        }
+        if (recipe.numberOfPeople() <= 0) {
+            throw new IllegalArgumentException("The number of people has to be positive");
+        }
+
+        List<Ingredient> ingredients = new ArrayList<>();
+        Set<List<String>> ingredientKeys = new HashSet<>();
+        for (Ingredient ingredient : Objects.requireNonNullElse(recipe.ingredients(), List.<Ingredient>of())) {
+            if (ingredient == null || ingredient.name() == null || ingredient.name().isBlank()) {
+                throw new IllegalArgumentException("An ingredient has no name");
+            }
+            if (!Double.isFinite(ingredient.quantity()) || ingredient.quantity() < 0) {
+                throw new IllegalArgumentException("The quantity of " + ingredient.name() + " is invalid");
+            }
+            String group = Objects.requireNonNullElse(ingredient.ingredientGroup(), "");
+            if (!ingredientKeys.add(List.of(group, ingredient.name()))) {
+                throw new IllegalArgumentException("The ingredient " + ingredient.name() + " appears twice");
+            }
+            ingredients.add(new Ingredient(group, ingredient.name(), ingredient.quantity(), ingredient.unit()));
+        }
+
+        List<String> instructions = Objects.requireNonNullElse(recipe.instructions(), List.of());
+        if (instructions.contains(null)) {
+            throw new IllegalArgumentException("An instruction is missing");
+        }
+
+        List<DietarySpeciality> specialities =
+                Objects.requireNonNullElse(recipe.dietarySpecialities(), List.of());
+        Set<String> specialityNames = new HashSet<>();
+        for (DietarySpeciality speciality : specialities) {
+            if (speciality == null || speciality.speciality() == null || speciality.speciality().isBlank()
+                    || speciality.type() == null) {
+                throw new IllegalArgumentException("A dietary speciality has no name or type");
+            }
+            if (!specialityNames.add(speciality.speciality())) {
+                throw new IllegalArgumentException("The speciality " + speciality.speciality() + " appears twice");
+            }
+        }
+
+        return new Recipe(recipe.id(), recipe.name(), recipe.description(), recipe.numberOfPeople(), 0, 0,
+                ingredients, instructions, specialities);
+    }
+
+    private record ImportRecord(long record, Recipe recipe) {
+    }
+
+    private static final class ImportRun {
+        private final RecipeImportListener listener;
+        private final long start = System.nanoTime();
+        private long records = 0;
+        private long imported = 0;
+        private long rejected = 0;
+
+        private ImportRun(RecipeImportListener listener) {
+            this.listener = listener;
+        }
+
+        private void reject(long record, Long recipeID, String reason) throws IOException {
+            rejected++;
+            listener.rejected(new RecipeImportRejection(record, recipeID, reason));
+        }
+
+        private RecipeImportProgress progress(boolean finished) {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            double recipesPerSecond = imported * 1000.0 / Math.max(1, elapsedMillis);
+            return new RecipeImportProgress(records, imported, rejected, elapsedMillis, recipesPerSecond, finished);
+        }
+    }
+}
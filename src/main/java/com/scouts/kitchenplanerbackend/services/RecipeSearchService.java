@@ -0,0 +1,125 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.recipedtos.DietaryFilter;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeSearchHit;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.search.RecipeSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This service provides a full-text search over all recipes. The search index is built from the database when the
+ * first search is made and afterwards kept up to date recipe by recipe.
+ */
+@Service
+public class RecipeSearchService {
+    /**
+     * The maximal number of recipes that can be returned by one search
+     */
+    public static final int MAX_RESULTS = 100;
+
+    /**
+     * The maximal rank of a recipe that can be returned by one search, i.e. the maximal sum of offset and limit.
+     * Every search keeps that many hits in memory while ranking, so deeper pages have to be reached by narrowing the
+     * query.
+     */
+    public static final int MAX_RANK = 1000;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeAggregateLoader recipeLoader;
+    private final RecipeSearchIndex index = new RecipeSearchIndex();
+    private volatile boolean built = false;
+
+    /**
+     * Initializes all needed repositories and components for this service
+     * @param recipeRepository Database access for recipes
+     * @param recipeLoader Loader which assembles complete recipes from the database
+     */
+    @Autowired
+    public RecipeSearchService(RecipeRepository recipeRepository, RecipeAggregateLoader recipeLoader) {
+        this.recipeRepository = recipeRepository;
+        this.recipeLoader = recipeLoader;
+    }
+
+    /**
+     * Finds the recipes whose name, description, ingredients or instructions match a query and which fulfill
+     * dietary constraints. Every word of the query is matched as the beginning of a word of the recipe, ignoring case
+     * and the spelling of umlauts. Without a query, all recipes fulfilling the constraints are found, ordered by
+     * their ID.
+     *
+     * @param query  The query, may be empty
+     * @param filter The dietary constraints the recipes have to fulfill
+     * @param offset The number of best matching recipes to be skipped
+     * @param limit  The maximum number of recipes to be returned
+     * @return The matching recipes after the skipped ones, best match first
+     * @throws IllegalArgumentException When the offset is negative, the limit is not between 1 and
+     *                                  {@link #MAX_RESULTS} or their sum exceeds {@link #MAX_RANK}
+     */
+    public List<RecipeSearchHit> search(String query, DietaryFilter filter, int offset, int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("The limit has to be between 1 and " + MAX_RESULTS);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative");
+        }
+        if (offset > MAX_RANK - limit) {
+            throw new IllegalArgumentException("The offset and the limit must not add up to more than " + MAX_RANK);
+        }
+        if (!built) {
+            build();
+        }
+        return index.search(query, filter, offset, limit);
+    }
+
+    /**
+     * Updates the search index after recipes have been changed, added or deleted
+     *
+     * @param recipeIDs Online IDs of the changed recipes
+     */
+    public synchronized void reindex(Collection<Long> recipeIDs) {
+        // before the index is built, the changes are picked up by the build
+        if (!built || recipeIDs.isEmpty()) {
+            return;
+        }
+        Set<Long> removed = new HashSet<>(recipeIDs);
+        for (Recipe recipe : recipeLoader.loadAll(recipeIDs)) {
+            index.put(recipe);
+            removed.remove(recipe.id());
+        }
+        removed.forEach(index::remove);
+    }
+
+    private synchronized void build() {
+        if (built) {
+            return;
+        }
+        List<Long> ids = recipeRepository.findAllIds();
+        for (int from = 0; from < ids.size(); from += RecipeService.MAX_BATCH_SIZE) {
+            int to = Math.min(ids.size(), from + RecipeService.MAX_BATCH_SIZE);
+            recipeLoader.loadAll(ids.subList(from, to)).forEach(index::put);
+        }
+        built = true;
+    }
+}
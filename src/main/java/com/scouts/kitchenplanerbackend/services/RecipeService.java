@@ -0,0 +1,176 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeStubPage;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * This service provides methods to get complete recipes. Recipes and pages of the recipe listing are served from
+ * the {@link RecipeCache} whenever possible.
+ */
+@Service
+public class RecipeService {
+    /**
+     * The maximal number of recipes that can be requested at once
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeAggregateLoader recipeLoader;
+    private final RecipeCache recipeCache;
+    private final RecipeSearchService recipeSearchService;
+
+    /**
+     * Initializes all needed repositories and components for this service
+     * @param recipeRepository Database access for recipes
+     * @param recipeLoader Loader which assembles complete recipes from the database
+     * @param recipeCache Cache for complete recipes
+     * @param recipeSearchService Service whose search index has to be updated when a recipe changes
+     */
+    @Autowired
+    public RecipeService(RecipeRepository recipeRepository, RecipeAggregateLoader recipeLoader,
+                         RecipeCache recipeCache, RecipeSearchService recipeSearchService) {
+        this.recipeRepository = recipeRepository;
+        this.recipeLoader = recipeLoader;
+        this.recipeCache = recipeCache;
+        this.recipeSearchService = recipeSearchService;
+    }
+
+    /**
+     * Provides the recipe with the given ID
+     *
+     * @param recipeID Online ID of the recipe
+     * @return the recipe
+     * @throws NoSuchElementException When there is no recipe with the given ID
+     */
+    public Recipe getRecipe(long recipeID) {
+        List<Recipe> recipes = load(List.of(recipeID));
+        if (recipes.isEmpty()) {
+            throw new NoSuchElementException("There is no recipe with ID " + recipeID);
+        }
+        return recipes.get(0);
+    }
+
+    /**
+     * Provides all recipes with the given IDs. Only the recipes that are not cached are loaded from the database.
+     * IDs without a recipe are skipped.
+     *
+     * @param recipeIDs Online IDs of the recipes
+     * @return the recipes in the order of the given IDs
+     * @throws IllegalArgumentException When more than {@link #MAX_BATCH_SIZE} recipes are requested
+     */
+    public List<Recipe> getRecipes(Collection<Long> recipeIDs) {
+        if (recipeIDs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " recipes can be requested at once");
+        }
+        return load(recipeIDs);
+    }
+
+    /**
+     * Provides one page of the stubs of all recipes, ordered by their IDs
+     *
+     * @param afterID The ID of the last recipe of the previous page, or null for the first page
+     * @param size    The maximum number of stubs on the page
+     * @return The page of recipe stubs
+     * @throws IllegalArgumentException When the size is not between 1 and {@link #MAX_BATCH_SIZE}
+     */
+    public RecipeStubPage getRecipeStubs(Long afterID, int size) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("The page size has to be between 1 and " + MAX_BATCH_SIZE);
+        }
+        RecipeStubPage page = recipeCache.getStubPage(afterID, size);
+        if (page != null) {
+            return page;
+        }
+        long generation = recipeCache.generation();
+        // one additional stub is requested to know whether there is a next page
+        List<RecipeStubDTO> stubs = recipeRepository.findStubsAfter(
+                afterID == null ? Long.MIN_VALUE : afterID, PageRequest.ofSize(size + 1));
+        if (stubs.size() <= size) {
+            page = new RecipeStubPage(List.copyOf(stubs), null);
+        } else {
+            page = new RecipeStubPage(List.copyOf(stubs.subList(0, size)), stubs.get(size - 1).getId());
+        }
+        recipeCache.putStubPage(afterID, size, page, generation);
+        return page;
+    }
+
+    /**
+     * Provides the hit and miss counts of the recipe cache
+     *
+     * @return The statistics of the recipe cache
+     */
+    public RecipeCache.Statistics getCacheStatistics() {
+        return recipeCache.getStatistics();
+    }
+
+    /**
+     * Removes a recipe from the recipe cache and updates it in the search index after it has been changed
+     *
+     * @param recipeID Online ID of the changed recipe
+     */
+    public void recipeChanged(long recipeID) {
+        recipesChanged(List.of(recipeID));
+    }
+
+    /**
+     * Removes recipes from the recipe cache and updates them in the search index after they have been changed
+     * or added
+     *
+     * @param recipeIDs Online IDs of the changed recipes
+     */
+    public void recipesChanged(Collection<Long> recipeIDs) {
+        recipeIDs.forEach(recipeCache::invalidate);
+        recipeSearchService.reindex(recipeIDs);
+    }
+
+    private List<Recipe> load(Collection<Long> recipeIDs) {
+        Set<Long> ids = new LinkedHashSet<>(recipeIDs);
+        Map<Long, Recipe> recipes = new HashMap<>(recipeCache.getAll(ids));
+        List<Long> missing = ids.stream().filter(id -> !recipes.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long generation = recipeCache.generation();
+            List<Recipe> loaded = recipeLoader.loadAll(missing);
+            recipeCache.putAll(loaded, generation);
+            loaded.forEach(recipe -> recipes.put(recipe.id(), recipe));
+        }
+
+        List<Recipe> result = new ArrayList<>();
+        for (Long id : ids) {
+            Recipe recipe = recipes.get(id);
+            if (recipe != null) {
+                result.add(recipe);
+            }
+        }
+        return result;
+    }
+}
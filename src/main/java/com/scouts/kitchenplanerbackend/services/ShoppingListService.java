@@ -0,0 +1,93 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientQuantityDTO;
+import com.scouts.kitchenplanerbackend.planning.HeadcountTimeline;
+import com.scouts.kitchenplanerbackend.planning.ShoppingListAggregator;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingList;
+import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.IngredientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This service provides the shopping list of a project, scaling all recipes used in the project to the number of
+ * people eating at their meal slots
+ */
+@Service
+public class ShoppingListService {
+    private final HeadcountService headcountService;
+    private final MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
+    private final AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
+    private final UnitConversionService unitConversionService;
+    private final IngredientRepository ingredientRepository;
+
+    /**
+     * Initializes all needed repositories and services for this service
+     * @param headcountService Service providing the number of people at every meal slot
+     * @param mainRecipeProjectMealRepository Database access for main recipes and their meal slots
+     * @param alternativeRecipeProjectMealRepository Database access for alternative recipes and their meal slots
+     * @param unitConversionService Service providing the unit conversion graph of a project
+     * @param ingredientRepository Database access for the ingredients of recipes
+     */
+    @Autowired
+    public ShoppingListService(HeadcountService headcountService,
+                               MainRecipeProjectMealRepository mainRecipeProjectMealRepository,
+                               AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository,
+                               UnitConversionService unitConversionService,
+                               IngredientRepository ingredientRepository) {
+        this.headcountService = headcountService;
+        this.mainRecipeProjectMealRepository = mainRecipeProjectMealRepository;
+        this.alternativeRecipeProjectMealRepository = alternativeRecipeProjectMealRepository;
+        this.unitConversionService = unitConversionService;
+        this.ingredientRepository = ingredientRepository;
+    }
+
+    /**
+     * Computes the shopping list of a project. The number of queries does not depend on the size of the project.
+     *
+     * @param projectID Online ID of the project
+     * @return The shopping list
+     */
+    @Transactional(readOnly = true)
+    public ShoppingList getShoppingList(long projectID) {
+        HeadcountTimeline timeline = headcountService.getTimeline(projectID);
+        List<RecipeForProject> recipes =
+                new ArrayList<>(mainRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID));
+        recipes.addAll(alternativeRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID));
+
+        Set<Long> recipeIDs = new HashSet<>();
+        for (RecipeForProject recipe : recipes) {
+            recipeIDs.add(recipe.recipeID());
+        }
+        Collection<IngredientQuantityDTO> ingredients = recipeIDs.isEmpty() ? List.of()
+                : ingredientRepository.findQuantitiesByRecipe_IdIn(recipeIDs);
+
+        return ShoppingListAggregator.aggregate(timeline, recipes, ingredients,
+                unitConversionService.getGraph(projectID));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend.services;
+
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.repositories.projects.ProjectRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.UnitConversionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * This service converts quantities between units using the unit conversions of a project. The conversion graph and
+ * its closure are built once per project version, so a conversion only costs reading the current version of the
+ * project.
+ */
+@Service
+public class UnitConversionService {
+    private final ProjectRepository projectRepo;
+    private final UnitConversionRepository unitConversionRepository;
+
+    private final ProjectVersionCache<UnitConversionGraph> graphs;
+
+    /**
+     * Initializes all needed repositories for this service
+     * @param projectRepository Database access for projects
+     * @param unitConversionRepository Database access for unit conversions
+     * @param maxProjects The maximum number of projects whose conversion graph is kept
+     */
+    @Autowired
+    public UnitConversionService(ProjectRepository projectRepository,
+                                 UnitConversionRepository unitConversionRepository,
+                                 @Value("${kitchenplaner.unit-conversion-cache.max-projects:500}") int maxProjects) {
+        this.projectRepo = projectRepository;
+        this.unitConversionRepository = unitConversionRepository;
+        this.graphs = new ProjectVersionCache<>(maxProjects, UnitConversionGraph::getVersionNumber);
+    }
+
+    /**
+     * Provides the factor to convert a quantity of an ingredient from one unit into another within a project
+     *
+     * @param projectID  Online ID of the project
+     * @param ingredient The ingredient, or nothing to only use the conversions for all ingredients
+     * @param from       The unit the quantity is measured in
+     * @param to         The unit the quantity should be converted to
+     * @return The factor or nothing if the units can not be converted into each other
+     */
+    @Transactional(readOnly = true)
+    public OptionalDouble getFactor(long projectID, String ingredient, String from, String to) {
+        return getGraph(projectID).factor(ingredient, from, to);
+    }
+
+    /**
+     * Provides the conversion graph of the current version of a project, building it if necessary
+     *
+     * @param projectID Online ID of the project
+     * @return The conversion graph
+     */
+    @Transactional(readOnly = true)
+    public UnitConversionGraph getGraph(long projectID) {
+        Optional<Long> version = projectRepo.findProjectVersionById(projectID);
+        if (version.isEmpty()) {
+            graphs.remove(projectID);
+            throw new NoSuchElementException("There is no project " + projectID);
+        }
+        UnitConversionGraph graph = graphs.get(projectID, version.get());
+        if (graph != null) {
+            return graph;
+        }
+
+        graph = UnitConversionGraph.build(projectID, version.get(),
+                unitConversionRepository.findUnitConversionsByProject_Id(projectID));
+        graphs.put(projectID, graph);
+        return graph;
+    }
+}
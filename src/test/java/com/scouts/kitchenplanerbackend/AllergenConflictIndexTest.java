@@ -0,0 +1,111 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.planning.AllergenConflictIndex;
+import com.scouts.kitchenplanerbackend.planning.HeadcountTimeline;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenConflict;
+import com.scouts.kitchenplanerbackend.projectdtos.MealSlotConflicts;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AllergenConflictIndexTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    private static final Map<Integer, String> ALLERGENS = Map.of(1, "Gluten", 2, "Nüsse", 3, "Ei");
+
+    @Test
+    void personsAreMatchedAgainstTheRecipesOfTheSlotsTheyArePresentAt() {
+        // Anna has to avoid gluten and even traces of nuts, Ben only eggs and arrives on the second day
+        List<AllergenPersonStubDTO> people = List.of(new Person("Anna", 0, 1), new Person("Ben", 1, 1));
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 1, START, START.plusDays(1),
+                List.of("Frühstück", "Mittagessen", "Abendessen"), List.of(), people);
+        AllergenConflictIndex index = AllergenConflictIndex.build(timeline, people,
+                List.of(new Allergen("Anna", 1, false), new Allergen("Anna", 2, true), new Allergen("Ben", 3, false)),
+                List.of(new Speciality(10L, 1, DietaryTypes.ALLERGEN),
+                        new Speciality(11L, 2, DietaryTypes.TRACE),
+                        new Speciality(12L, 1, DietaryTypes.TRACE),
+                        new Speciality(13L, 3, DietaryTypes.ALLERGEN),
+                        new Speciality(13L, 2, DietaryTypes.TRACE),
+                        new Speciality(13L, 1, DietaryTypes.FREE_OF)),
+                ALLERGENS::get);
+
+        List<MealSlotConflicts> conflicts = index.conflicts(List.of(
+                new RecipeForProject(START, "Frühstück", 13, true),
+                // traces of nuts rule out the first alternative, but traces of gluten are fine for Anna
+                new RecipeForProject(START, "Mittagessen", 10, true),
+                new RecipeForProject(START, "Mittagessen", 11, false),
+                new RecipeForProject(START, "Mittagessen", 12, false),
+                new RecipeForProject(START.plusDays(1), "Abendessen", 13, true),
+                new RecipeForProject(START.plusDays(1), "Abendessen", 10, false)));
+
+        assertEquals(List.of(
+                new MealSlotConflicts(START, "Frühstück", 13L,
+                        List.of(new AllergenConflict("Anna", List.of("Nüsse"), null))),
+                new MealSlotConflicts(START, "Mittagessen", 10L,
+                        List.of(new AllergenConflict("Anna", List.of("Gluten"), 12L))),
+                new MealSlotConflicts(START.plusDays(1), "Abendessen", 13L,
+                        List.of(new AllergenConflict("Anna", List.of("Nüsse"), null),
+                                new AllergenConflict("Ben", List.of("Ei"), 10L)))), conflicts);
+    }
+
+    @Test
+    void personsWithoutConflictsAreNotListed() {
+        List<AllergenPersonStubDTO> people = List.of(new Person("Anna", 0, 0));
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 1, START, START.plusDays(1),
+                List.of("Mittagessen"), List.of(), people);
+        AllergenConflictIndex index = AllergenConflictIndex.build(timeline, people,
+                List.of(new Allergen("Anna", 1, false)),
+                List.of(new Speciality(10L, 1, DietaryTypes.ALLERGEN), new Speciality(11L, 1, DietaryTypes.FREE_OF)),
+                ALLERGENS::get);
+
+        // Anna has already left when the gluten is served
+        assertEquals(List.of(new MealSlotConflicts(START, "Mittagessen", 11L, List.of()),
+                        new MealSlotConflicts(START.plusDays(1), "Mittagessen", 10L, List.of())),
+                index.conflicts(List.of(new RecipeForProject(START, "Mittagessen", 11, true),
+                        new RecipeForProject(START.plusDays(1), "Mittagessen", 10, true))));
+    }
+
+    private record Person(String getName, Integer getArrivalDay, Integer getDepartureDay)
+            implements AllergenPersonStubDTO {
+        @Override
+        public String getArrivalMeal() {
+            return null;
+        }
+
+        @Override
+        public String getDepartureMeal() {
+            return null;
+        }
+    }
+
+    private record Allergen(String getAllergenPerson, int getAllergenId, Boolean getTraces) implements AllergenDTO {
+    }
+
+    private record Speciality(Long getRecipeId, int getSpecialityId, DietaryTypes getType)
+            implements DietarySpecialityDTO {
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+import com.scouts.kitchenplanerbackend.planning.HeadcountTimeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HeadcountTimelineTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    private static final List<String> MEALS = List.of("Frühstück", "Mittagessen", "Abendessen");
+
+    @Test
+    void headcountsAreRunningSumsOfChanges() {
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 3, date(0), date(2), MEALS, List.of(
+                // arrivals before the start of the project count for the first meal
+                change(-1, "Abendessen", 10),
+                change(0, "Mittagessen", 5),
+                change(2, "Frühstück", -12),
+                change(5, "Frühstück", 100)), List.of());
+
+        assertArrayEquals(new int[][]{{10, 15, 15}, {15, 15, 15}, {3, 3, 3}}, timeline.headcountGrid());
+        assertEquals(15, timeline.headcount(START.plusDays(1), "Mittagessen"));
+        assertEquals(10 + 15 + 15 + 15, timeline.portions(START, "Frühstück", START.plusDays(1), "Frühstück"));
+        assertEquals(0, timeline.portions(START.plusDays(1), "Frühstück", START, "Frühstück"));
+        assertThrows(IllegalArgumentException.class, () -> timeline.headcount(START.plusDays(3), "Frühstück"));
+        assertThrows(IllegalArgumentException.class, () -> timeline.headcount(START, "Vesper"));
+    }
+
+    @Test
+    void allergenPeopleArePresentFromArrivalToDeparture() {
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 3, date(0), date(2), MEALS, List.of(), List.of(
+                person(0, "Mittagessen", 1, "Mittagessen"),
+                person(1, null, 4, "Frühstück")));
+
+        assertArrayEquals(new int[][]{{0, 1, 1}, {2, 2, 1}, {1, 1, 1}}, timeline.allergenPeopleGrid());
+    }
+
+    @Test
+    void overlongProjectsAndMissingDatesAreNoMealSlots() {
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 3, date(0), LocalDate.MAX, MEALS, List.of(),
+                List.of());
+
+        assertEquals(ScheduleDays.MAX_DAYS, timeline.headcountGrid().length);
+        assertEquals(-1, timeline.slotIndex(null, "Frühstück"));
+        assertThrows(IllegalArgumentException.class, () -> timeline.headcount(null, "Frühstück"));
+        assertThrows(IllegalArgumentException.class, () -> ScheduleDays.checkDuration(date(0), LocalDate.MAX));
+    }
+
+    private static LocalDate date(int dayOffset) {
+        return START.plusDays(dayOffset);
+    }
+
+    private static PersonNumberChangeStubDTO change(Integer day, String meal, int differenceBefore) {
+        return new PersonNumberChangeStubDTO() {
+            @Override
+            public Integer getDay() {
+                return day;
+            }
+
+            @Override
+            public String getMeal() {
+                return meal;
+            }
+
+            @Override
+            public int getDifferenceBefore() {
+                return differenceBefore;
+            }
+        };
+    }
+
+    private static AllergenPersonStubDTO person(Integer arrivalDay, String arrivalMeal, Integer departureDay,
+                                                String departureMeal) {
+        return new AllergenPersonStubDTO() {
+            @Override
+            public String getName() {
+                return "Person";
+            }
+
+            @Override
+            public Integer getArrivalDay() {
+                return arrivalDay;
+            }
+
+            @Override
+            public Integer getDepartureDay() {
+                return departureDay;
+            }
+
+            @Override
+            public String getArrivalMeal() {
+                return arrivalMeal;
+            }
+
+            @Override
+            public String getDepartureMeal() {
+                return departureMeal;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.imaging.ByteBufferResource;
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
+import com.scouts.kitchenplanerbackend.services.ImageCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void cachedImagesAreServedFromMemory() throws IOException {
+        ImageCache cache = new ImageCache(100, 50);
+        Path file = file("image", 40);
+
+        assertFalse(cache.get("project", 1, 1, ImageSize.ORIGINAL).isPresent());
+        Resource loaded = cache.load("project", 1, 1, ImageSize.ORIGINAL, file);
+        Resource cached = cache.get("project", 1, 1, ImageSize.ORIGINAL).orElseThrow();
+
+        assertInstanceOf(ByteBufferResource.class, loaded);
+        try (InputStream in = cached.getInputStream()) {
+            assertArrayEquals(Files.readAllBytes(file), in.readAllBytes());
+        }
+        assertEquals(new ImageCache.Statistics(1, 1, 0.5, 0, 40, 1), cache.getStatistics());
+    }
+
+    @Test
+    void largeImagesAreNotCached() throws IOException {
+        ImageCache cache = new ImageCache(100, 50);
+
+        assertInstanceOf(FileSystemResource.class, cache.load("recipe", 1, 1, ImageSize.ORIGINAL, file("big", 70)));
+        assertEquals(0, cache.getStatistics().residentBytes());
+    }
+
+    @Test
+    void leastRecentlyUsedImagesAreEvicted() throws IOException {
+        ImageCache cache = new ImageCache(100, 50);
+        Path file = file("image", 40);
+        cache.load("recipe", 1, 1, ImageSize.THUMBNAIL, file);
+        cache.load("recipe", 2, 1, ImageSize.THUMBNAIL, file);
+        cache.get("recipe", 1, 1, ImageSize.THUMBNAIL);
+        cache.load("recipe", 3, 1, ImageSize.THUMBNAIL, file);
+
+        assertTrue(cache.get("recipe", 1, 1, ImageSize.THUMBNAIL).isPresent());
+        assertFalse(cache.get("recipe", 2, 1, ImageSize.THUMBNAIL).isPresent());
+        assertEquals(1, cache.getStatistics().evictions());
+    }
+
+    @Test
+    void olderImageVersionsAreReplaced() throws IOException {
+        ImageCache cache = new ImageCache(100, 50);
+        cache.load("project", 1, 1, ImageSize.LIST, file("old", 30));
+        cache.load("project", 1, 2, ImageSize.LIST, file("new", 20));
+
+        assertFalse(cache.get("project", 1, 1, ImageSize.LIST).isPresent());
+        assertEquals(20, cache.getStatistics().residentBytes());
+    }
+
+    private Path file(String name, int length) throws IOException {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return Files.write(directory.resolve(name), content);
+    }
+}
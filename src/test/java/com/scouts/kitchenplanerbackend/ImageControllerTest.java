@@ -0,0 +1,133 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
+import com.scouts.kitchenplanerbackend.services.ImageIOService;
+import com.scouts.kitchenplanerbackend.services.ImageIOService.VersionedImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ImageControllerTest {
+    private static final long IMAGE_VERSION = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImageIOService imageIOService;
+
+    private FileSystemResource original;
+
+    private FileSystemResource thumbnail;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) throws IOException {
+        original = new FileSystemResource(Files.writeString(directory.resolve("photo.jpg"), "0123456789"));
+        thumbnail = new FileSystemResource(Files.writeString(directory.resolve("photo.jpg.thumbnail.jpg"), "0123"));
+    }
+
+    @Test
+    void unchangedImagesAreNotSentAgain() throws Exception {
+        when(imageIOService.getRecipeImage(1L, ImageSize.ORIGINAL))
+                .thenReturn(new VersionedImage(original, IMAGE_VERSION, ImageSize.ORIGINAL));
+        when(imageIOService.getProjectImage(2L, ImageSize.THUMBNAIL))
+                .thenReturn(new VersionedImage(thumbnail, IMAGE_VERSION, ImageSize.THUMBNAIL));
+
+        mockMvc.perform(get("/media/recipes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"recipe-1-v3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().string("0123456789"));
+        mockMvc.perform(get("/media/recipes/1").header(HttpHeaders.IF_NONE_MATCH, "\"recipe-1-v3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/media/recipes/1").header(HttpHeaders.IF_NONE_MATCH, "\"recipe-1-v2\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/media/projects/2").param("size", "THUMBNAIL")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"project-2-v3-thumbnail\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void rangesOfAnImageCanBeRequested() throws Exception {
+        when(imageIOService.getRecipeImage(1L, ImageSize.ORIGINAL))
+                .thenReturn(new VersionedImage(original, IMAGE_VERSION, ImageSize.ORIGINAL));
+
+        mockMvc.perform(get("/media/recipes/1").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void imageVersionsMayBeCachedForever() throws Exception {
+        when(imageIOService.getRecipeImage(1L, ImageSize.THUMBNAIL))
+                .thenReturn(new VersionedImage(thumbnail, IMAGE_VERSION, ImageSize.THUMBNAIL));
+        when(imageIOService.getRecipeImage(1L, ImageSize.LIST))
+                .thenReturn(new VersionedImage(original, IMAGE_VERSION, ImageSize.ORIGINAL));
+
+        mockMvc.perform(get("/media/recipes/1/versions/3").param("size", "THUMBNAIL"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"recipe-1-v3-thumbnail\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                .andExpect(content().string("0123"));
+        // the original standing in for a derivative that is not generated yet has to be revalidated
+        mockMvc.perform(get("/media/recipes/1/versions/3").param("size", "LIST"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"recipe-1-v3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void outdatedImageVersionsAreRedirectedToTheCurrentOne() throws Exception {
+        when(imageIOService.getRecipeImage(1L, ImageSize.THUMBNAIL))
+                .thenReturn(new VersionedImage(thumbnail, IMAGE_VERSION, ImageSize.THUMBNAIL));
+        when(imageIOService.getProjectImage(2L, ImageSize.ORIGINAL))
+                .thenReturn(new VersionedImage(original, IMAGE_VERSION, ImageSize.ORIGINAL));
+
+        mockMvc.perform(get("/media/recipes/1/versions/2").param("size", "THUMBNAIL"))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/media/recipes/1/versions/3?size=THUMBNAIL"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        mockMvc.perform(get("/media/projects/2/versions/1"))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/media/projects/2/versions/3"));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.imaging.ImageScaler;
+import com.scouts.kitchenplanerbackend.imaging.ImageSize;
+import com.scouts.kitchenplanerbackend.services.ImageDerivativeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageDerivativeTest {
+
+    @Test
+    void imagesAreScaledDownKeepingTheirAspectRatio() {
+        BufferedImage scaled = ImageScaler.scale(new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_ARGB), 200);
+
+        assertEquals(200, scaled.getWidth());
+        assertEquals(150, scaled.getHeight());
+    }
+
+    @Test
+    void imagesAreNeverScaledUp() {
+        BufferedImage scaled = ImageScaler.scale(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), 200);
+
+        assertEquals(100, scaled.getWidth());
+        assertEquals(50, scaled.getHeight());
+    }
+
+    @Test
+    void allDerivativesAreWrittenNextToTheOriginal(@TempDir Path directory) throws IOException {
+        Path original = directory.resolve("photo.png");
+        ImageIO.write(new BufferedImage(3000, 1000, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+        ImageDerivativeService service = new ImageDerivativeService(1, 1);
+
+        service.writeDerivatives(original);
+
+        assertEquals(1280, ImageIO.read(ImageSize.DETAIL.resolve(original).toFile()).getWidth());
+        assertEquals(640, ImageIO.read(ImageSize.LIST.resolve(original).toFile()).getWidth());
+        assertEquals(200, ImageIO.read(ImageSize.THUMBNAIL.resolve(original).toFile()).getWidth());
+
+        service.deleteDerivatives(original);
+        service.shutdown();
+
+        assertFalse(Files.exists(ImageSize.THUMBNAIL.resolve(original)));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void originalsThatCanNotBeDecodedAreNotScheduledAgain(@TempDir Path directory)
+            throws IOException, InterruptedException {
+        Path original = directory.resolve("photo.heic");
+        Files.writeString(original, "not an image ImageIO can decode");
+        ImageDerivativeService service = new ImageDerivativeService(1, 1);
+
+        assertThrows(IOException.class, () -> service.writeDerivatives(original));
+        service.generate(original);
+        for (int i = 0; i < 100 && !service.hasFailed(original); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(service.hasFailed(original));
+
+        // deleting the image forgets the failure, since a new upload is stored under a new file name anyway
+        service.deleteDerivatives(original);
+        service.shutdown();
+        assertFalse(service.hasFailed(original));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.projects.ScheduleDays;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.projects.AlternativeRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.MainRecipeProjectMealRepository;
+import com.scouts.kitchenplanerbackend.repositories.projects.PersonNumberChangeRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.services.ProjectElementService;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shows the effect of referencing meals by their surrogate key on a large project: the keys of the meal slot tables
+ * only contain the meal ID, the slot tables are joined on it and renaming a meal writes a single meal row. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class MealKeyBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    // the longest project that is accepted
+    private static final int DAYS = ScheduleDays.MAX_DAYS - 1;
+    private static final List<String> SLOT_TABLES = List.of("MAIN_RECIPE_PROJECT_MEAL_ENTITY",
+            "ALTERNATIVE_RECIPE_PROJECT_MEAL", "PERSON_NUMBER_CHANGE_ENTITY");
+    private final Logger logger = LoggerFactory.getLogger(MealKeyBenchmark.class);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectElementService projectElementService;
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    @Autowired
+    private MainRecipeProjectMealRepository mainRecipeProjectMealRepository;
+
+    @Autowired
+    private AlternativeRecipeProjectMealRepository alternativeRecipeProjectMealRepository;
+
+    @Autowired
+    private PersonNumberChangeRepository personNumberChangeRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id);
+            recipe.setName("Recipe " + id);
+            recipe.setNumberOfPeople(4);
+            recipeRepo.save(recipe);
+        }
+    }
+
+    @Test
+    void slotTablesAreKeyedByMealID() {
+        projectService.saveNewProject(createProject(DAYS));
+        for (String table : SLOT_TABLES) {
+            List<String> keyColumns = jdbcTemplate.queryForList("select c.column_name " +
+                    "from information_schema.index_columns c join information_schema.indexes i " +
+                    "on c.index_schema = i.index_schema and c.index_name = i.index_name " +
+                    "where c.table_name = ? and i.index_type_name = 'PRIMARY KEY' " +
+                    "order by c.ordinal_position", String.class, table);
+            logger.info("Primary key of {}: {}", table, keyColumns);
+            assertTrue(keyColumns.contains("MEAL_ID"));
+            assertFalse(keyColumns.stream().anyMatch(column -> column.startsWith("MEAL_NAME")));
+        }
+    }
+
+    @Test
+    void loadMealSlots() {
+        long projectID = projectService.saveNewProject(createProject(DAYS));
+        int rows = 0;
+        for (int i = 0; i < 5; i++) {
+            rows = loadSlots(projectID);
+        }
+        int runs = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            loadSlots(projectID);
+        }
+        long micros = (System.nanoTime() - start) / 1000 / runs;
+        logger.info("Loaded {} meal slot rows joined with their meals in {} us ({} ns per row)", rows, micros,
+                micros * 1000 / rows);
+        assertEquals(3 * DAYS, rows);
+    }
+
+    @Test
+    void renameMeal() {
+        long projectID = projectService.saveNewProject(createProject(DAYS));
+        long versionNumber = projectService.getProjectStub(projectID).getProjectVersion();
+
+        long start = System.nanoTime();
+        ProjectUpdateResult result =
+                projectElementService.renameMeal(projectID, versionNumber, "Mittagessen", "Lunch");
+        long micros = (System.nanoTime() - start) / 1000;
+        logger.info("Renamed a meal used by {} meal slots in {} ms: {}", 2 * DAYS, micros / 1000, result);
+
+        assertEquals(0, result.insertedRows());
+        assertEquals(2, result.updatedRows());
+        assertEquals(0, result.deletedRows());
+        assertTrue(mainRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID).stream()
+                .allMatch(recipe -> recipe.meal().equals("Lunch")));
+    }
+
+    private int loadSlots(long projectID) {
+        return mainRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID).size()
+                + alternativeRecipeProjectMealRepository.findRecipesForProjectByProject_Id(projectID).size()
+                + personNumberChangeRepo.findPersonNumberChangesByProject_Id(projectID).size();
+    }
+
+    private static Project createProject(int size) {
+        LocalDate end = START.plusDays(size);
+        List<AllergenPerson> people = new ArrayList<>();
+        List<RecipeForProject> recipes = new ArrayList<>();
+        List<PersonNumberChange> changes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LocalDate date = START.plusDays(i);
+            recipes.add(new RecipeForProject(date, "Mittagessen", 1, true));
+            recipes.add(new RecipeForProject(date, "Mittagessen", 2, false));
+            changes.add(new PersonNumberChange(date, "Frühstück", 1));
+        }
+        people.add(new AllergenPerson("Person", START, end, "Frühstück", "Abendessen", List.of("Gluten"),
+                List.of()));
+        return new Project("Project with " + size + " days", List.of("Frühstück", "Mittagessen", "Abendessen"),
+                START, end, people, recipes, List.of(new UnitConversion("EL", "g", "Zucker", 15)), changes);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.services.ProjectAggregateLoader;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ProjectAggregateLoaderTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectAggregateLoader loader;
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id);
+            recipe.setName("Recipe " + id);
+            recipe.setNumberOfPeople(4);
+            recipeRepo.save(recipe);
+        }
+    }
+
+    @Test
+    void statementCountDoesNotDependOnProjectSize() {
+        long smallProjectID = projectService.saveNewProject(createProject(1));
+        long largeProjectID = projectService.saveNewProject(createProject(20));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Project smallProject = loader.load(smallProjectID);
+        long smallProjectStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        Project largeProject = loader.load(largeProjectID);
+        long largeProjectStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(smallProjectStatements, largeProjectStatements);
+
+        assertEquals(1, smallProject.allergenPeople().size());
+        assertEquals(20, largeProject.allergenPeople().size());
+        assertEquals(40, largeProject.recipes().size());
+        assertEquals(20, largeProject.personNumberChange().size());
+        assertEquals(1, largeProject.unitConversions().size());
+        assertEquals(List.of("Frühstück", "Mittagessen", "Abendessen"), largeProject.meals());
+        AllergenPerson person = largeProject.allergenPeople().get(0);
+        assertEquals("Frühstück", person.arrivalMeal());
+        assertEquals("Abendessen", person.departureMeal());
+        assertEquals(2, person.allergen().size());
+        assertEquals(List.of("Nüsse"), person.traces());
+    }
+
+    private Project createProject(int size) {
+        LocalDate end = START.plusDays(size);
+        List<AllergenPerson> people = new ArrayList<>();
+        List<RecipeForProject> recipes = new ArrayList<>();
+        List<PersonNumberChange> changes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LocalDate date = START.plusDays(i);
+            people.add(new AllergenPerson("Person " + i, START, end, "Frühstück", "Abendessen",
+                    List.of("Gluten", "Ei"), List.of("Nüsse")));
+            recipes.add(new RecipeForProject(date, "Mittagessen", 1, true));
+            recipes.add(new RecipeForProject(date, "Mittagessen", 2, false));
+            changes.add(new PersonNumberChange(date, "Frühstück", 1));
+        }
+        return new Project("Project with " + size + " people", List.of("Frühstück", "Mittagessen", "Abendessen"),
+                START, end, people, recipes, List.of(new UnitConversion("EL", "g", "Zucker", 15)), changes);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.exceptions.ProjectVersionConflictException;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectDelta;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.services.ProjectElementService;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+public class ProjectElementServiceTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectElementService elementService;
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    private long projectID;
+    private long initialVersion;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id);
+            recipe.setName("Recipe " + id);
+            recipe.setNumberOfPeople(4);
+            recipeRepo.save(recipe);
+        }
+        projectID = projectService.saveNewProject(new Project("Sommerlager",
+                List.of("Frühstück", "Mittagessen", "Abendessen"), START, START.plusDays(2), List.of(), List.of(),
+                List.of(), List.of()));
+        initialVersion = version();
+    }
+
+    @Test
+    void allergenPeopleAreWrittenOnlyWhenChanged() {
+        AllergenPerson anna = new AllergenPerson("Anna", START, START.plusDays(2), "Frühstück", "Abendessen",
+                List.of("Gluten", "Ei"), List.of("Nüsse"));
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 4, 1, 0),
+                elementService.putAllergenPerson(projectID, initialVersion, anna));
+
+        AllergenPerson reordered = new AllergenPerson("Anna", START, START.plusDays(2), "Frühstück", "Abendessen",
+                List.of("Ei", "Gluten"), List.of("Nüsse"));
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 0, 0, 0),
+                elementService.putAllergenPerson(projectID, initialVersion + 1, reordered));
+        assertEquals(initialVersion + 1, version());
+
+        AllergenPerson changed = new AllergenPerson("Anna", START, START.plusDays(1), "Frühstück", "Mittagessen",
+                List.of("Gluten"), List.of("Nüsse"));
+        assertEquals(new ProjectUpdateResult(initialVersion + 2, 0, 2, 1),
+                elementService.putAllergenPerson(projectID, initialVersion + 1, changed));
+        ProjectDelta delta = projectService.getProjectDelta(projectID, initialVersion + 1);
+        assertEquals(List.of(changed), delta.added().allergenPeople());
+        // the journal holds the allergens of a person in alphabetical order
+        assertEquals(List.of(reordered), delta.removed().allergenPeople());
+
+        assertEquals(new ProjectUpdateResult(initialVersion + 3, 0, 1, 3),
+                elementService.deleteAllergenPerson(projectID, initialVersion + 2, "Anna"));
+        delta = projectService.getProjectDelta(projectID, initialVersion);
+        assertEquals(List.of(), delta.added().allergenPeople());
+        assertEquals(List.of(), delta.removed().allergenPeople());
+    }
+
+    @Test
+    void changesBasedOnAnOutdatedVersionAreRejected() {
+        elementService.addMeal(projectID, initialVersion, "Vesper");
+
+        ProjectVersionConflictException conflict = assertThrows(ProjectVersionConflictException.class,
+                () -> elementService.addMeal(projectID, initialVersion, "Nachtisch"));
+        assertEquals(initialVersion + 1, conflict.getCurrentVersion());
+        assertThrows(ProjectVersionConflictException.class,
+                () -> elementService.putPersonNumberChange(projectID, initialVersion,
+                        new PersonNumberChange(START, "Frühstück", 10)));
+        assertEquals(initialVersion + 1, version());
+    }
+
+    @Test
+    void mealsAreAddedAndDeleted() {
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 1, 1, 0),
+                elementService.addMeal(projectID, initialVersion, "Vesper"));
+        assertEquals(List.of("Frühstück", "Mittagessen", "Abendessen", "Vesper"),
+                projectService.getProject(projectID).meals());
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 0, 0, 0),
+                elementService.renameMeal(projectID, initialVersion + 1, "Vesper", "Vesper"));
+        assertEquals(new ProjectUpdateResult(initialVersion + 2, 0, 1, 1),
+                elementService.deleteMeal(projectID, initialVersion + 1, "Vesper"));
+
+        ProjectDelta delta = projectService.getProjectDelta(projectID, initialVersion);
+        assertEquals(List.of(), delta.added().meals());
+        assertEquals(List.of(), delta.removed().meals());
+        assertThrows(IllegalArgumentException.class,
+                () -> elementService.addMeal(projectID, initialVersion + 2, "Frühstück"));
+    }
+
+    @Test
+    void mealsInUseAreNotDeleted() {
+        elementService.putRecipe(projectID, initialVersion, new RecipeForProject(START, "Mittagessen", 1, true));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> elementService.deleteMeal(projectID, initialVersion + 1, "Mittagessen"));
+    }
+
+    @Test
+    void mainRecipesReplaceTheRecipeOfTheirMealSlot() {
+        RecipeForProject first = new RecipeForProject(START, "Mittagessen", 1, true);
+        RecipeForProject second = new RecipeForProject(START, "Mittagessen", 2, true);
+        RecipeForProject alternative = new RecipeForProject(START, "Mittagessen", 1, false);
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 1, 1, 0),
+                elementService.putRecipe(projectID, initialVersion, first));
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 0, 0, 0),
+                elementService.putRecipe(projectID, initialVersion + 1, first));
+        assertEquals(new ProjectUpdateResult(initialVersion + 2, 0, 2, 0),
+                elementService.putRecipe(projectID, initialVersion + 1, second));
+        assertEquals(new ProjectUpdateResult(initialVersion + 3, 1, 1, 0),
+                elementService.putRecipe(projectID, initialVersion + 2, alternative));
+
+        ProjectDelta delta = projectService.getProjectDelta(projectID, initialVersion);
+        assertEquals(List.of(second, alternative), delta.added().recipes());
+        assertEquals(List.of(), delta.removed().recipes());
+
+        assertEquals(new ProjectUpdateResult(initialVersion + 4, 0, 1, 1),
+                elementService.deleteRecipe(projectID, initialVersion + 3, alternative));
+        assertEquals(List.of(second), projectService.getProject(projectID).recipes());
+        assertThrows(NoSuchElementException.class,
+                () -> elementService.deleteRecipe(projectID, initialVersion + 4, first));
+    }
+
+    @Test
+    void generalUnitConversionsAreStoredWithoutIngredient() {
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 1, 1, 0),
+                elementService.putUnitConversion(projectID, initialVersion, new UnitConversion("EL", "g", null, 15)));
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 0, 0, 0),
+                elementService.putUnitConversion(projectID, initialVersion + 1,
+                        new UnitConversion("EL", "g", "", 15)));
+        assertEquals(new ProjectUpdateResult(initialVersion + 2, 0, 2, 0),
+                elementService.putUnitConversion(projectID, initialVersion + 1,
+                        new UnitConversion("EL", "g", " ", 12)));
+
+        ProjectDelta delta = projectService.getProjectDelta(projectID, initialVersion);
+        assertEquals(List.of(new UnitConversion("EL", "g", "", 12)), delta.added().unitConversions());
+        assertEquals(List.of(), delta.removed().unitConversions());
+
+        assertEquals(new ProjectUpdateResult(initialVersion + 3, 0, 1, 1),
+                elementService.deleteUnitConversion(projectID, initialVersion + 2, "EL", "g", null));
+        assertEquals(List.of(), projectService.getProject(projectID).unitConversions());
+    }
+
+    @Test
+    void personNumberChangesAreWrittenOnlyWhenChanged() {
+        PersonNumberChange arrival = new PersonNumberChange(START, "Frühstück", 10);
+        PersonNumberChange moreArrivals = new PersonNumberChange(START, "Frühstück", 12);
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 1, 1, 0),
+                elementService.putPersonNumberChange(projectID, initialVersion, arrival));
+        assertEquals(new ProjectUpdateResult(initialVersion + 1, 0, 0, 0),
+                elementService.putPersonNumberChange(projectID, initialVersion + 1, arrival));
+        assertEquals(new ProjectUpdateResult(initialVersion + 2, 0, 2, 0),
+                elementService.putPersonNumberChange(projectID, initialVersion + 1, moreArrivals));
+
+        ProjectDelta delta = projectService.getProjectDelta(projectID, initialVersion + 1);
+        assertEquals(List.of(moreArrivals), delta.added().personNumberChange());
+        assertEquals(List.of(arrival), delta.removed().personNumberChange());
+
+        assertEquals(new ProjectUpdateResult(initialVersion + 3, 0, 1, 1),
+                elementService.deletePersonNumberChange(projectID, initialVersion + 2, START, "Frühstück"));
+        assertEquals(List.of(), projectService.getProject(projectID).personNumberChange());
+    }
+
+    private long version() {
+        return projectService.getProjectStub(projectID).getProjectVersion();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectDelta;
+import com.scouts.kitchenplanerbackend.services.ProjectElementService;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class ProjectJournalTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    private static final List<String> MEALS = List.of("Frühstück", "Mittagessen", "Abendessen");
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectElementService projectElementService;
+
+    @Test
+    void unchangedPeopleAreNotJournaledWhenTheirAllergensAreReordered() {
+        long projectID = projectService.saveNewProject(project(List.of(person("Anna", List.of("Gluten", "Ei")))));
+        Project stored = projectService.getProject(projectID);
+
+        projectService.updateProject(update(stored, List.of(person("Anna", List.of("Ei", "Gluten")),
+                person("Ben", List.of("Soja")))));
+        ProjectDelta delta = projectService.getProjectDelta(projectID, stored.versionNumber());
+
+        assertEquals(List.of("Ben"), delta.added().allergenPeople().stream().map(AllergenPerson::name).toList());
+        assertEquals(List.of(), delta.removed().allergenPeople());
+    }
+
+    @Test
+    void elementsAddedAndRemovedAgainAreNoChange() {
+        long projectID = projectService.saveNewProject(project(List.of(person("Anna", List.of("Gluten", "Ei")))));
+        Project stored = projectService.getProject(projectID);
+
+        projectService.updateProject(update(stored, List.of(person("Anna", List.of("Ei", "Gluten")),
+                person("Ben", List.of("Soja", "Ei")))));
+        Project withBen = projectService.getProject(projectID);
+        projectService.updateProject(update(withBen, List.of(person("Anna", List.of("Gluten", "Ei")))));
+        ProjectDelta delta = projectService.getProjectDelta(projectID, stored.versionNumber());
+
+        assertEquals(List.of(), delta.added().allergenPeople());
+        assertEquals(List.of(), delta.removed().allergenPeople());
+    }
+
+    @Test
+    void referencesMoveWithARenamedMealWhenItsOldNameIsAddedAgain() {
+        PersonNumberChange lunch = new PersonNumberChange(START.plusDays(1), "Mittagessen", 5);
+        long projectID = projectService.saveNewProject(new Project("Sommerlager", MEALS, START, START.plusDays(2),
+                List.of(person("Anna", List.of("Ei"))), List.of(), List.of(), List.of(lunch)));
+        long versionNumber = projectService.getProject(projectID).versionNumber();
+
+        projectElementService.renameMeal(projectID, versionNumber, "Mittagessen", "Vesper");
+        projectElementService.addMeal(projectID, versionNumber + 1, "Mittagessen");
+        ProjectDelta delta = projectService.getProjectDelta(projectID, versionNumber);
+
+        assertEquals(List.of("Frühstück", "Vesper", "Abendessen", "Mittagessen"), delta.meals());
+        assertEquals(List.of("Vesper"), delta.added().meals());
+        assertEquals(List.of(), delta.removed().meals());
+        assertEquals(List.of(new PersonNumberChange(START.plusDays(1), "Vesper", 5)),
+                delta.added().personNumberChange());
+        assertEquals(List.of(lunch), delta.removed().personNumberChange());
+        assertEquals(List.of(), delta.added().allergenPeople());
+    }
+
+    private static AllergenPerson person(String name, List<String> allergens) {
+        return new AllergenPerson(name, START, START.plusDays(2), "Frühstück", "Abendessen", allergens,
+                List.of("Nüsse", "Sesam"));
+    }
+
+    private static Project project(List<AllergenPerson> people) {
+        return new Project("Sommerlager", MEALS, START, START.plusDays(2), people, List.of(), List.of(), List.of());
+    }
+
+    private static Project update(Project stored, List<AllergenPerson> people) {
+        return new Project(stored.versionNumber(), stored.imageVersionNumber(), stored.name(), stored.id(),
+                stored.meals(), stored.startDate(), stored.endDate(), people, stored.recipes(),
+                stored.unitConversions(), stored.personNumberChange());
+    }
+}
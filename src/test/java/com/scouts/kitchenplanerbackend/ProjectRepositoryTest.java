@@ -27,8 +27,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Date;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -141,7 +141,7 @@ public class ProjectRepositoryTest {
         assertEquals(1, projectRepo.findById(projectID).get().getImageVersion());
         assertEquals(0, project.getProjectVersion());
 
-        projectRepo.updateMetaData("new Title", new Date(), new Date(), projectID);
+        projectRepo.updateMetaData("new Title", LocalDate.now(), LocalDate.now(), projectID);
         project = projectRepo.findById(1L).get();
 
         assertEquals(1, project.getProjectVersion());
@@ -150,6 +150,18 @@ public class ProjectRepositoryTest {
 
     }
 
+    @Test
+    void updateProjectIfVersion() {
+        long projectID = projectRepo.findAll().get(0).getId();
+
+        assertEquals(1, projectRepo.updateMetaDataIfVersion("first", LocalDate.now(), LocalDate.now(), projectID, 0L));
+        assertEquals(0, projectRepo.updateMetaDataIfVersion("second", LocalDate.now(), LocalDate.now(), projectID, 0L));
+
+        ProjectEntity project = projectRepo.findById(projectID).get();
+        assertEquals(1, project.getProjectVersion());
+        assertEquals("first", project.getName());
+    }
+
     @AfterEach
     void tearDown() {
         projectRepo.deleteAll();
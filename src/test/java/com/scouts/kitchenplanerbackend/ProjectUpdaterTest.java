@@ -0,0 +1,172 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.AlternativeRecipeProjectMeal;
+import com.scouts.kitchenplanerbackend.entities.projects.MainRecipeProjectMealEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.MealEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeEntity;
+import com.scouts.kitchenplanerbackend.entities.projects.UnitConversionEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ProjectUpdaterTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    private static final List<Class<?>> PROJECT_ROWS = List.of(MealEntity.class, AllergenPersonEntity.class,
+            AllergenEntity.class, MainRecipeProjectMealEntity.class, AlternativeRecipeProjectMeal.class,
+            UnitConversionEntity.class, PersonNumberChangeEntity.class);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id);
+            recipe.setName("Recipe " + id);
+            recipe.setNumberOfPeople(4);
+            recipeRepo.save(recipe);
+        }
+    }
+
+    @Test
+    void unchangedRowsAreNotWritten() {
+        Project stored = store(project());
+        Statistics statistics = statistics();
+
+        ProjectUpdateResult result = projectService.updateProject(stored);
+        entityManager.flush();
+
+        assertEquals(new ProjectUpdateResult(stored.versionNumber() + 1, 0, 1, 0), result);
+        for (Class<?> rows : PROJECT_ROWS) {
+            EntityStatistics entityStatistics = statistics.getEntityStatistics(rows.getName());
+            assertEquals(0, entityStatistics.getInsertCount(), rows.getSimpleName());
+            assertEquals(0, entityStatistics.getUpdateCount(), rows.getSimpleName());
+            assertEquals(0, entityStatistics.getDeleteCount(), rows.getSimpleName());
+        }
+    }
+
+    @Test
+    void onlyChangedRowsAreWrittenWhenAUsedMealIsRemoved() {
+        Project stored = store(project());
+        Statistics statistics = statistics();
+
+        // the dinner is removed together with its recipes and Anna now leaves after lunch
+        Project update = new Project(stored.versionNumber(), stored.imageVersionNumber(), stored.name(), stored.id(),
+                List.of("Frühstück", "Mittagessen"), stored.startDate(), stored.endDate(),
+                List.of(person("Mittagessen")),
+                List.of(new RecipeForProject(START, "Mittagessen", 1, true)),
+                List.of(new UnitConversion("EL", "g", "Zucker", 15), new UnitConversion("TL", "g", "Zucker", 5)),
+                stored.personNumberChange());
+        ProjectUpdateResult result = projectService.updateProject(update);
+        entityManager.flush();
+
+        // the project row itself counts as one updated row
+        assertEquals(new ProjectUpdateResult(stored.versionNumber() + 1, 1, 2, 3), result);
+        assertEquals(1, statistics.getEntityStatistics(AllergenPersonEntity.class.getName()).getUpdateCount());
+        assertEquals(0, statistics.getEntityStatistics(AllergenEntity.class.getName()).getUpdateCount());
+        assertEquals(0, statistics.getEntityStatistics(PersonNumberChangeEntity.class.getName()).getUpdateCount());
+        assertEquals(1, statistics.getEntityStatistics(MealEntity.class.getName()).getDeleteCount());
+
+        entityManager.clear();
+        Project reloaded = projectService.getProject(stored.id());
+        assertEquals(List.of("Frühstück", "Mittagessen"), reloaded.meals());
+        assertEquals(List.of(new RecipeForProject(START, "Mittagessen", 1, true)), reloaded.recipes());
+        assertEquals("Mittagessen", reloaded.allergenPeople().get(0).departureMeal());
+        assertEquals(Set.of("EL", "TL"), Set.copyOf(reloaded.unitConversions().stream()
+                .map(UnitConversion::startUnit).toList()));
+        assertEquals(stored.personNumberChange(), reloaded.personNumberChange());
+    }
+
+    @Test
+    void duplicateMealsAreRejected() {
+        Project stored = store(project());
+        Project update = new Project(stored.versionNumber(), stored.imageVersionNumber(), stored.name(), stored.id(),
+                List.of("Frühstück", "Mittagessen", "Abendessen", "Mittagessen"), stored.startDate(),
+                stored.endDate(), stored.allergenPeople(), stored.recipes(), stored.unitConversions(),
+                stored.personNumberChange());
+
+        assertThrows(IllegalArgumentException.class, () -> projectService.updateProject(update));
+    }
+
+    private Project store(Project project) {
+        long projectID = projectService.saveNewProject(project);
+        entityManager.flush();
+        entityManager.clear();
+        return projectService.getProject(projectID);
+    }
+
+    private Statistics statistics() {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static AllergenPerson person(String departureMeal) {
+        return new AllergenPerson("Anna", START, START.plusDays(1), "Frühstück", departureMeal, List.of("Gluten"),
+                List.of("Nüsse"));
+    }
+
+    private static Project project() {
+        return new Project("Sommerlager", List.of("Frühstück", "Mittagessen", "Abendessen"), START,
+                START.plusDays(1), List.of(person("Abendessen")),
+                List.of(new RecipeForProject(START, "Mittagessen", 1, true),
+                        new RecipeForProject(START, "Abendessen", 2, true),
+                        new RecipeForProject(START.plusDays(1), "Abendessen", 1, false)),
+                List.of(new UnitConversion("EL", "g", "Zucker", 15)),
+                List.of(new PersonNumberChange(START, "Frühstück", 10)));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.projectdtos.AllergenPerson;
+import com.scouts.kitchenplanerbackend.projectdtos.PersonNumberChange;
+import com.scouts.kitchenplanerbackend.projectdtos.Project;
+import com.scouts.kitchenplanerbackend.projectdtos.ProjectUpdateResult;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.services.ProjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures how long it takes to store projects of growing size. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class ProjectWriteBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    private final Logger logger = LoggerFactory.getLogger(ProjectWriteBenchmark.class);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 3; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id);
+            recipe.setName("Recipe " + id);
+            recipe.setNumberOfPeople(4);
+            recipeRepo.save(recipe);
+        }
+    }
+
+    @Test
+    void saveNewProject() {
+        projectService.saveNewProject(createProject(100));
+        for (int size : new int[]{200, 400, 800, 1600}) {
+            Project project = createProject(size);
+            long start = System.nanoTime();
+            projectService.saveNewProject(project);
+            long micros = (System.nanoTime() - start) / 1000;
+            int rows = rowCount(project);
+            logger.info("Saved project with {} rows in {} ms ({} us per row)", rows, micros / 1000,
+                    micros / rows);
+        }
+    }
+
+    @Test
+    void updateOneRecipe() {
+        Project project = createProject(800);
+        long projectID = projectService.saveNewProject(project);
+        List<RecipeForProject> recipes = new ArrayList<>(project.recipes());
+        RecipeForProject changed = recipes.get(0);
+        recipes.set(0, new RecipeForProject(changed.date(), changed.meal(), 3, true));
+
+        long start = System.nanoTime();
+        ProjectUpdateResult result = projectService.updateProject(new Project(0, 0, project.name(), projectID,
+                project.meals(), project.startDate(), project.endDate(), project.allergenPeople(), recipes,
+                project.unitConversions(), project.personNumberChange()));
+        long micros = (System.nanoTime() - start) / 1000;
+        logger.info("Updated one recipe of a project with {} rows in {} ms: {}", rowCount(project), micros / 1000,
+                result);
+
+        assertEquals(0, result.insertedRows());
+        assertEquals(2, result.updatedRows());
+        assertEquals(0, result.deletedRows());
+    }
+
+    private static int rowCount(Project project) {
+        int allergens = project.allergenPeople().stream()
+                .mapToInt(person -> person.allergen().size() + person.traces().size()).sum();
+        return 1 + project.meals().size() + project.allergenPeople().size() + allergens + project.recipes().size()
+                + project.unitConversions().size() + project.personNumberChange().size();
+    }
+
+    private static Project createProject(int size) {
+        LocalDate end = START.plusDays(size);
+        List<AllergenPerson> people = new ArrayList<>();
+        List<RecipeForProject> recipes = new ArrayList<>();
+        List<PersonNumberChange> changes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LocalDate date = START.plusDays(i);
+            people.add(new AllergenPerson("Person " + i, START, end, "Frühstück", "Abendessen",
+                    List.of("Gluten", "Ei"), List.of("Nüsse")));
+            recipes.add(new RecipeForProject(date, "Mittagessen", 1, true));
+            recipes.add(new RecipeForProject(date, "Mittagessen", 2, false));
+            changes.add(new PersonNumberChange(date, "Frühstück", 1));
+        }
+        return new Project("Project with " + size + " people", List.of("Frühstück", "Mittagessen", "Abendessen"),
+                START, end, people, recipes, List.of(new UnitConversion("EL", "g", "Zucker", 15)), changes);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietarySpecialityEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.InstructionEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.repositories.recipes.DietarySpecialityRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.IngredientRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.InstructionRepository;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import com.scouts.kitchenplanerbackend.services.AllergenDictionary;
+import com.scouts.kitchenplanerbackend.services.RecipeAggregateLoader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class RecipeAggregateLoaderTest {
+    private static final int RECIPES = 20;
+
+    @Autowired
+    private RecipeAggregateLoader loader;
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    @Autowired
+    private IngredientRepository ingredientRepo;
+
+    @Autowired
+    private InstructionRepository instructionRepo;
+
+    @Autowired
+    private DietarySpecialityRepository dietarySpecialityRepo;
+
+    @Autowired
+    private AllergenDictionary allergenDictionary;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= RECIPES; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id);
+            recipe.setName("Recipe " + id);
+            recipe.setNumberOfPeople(4);
+            recipe = recipeRepo.save(recipe);
+            for (int step = 2; step >= 0; step--) {
+                InstructionEntity instruction = new InstructionEntity();
+                instruction.setRecipe(recipe);
+                instruction.setStepNumber(step);
+                instruction.setInstruction("Step " + step);
+                instructionRepo.save(instruction);
+            }
+            for (String name : List.of("Nudeln", "Tomaten")) {
+                IngredientEntity ingredient = new IngredientEntity();
+                ingredient.setRecipe(recipe);
+                ingredient.setName(name);
+                ingredient.setIngredientGroup("Hauptgericht");
+                ingredient.setQuantity(500);
+                ingredient.setUnit("g");
+                ingredientRepo.save(ingredient);
+            }
+            DietarySpecialityEntity speciality = new DietarySpecialityEntity();
+            speciality.setRecipe(recipe);
+            speciality.setSpeciality(allergenDictionary.reference("Gluten"));
+            speciality.setType(DietaryTypes.ALLERGEN);
+            dietarySpecialityRepo.save(speciality);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void statementCountDoesNotDependOnNumberOfRecipes() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Recipe recipe = loader.load(1);
+        long singleRecipeStatements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        List<Long> ids = new ArrayList<>();
+        for (long id = RECIPES; id >= 1; id--) {
+            ids.add(id);
+        }
+        List<Recipe> recipes = loader.loadAll(ids);
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(singleRecipeStatements, batchStatements);
+
+        assertEquals(RECIPES, recipes.size());
+        assertEquals(RECIPES, recipes.get(0).id());
+        assertEquals("Recipe 1", recipe.name());
+        assertEquals(2, recipe.ingredients().size());
+        assertEquals(List.of("Step 0", "Step 1", "Step 2"), recipe.instructions());
+        assertEquals(List.of(new DietarySpeciality("Gluten", DietaryTypes.ALLERGEN)), recipe.dietarySpecialities());
+    }
+
+    @Test
+    void missingRecipesAreSkipped() {
+        assertEquals(1, loader.loadAll(List.of(1L, RECIPES + 1L)).size());
+        assertThrows(NoSuchElementException.class, () -> loader.load(RECIPES + 1));
+    }
+}
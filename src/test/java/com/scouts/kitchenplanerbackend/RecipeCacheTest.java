@@ -0,0 +1,82 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeStubPage;
+import com.scouts.kitchenplanerbackend.services.RecipeCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RecipeCacheTest {
+
+    @Test
+    void leastRecentlyUsedRecipesAreEvicted() {
+        RecipeCache cache = new RecipeCache(2, 2);
+        cache.putAll(List.of(recipe(1), recipe(2)), cache.generation());
+        cache.getAll(List.of(1L));
+        cache.putAll(List.of(recipe(3)), cache.generation());
+
+        assertEquals(Set.of(1L, 3L), cache.getAll(List.of(1L, 2L, 3L)).keySet());
+        assertEquals(new RecipeCache.Statistics(3, 1, 1, 2), cache.getStatistics());
+    }
+
+    @Test
+    void recipesLoadedBeforeAnInvalidationAreNotStored() {
+        RecipeCache cache = new RecipeCache(10, 10);
+        cache.putAll(List.of(recipe(1)), cache.generation());
+        long generation = cache.generation();
+        cache.invalidate(1);
+        cache.putAll(List.of(recipe(1)), generation);
+
+        assertEquals(0, cache.getAll(List.of(1L)).size());
+    }
+
+    @Test
+    void stubPagesAreDroppedWhenAnyRecipeIsWritten() {
+        RecipeCache cache = new RecipeCache(10, 10);
+        RecipeStubPage first = new RecipeStubPage(List.of(new RecipeStubDTO(1L, "Recipe 1", 0L, 0L)), 1L);
+        cache.putStubPage(null, 1, first, cache.generation());
+        cache.putStubPage(1L, 1, new RecipeStubPage(List.of(), null), cache.generation());
+
+        assertEquals(first, cache.getStubPage(null, 1));
+        assertNull(cache.getStubPage(null, 2));
+        cache.invalidate(2);
+        assertNull(cache.getStubPage(null, 1));
+        assertNull(cache.getStubPage(1L, 1));
+    }
+
+    @Test
+    void stubPagesLoadedBeforeAnInvalidationAreNotStored() {
+        RecipeCache cache = new RecipeCache(10, 10);
+        long generation = cache.generation();
+        cache.invalidate(1);
+        cache.putStubPage(null, 1, new RecipeStubPage(List.of(), null), generation);
+
+        assertNull(cache.getStubPage(null, 1));
+    }
+
+    private static Recipe recipe(long id) {
+        return new Recipe(id, "Recipe " + id, null, 4, 0, 0, List.of(), List.of(), List.of());
+    }
+}
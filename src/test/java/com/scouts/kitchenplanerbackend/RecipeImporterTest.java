@@ -0,0 +1,118 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Ingredient;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportProgress;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeImportRejection;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportFormat;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeImportListener;
+import com.scouts.kitchenplanerbackend.recipeimport.RecipeRecordReader;
+import com.scouts.kitchenplanerbackend.services.RecipeAggregateLoader;
+import com.scouts.kitchenplanerbackend.services.RecipeImporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "kitchenplaner.recipe-import.chunk-size=2")
+public class RecipeImporterTest {
+
+    @Autowired
+    private RecipeImporter importer;
+
+    @Autowired
+    private RecipeAggregateLoader loader;
+
+    @Test
+    void invalidRecordsAreRejectedWithoutAbortingTheImport() throws IOException {
+        String ndjson = """
+                {"id": 101, "name": "Chili", "numberOfPeople": 4, "ingredients": [{"ingredientGroup": "", "name": "Bohnen", "quantity": 500, "unit": "g"}], "instructions": ["Kochen"], "dietarySpecialities": [{"speciality": "Gluten", "type": "FREE_OF"}]}
+                {"id": 102, "name": "Porridge"
+                {"id": 103, "name": "Porridge", "numberOfPeople": 0}
+
+                {"id": 104, "name": "Porridge", "numberOfPeople": 2}
+                {"id": 101, "name": "Chili", "numberOfPeople": 4}
+                """;
+        List<RecipeImportRejection> rejections = new ArrayList<>();
+        RecipeImportProgress result = importer.importRecipes(new StringReader(ndjson), RecipeImportFormat.NDJSON,
+                collect(rejections));
+
+        assertEquals(5, result.records());
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2L, 3L, 5L), rejections.stream().map(RecipeImportRejection::record).toList());
+        Recipe chili = loader.load(101);
+        assertEquals(List.of(new Ingredient("", "Bohnen", 500, "g")), chili.ingredients());
+        assertEquals(List.of("Kochen"), chili.instructions());
+        assertEquals(List.of(new DietarySpeciality("Gluten", DietaryTypes.FREE_OF)), chili.dietarySpecialities());
+    }
+
+    @Test
+    void overlongNdjsonRecordsAreSkipped() throws IOException {
+        String ndjson = "{\"id\": 301, \"name\": \"" + "x".repeat(RecipeRecordReader.MAX_RECORD_LENGTH) + "\"}\n"
+                + "{\"id\": 302, \"name\": \"Rührei\", \"numberOfPeople\": 2}\n";
+        List<RecipeImportRejection> rejections = new ArrayList<>();
+        RecipeImportProgress result = importer.importRecipes(new StringReader(ndjson), RecipeImportFormat.NDJSON,
+                collect(rejections));
+
+        assertEquals(2, result.records());
+        assertEquals(1, result.imported());
+        assertEquals(List.of(1L), rejections.stream().map(RecipeImportRejection::record).toList());
+        assertEquals("Rührei", loader.load(302).name());
+    }
+
+    @Test
+    void csvRecordsMayContainQuotedSeparators() throws IOException {
+        String csv = """
+                id,name,numberOfPeople,ingredients,instructions,dietarySpecialities
+                201,"Nudeln, mit Soße",4,Soße;Tomaten;1;kg|;Nudeln;500;g,"Wasser ""kräftig"" salzen|Kochen",Ei;TRACE
+                202,Reis,zwei,,,
+                """;
+        List<RecipeImportRejection> rejections = new ArrayList<>();
+        RecipeImportProgress result = importer.importRecipes(new StringReader(csv), RecipeImportFormat.CSV,
+                collect(rejections));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(2L), rejections.stream().map(RecipeImportRejection::record).toList());
+        Recipe recipe = loader.load(201);
+        assertEquals("Nudeln, mit Soße", recipe.name());
+        assertEquals(2, recipe.ingredients().size());
+        assertEquals(List.of("Wasser \"kräftig\" salzen", "Kochen"), recipe.instructions());
+    }
+
+    private static RecipeImportListener collect(List<RecipeImportRejection> rejections) {
+        return new RecipeImportListener() {
+            @Override
+            public void progress(RecipeImportProgress progress) {
+            }
+
+            @Override
+            public void rejected(RecipeImportRejection rejection) {
+                rejections.add(rejection);
+            }
+        };
+    }
+}
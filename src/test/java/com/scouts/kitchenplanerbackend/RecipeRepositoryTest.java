@@ -0,0 +1,62 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeEntity;
+import com.scouts.kitchenplanerbackend.entities.recipe.RecipeStubDTO;
+import com.scouts.kitchenplanerbackend.repositories.recipes.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class RecipeRepositoryTest {
+
+    @Autowired
+    private RecipeRepository recipeRepo;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            RecipeEntity recipe = new RecipeEntity();
+            recipe.setId(id * 10);
+            recipe.setName("Recipe " + id);
+            recipe.setDescription("A long description");
+            recipe.setNumberOfPeople(4);
+            recipeRepo.save(recipe);
+        }
+    }
+
+    @Test
+    void stubsArePagedByID() {
+        List<RecipeStubDTO> firstPage = recipeRepo.findStubsAfter(Long.MIN_VALUE, PageRequest.ofSize(2));
+        List<RecipeStubDTO> secondPage = recipeRepo.findStubsAfter(20, PageRequest.ofSize(2));
+        List<RecipeStubDTO> lastPage = recipeRepo.findStubsAfter(40, PageRequest.ofSize(2));
+
+        assertEquals(List.of(new RecipeStubDTO(10L, "Recipe 1", 0L, 0L), new RecipeStubDTO(20L, "Recipe 2", 0L, 0L)),
+                firstPage);
+        assertEquals(List.of(30L, 40L), secondPage.stream().map(RecipeStubDTO::getId).toList());
+        assertEquals(List.of(50L), lastPage.stream().map(RecipeStubDTO::getId).toList());
+        assertEquals("Recipe 3", recipeRepo.getRecipeStubDTOById(30).getName());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.recipe.DietaryTypes;
+import com.scouts.kitchenplanerbackend.recipedtos.DietaryFilter;
+import com.scouts.kitchenplanerbackend.recipedtos.DietarySpeciality;
+import com.scouts.kitchenplanerbackend.recipedtos.Ingredient;
+import com.scouts.kitchenplanerbackend.recipedtos.Recipe;
+import com.scouts.kitchenplanerbackend.recipedtos.RecipeSearchHit;
+import com.scouts.kitchenplanerbackend.search.GermanNormalizer;
+import com.scouts.kitchenplanerbackend.search.RecipeSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecipeSearchIndexTest {
+
+    @Test
+    void prefixesMatchIgnoringCaseAndUmlauts() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.put(recipe(1, "Käsespätzle", "Mit Röstzwiebeln", List.of("Spätzle", "Bergkäse")));
+        index.put(recipe(2, "Nudeln mit Tomatensoße", null, List.of("Nudeln", "Tomaten", "Käse")));
+        index.put(recipe(3, "Obstsalat", "Für heiße Tage", List.of("Äpfel")));
+
+        // the exact match of an ingredient ranks before the prefix match of a name
+        assertEquals(List.of(2L, 1L), ids(index.search("KAESE", 10)));
+        assertEquals(List.of(2L), ids(index.search("nudeln mit tomatensosse", 10)));
+        assertEquals(List.of(3L), ids(index.search("aepf", 10)));
+        assertEquals(List.of(1L), ids(index.search("kaese roest", 10)));
+        assertEquals(List.of(), ids(index.search("kaese obst", 10)));
+        assertEquals(List.of(), ids(index.search("k", 10)));
+    }
+
+    @Test
+    void decomposedUmlautsMatchLikeComposedOnes() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        // "Käsespätzle" with the umlauts written as a letter followed by a combining diaeresis
+        index.put(recipe(1, "Ka\u0308sespa\u0308tzle", null, List.of()));
+
+        assertEquals(List.of("kaesespaetzle"), GermanNormalizer.terms("Ka\u0308sespa\u0308tzle"));
+        assertEquals(List.of(1L), ids(index.search("kaese", 10)));
+        assertEquals(List.of(1L), ids(index.search("Käsespätzle", 10)));
+        assertEquals(List.of(1L), ids(index.search("ka\u0308sespa\u0308tzle", 10)));
+    }
+
+    @Test
+    void updatedRecipesReplaceTheirOldTerms() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.put(recipe(1, "Chili con Carne", null, List.of("Hackfleisch")));
+        index.put(recipe(1, "Chili sin Carne", null, List.of("Sojagranulat")));
+
+        assertEquals(List.of(), ids(index.search("hack", 10)));
+        assertEquals(List.of(1L), ids(index.search("soja", 10)));
+
+        index.remove(1);
+        assertEquals(List.of(), ids(index.search("chili", 10)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void dietaryConstraintsRestrictTheMatches() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.put(recipe(1, "Reispfanne", List.of(free("Gluten"), free("Laktose"))));
+        index.put(recipe(2, "Reisauflauf", List.of(free("Gluten"), free("Laktose"),
+                new DietarySpeciality("Nüsse", DietaryTypes.TRACE))));
+        index.put(recipe(3, "Nudelpfanne", List.of(free("Laktose"))));
+        index.put(recipe(4, "Gemüsepfanne", List.of(free("gluten"), free("LAKTOSE"))));
+        DietaryFilter filter = new DietaryFilter(List.of(free("Gluten"), free("Laktose")),
+                List.of(new DietarySpeciality("Nuesse", DietaryTypes.TRACE)));
+
+        assertEquals(List.of(1L, 4L), ids(index.search("", filter, 0, 10)));
+        assertEquals(List.of(4L), ids(index.search("", filter, 1, 10)));
+        assertEquals(List.of(1L), ids(index.search("reis", filter, 0, 10)));
+        assertEquals(List.of(), ids(index.search("nudel", filter, 0, 10)));
+
+        index.remove(1);
+        index.put(recipe(5, "Reissalat", List.of(free("Gluten"), free("Laktose"))));
+        assertEquals(List.of(4L, 5L), ids(index.search("", filter, 0, 10)));
+    }
+
+    @Test
+    void offsetsBeyondTheMatchesReturnNothing() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.put(recipe(1, "Reispfanne", List.of()));
+        index.put(recipe(2, "Reisauflauf", List.of()));
+
+        assertEquals(List.of(2L), ids(index.search("reis", DietaryFilter.NONE, 1, 10)));
+        assertEquals(List.of(), ids(index.search("reis", DietaryFilter.NONE, Integer.MAX_VALUE, 10)));
+        assertEquals(List.of(), ids(index.search("", DietaryFilter.NONE, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+    }
+
+    private static DietarySpeciality free(String speciality) {
+        return new DietarySpeciality(speciality, DietaryTypes.FREE_OF);
+    }
+
+    private static Recipe recipe(long id, String name, List<DietarySpeciality> specialities) {
+        return new Recipe(id, name, null, 4, 0, 0, List.of(), List.of(), specialities);
+    }
+
+    private static List<Long> ids(List<RecipeSearchHit> hits) {
+        return hits.stream().map(RecipeSearchHit::recipeID).toList();
+    }
+
+    private static Recipe recipe(long id, String name, String description, List<String> ingredients) {
+        return new Recipe(id, name, description, 4, 0, 0,
+                ingredients.stream().map(ingredient -> new Ingredient("", ingredient, 1, "kg")).toList(),
+                List.of(), List.of());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeStubDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientQuantityDTO;
+import com.scouts.kitchenplanerbackend.planning.HeadcountTimeline;
+import com.scouts.kitchenplanerbackend.planning.ShoppingListAggregator;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingList;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingListItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ShoppingListAggregatorTest {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+
+    @Test
+    void allergenPeopleAreSplitBetweenAlternativeRecipes() {
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 1, START, START, List.of("Mittagessen"),
+                List.of(new Change(0, "Mittagessen", 10)),
+                List.of(new Person("Anna"), new Person("Ben"), new Person("Clara")));
+        List<RecipeForProject> recipes = List.of(
+                new RecipeForProject(START, "Mittagessen", 1, true),
+                new RecipeForProject(START, "Mittagessen", 3, false),
+                new RecipeForProject(START, "Mittagessen", 2, false));
+        List<IngredientQuantityDTO> ingredients = List.of(
+                new Ingredient(1, "Nudeln"), new Ingredient(2, "Reis"), new Ingredient(3, "Kartoffeln"));
+
+        ShoppingList shoppingList = ShoppingListAggregator.aggregate(timeline, recipes, ingredients,
+                UnitConversionGraph.build(1, 1, List.of()));
+
+        assertEquals(List.of(new ShoppingListItem("Kartoffeln", 100, "g"), new ShoppingListItem("Nudeln", 700, "g"),
+                new ShoppingListItem("Reis", 200, "g")), shoppingList.groups().get(0).items());
+    }
+
+    private record Change(Integer getDay, String getMeal, int getDifferenceBefore)
+            implements PersonNumberChangeStubDTO {
+    }
+
+    private record Person(String getName) implements AllergenPersonStubDTO {
+        @Override
+        public Integer getArrivalDay() {
+            return 0;
+        }
+
+        @Override
+        public Integer getDepartureDay() {
+            return 0;
+        }
+
+        @Override
+        public String getArrivalMeal() {
+            return null;
+        }
+
+        @Override
+        public String getDepartureMeal() {
+            return null;
+        }
+    }
+
+    private record Ingredient(Long getRecipeId, String getName) implements IngredientQuantityDTO {
+        private Ingredient(long recipeID, String name) {
+            this(Long.valueOf(recipeID), name);
+        }
+
+        @Override
+        public int getNumberOfPeople() {
+            return 1;
+        }
+
+        @Override
+        public String getIngredientGroup() {
+            return "";
+        }
+
+        @Override
+        public double getQuantity() {
+            return 100;
+        }
+
+        @Override
+        public String getUnit() {
+            return "g";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.entities.projects.AllergenPersonStubDTO;
+import com.scouts.kitchenplanerbackend.entities.projects.PersonNumberChangeStubDTO;
+import com.scouts.kitchenplanerbackend.entities.recipe.IngredientQuantityDTO;
+import com.scouts.kitchenplanerbackend.planning.HeadcountTimeline;
+import com.scouts.kitchenplanerbackend.planning.ShoppingListAggregator;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.RecipeForProject;
+import com.scouts.kitchenplanerbackend.projectdtos.ShoppingList;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures how long it takes to compute the shopping list of a three week camp with five meals a day and 800
+ * people. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ShoppingListBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 7, 22);
+    private static final int DAYS = 21;
+    private static final List<String> MEALS = List.of("Frühstück", "Vesper", "Mittagessen", "Kaffee", "Abendessen");
+    private static final int RECIPES = 300;
+    private static final int INGREDIENTS_PER_RECIPE = 25;
+    private final Logger logger = LoggerFactory.getLogger(ShoppingListBenchmark.class);
+
+    @Test
+    void largeCamp() {
+        List<PersonNumberChangeStubDTO> changes = List.of(new Change(0, "Frühstück", 800));
+        List<AllergenPersonStubDTO> allergenPeople = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            allergenPeople.add(new Person("Person " + i, 0, DAYS - 1));
+        }
+        List<RecipeForProject> recipes = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = START.plusDays(day);
+            for (int meal = 0; meal < MEALS.size(); meal++) {
+                long recipe = (day * MEALS.size() + meal) % RECIPES;
+                recipes.add(new RecipeForProject(date, MEALS.get(meal), recipe, true));
+                recipes.add(new RecipeForProject(date, MEALS.get(meal), (recipe + 1) % RECIPES, false));
+            }
+        }
+        List<IngredientQuantityDTO> ingredients = new ArrayList<>();
+        for (long recipe = 0; recipe < RECIPES; recipe++) {
+            for (int i = 0; i < INGREDIENTS_PER_RECIPE; i++) {
+                ingredients.add(new Ingredient(recipe, 4, "Zutat " + (recipe * 7 + i) % 500, "Gruppe " + i % 10,
+                        250, i % 2 == 0 ? "g" : "kg"));
+            }
+        }
+        List<UnitConversion> conversions = List.of(new UnitConversion("g", "kg", "", 0.001));
+
+        // warm up, so the measurement does not include class loading and compilation
+        for (int i = 0; i < 5; i++) {
+            compute(changes, allergenPeople, recipes, ingredients, conversions);
+        }
+        long start = System.nanoTime();
+        ShoppingList shoppingList = compute(changes, allergenPeople, recipes, ingredients, conversions);
+        long micros = (System.nanoTime() - start) / 1000;
+        logger.info("Computed shopping list for {} meal slots and {} ingredient rows in {} us",
+                DAYS * MEALS.size(), ingredients.size(), micros);
+
+        assertEquals(10, shoppingList.groups().size());
+        assertTrue(micros < 1_000_000, "Computing the shopping list took " + micros + " us");
+    }
+
+    private static ShoppingList compute(List<PersonNumberChangeStubDTO> changes,
+                                        List<AllergenPersonStubDTO> allergenPeople, List<RecipeForProject> recipes, List<IngredientQuantityDTO> ingredients,
+                                        List<UnitConversion> conversions) {
+        HeadcountTimeline timeline = HeadcountTimeline.compile(1, 1, START,
+                START.plusDays(DAYS - 1), MEALS, changes, allergenPeople);
+        return ShoppingListAggregator.aggregate(timeline, recipes, ingredients,
+                UnitConversionGraph.build(1, 1, conversions));
+    }
+
+    private record Change(Integer getDay, String getMeal, int getDifferenceBefore)
+            implements PersonNumberChangeStubDTO {
+    }
+
+    private record Person(String getName, Integer getArrivalDay, Integer getDepartureDay)
+            implements AllergenPersonStubDTO {
+        @Override
+        public String getArrivalMeal() {
+            return null;
+        }
+
+        @Override
+        public String getDepartureMeal() {
+            return null;
+        }
+    }
+
+    private record Ingredient(Long getRecipeId, int getNumberOfPeople, String getName, String getIngredientGroup,
+                              double getQuantity, String getUnit) implements IngredientQuantityDTO {
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * KitchenPlanerApp is the android app frontend for the KitchenPlaner, a tool
+ * to cooperatively plan a meal plan for a campout.
+ * Copyright (C) 2023-2024 Arne Kuchenbecker, Antonia Heiming, Anton Kadelbach, Sandra Lanz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+package com.scouts.kitchenplanerbackend;
+
+import com.scouts.kitchenplanerbackend.exceptions.InconsistentUnitConversionException;
+import com.scouts.kitchenplanerbackend.planning.UnitConversionGraph;
+import com.scouts.kitchenplanerbackend.projectdtos.UnitConversion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UnitConversionGraphTest {
+    private static final List<UnitConversion> CONVERSIONS = List.of(
+            new UnitConversion("Prise", "TL", "", 0.1),
+            new UnitConversion("TL", "g", "", 5),
+            new UnitConversion("TL", "g", "Salz", 6),
+            new UnitConversion("g", "kg", "", 0.001));
+
+    @Test
+    void conversionsAreChained() {
+        UnitConversionGraph graph = UnitConversionGraph.build(1, 1, CONVERSIONS);
+
+        assertEquals(0.5, graph.factor("Zucker", "Prise", "g").orElseThrow(), 1e-9);
+        assertEquals(0.0005, graph.factor(null, "Prise", "kg").orElseThrow(), 1e-12);
+        assertEquals(2000, graph.factor("", "kg", "Prise").orElseThrow(), 1e-6);
+        assertFalse(graph.factor("", "Prise", "Dose").isPresent());
+        assertEquals("kg", graph.canonicalUnit("Zucker", "TL"));
+    }
+
+    @Test
+    void conversionsForAnIngredientReplaceGenericOnes() {
+        UnitConversionGraph graph = UnitConversionGraph.build(1, 1, CONVERSIONS);
+
+        assertEquals(0.6, graph.factor("Salz", "Prise", "g").orElseThrow(), 1e-9);
+        assertEquals(0.5, graph.factor("Pfeffer", "Prise", "g").orElseThrow(), 1e-9);
+    }
+
+    @Test
+    void contradictingCyclesAreDetected() {
+        assertDoesNotThrow(() -> UnitConversionGraph.validate(CONVERSIONS));
+        List<UnitConversion> contradicting = List.of(
+                new UnitConversion("EL", "TL", "", 3),
+                new UnitConversion("TL", "g", "", 5),
+                new UnitConversion("EL", "g", "", 20));
+
+        assertThrows(InconsistentUnitConversionException.class, () -> UnitConversionGraph.validate(contradicting));
+    }
+}